@@ -0,0 +1,40 @@
+package com.affirm.android;
+
+import com.affirm.android.exception.AffirmException;
+import com.affirm.android.model.AffirmError;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class AffirmHttpClientBenchmark {
+
+    @Param({"400", "403", "500"})
+    public int responseCode;
+
+    private AffirmError affirmError;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.initializeAffirm();
+        affirmError = AffirmPlugins.get().gson()
+                .fromJson(BenchmarkFixtures.AFFIRM_ERROR_JSON, AffirmError.class);
+    }
+
+    @Benchmark
+    public AffirmException handleAPIError() {
+        return AffirmHttpClient.handleAPIError(affirmError, responseCode,
+                "3c1e7d1a-b7a5-4ac8-9d7b-5d64a4e3b5c0");
+    }
+
+    @Benchmark
+    public AffirmException parseAndHandleAPIError() {
+        final AffirmError error = AffirmPlugins.get().gson()
+                .fromJson(BenchmarkFixtures.AFFIRM_ERROR_JSON, AffirmError.class);
+        return AffirmHttpClient.handleAPIError(error, responseCode,
+                "3c1e7d1a-b7a5-4ac8-9d7b-5d64a4e3b5c0");
+    }
+}
@@ -0,0 +1,33 @@
+package com.affirm.android;
+
+import com.google.gson.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static com.affirm.android.AffirmTracker.TrackingEvent.NETWORK_ERROR;
+import static com.affirm.android.AffirmTracker.TrackingLevel.ERROR;
+
+@State(Scope.Benchmark)
+public class AffirmTrackerBenchmark {
+
+    private JsonObject eventData;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.initializeAffirm();
+        eventData = BenchmarkFixtures.trackingEventData();
+    }
+
+    @Benchmark
+    public JsonObject addTrackingData() {
+        return AffirmTracker.addTrackingData(NETWORK_ERROR.name(), eventData, ERROR);
+    }
+
+    @Benchmark
+    public JsonObject addTrackingDataWithoutEventData() {
+        return AffirmTracker.addTrackingData(NETWORK_ERROR.name(), null, ERROR);
+    }
+}
@@ -0,0 +1,53 @@
+package com.affirm.android;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.affirm.android.AffirmConstants.AMOUNT;
+import static com.affirm.android.AffirmConstants.API_KEY;
+import static com.affirm.android.AffirmConstants.CANCEL_URL;
+import static com.affirm.android.AffirmConstants.JAVASCRIPT;
+import static com.affirm.android.AffirmConstants.MODAL_ID;
+import static com.affirm.android.AffirmConstants.PAGE_TYPE;
+import static com.affirm.android.AffirmConstants.PROMO_ID;
+
+@State(Scope.Benchmark)
+public class AffirmUtilsBenchmark {
+
+    private byte[] modalTemplate;
+    private String modalTemplateText;
+    private Map<String, String> placeholders;
+
+    @Setup
+    public void setup() {
+        modalTemplate = BenchmarkFixtures.rawResource("affirm_modal_template.html");
+        modalTemplateText = new String(modalTemplate, StandardCharsets.UTF_8);
+
+        placeholders = new HashMap<>();
+        placeholders.put(AMOUNT, "110000");
+        placeholders.put(API_KEY, BenchmarkFixtures.PUBLIC_KEY);
+        placeholders.put(JAVASCRIPT, "https://cdn1-sandbox.affirm.com/js/v2/affirm.js");
+        placeholders.put(CANCEL_URL, "affirm://checkout/cancelled");
+        placeholders.put(MODAL_ID, "5LNMQ33SEUYHLNUC");
+        placeholders.put(PAGE_TYPE, "product");
+        placeholders.put(PROMO_ID, "promo_set_default");
+    }
+
+    @Benchmark
+    public String readInputStream() throws IOException {
+        return AffirmUtils.readInputStream(new ByteArrayInputStream(modalTemplate));
+    }
+
+    @Benchmark
+    public String replacePlaceholders() {
+        return AffirmUtils.replacePlaceholders(modalTemplateText, placeholders);
+    }
+}
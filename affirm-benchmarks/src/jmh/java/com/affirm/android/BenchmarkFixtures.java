@@ -0,0 +1,130 @@
+package com.affirm.android;
+
+import com.affirm.android.model.Address;
+import com.affirm.android.model.Billing;
+import com.affirm.android.model.Checkout;
+import com.affirm.android.model.Currency;
+import com.affirm.android.model.Discount;
+import com.affirm.android.model.Item;
+import com.affirm.android.model.Name;
+import com.affirm.android.model.Shipping;
+import com.google.gson.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Realistic payloads shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    static final String PUBLIC_KEY = "Y8CQXFF044903JC0";
+
+    static final String PROMO_RESPONSE_JSON = "{\"promo\":{"
+            + "\"ala\":\"Starting at $44/mo with {affirm_logo}. Learn more\","
+            + "\"html_ala\":\"Starting at <span class=\\\"affirm-ala-price\\\">$44</span>/mo "
+            + "with <span class=\\\"__affirm-logo affirm-logo--blue\\\">Affirm</span>. "
+            + "<a class=\\\"affirm-modal-trigger\\\">Learn more</a>\","
+            + "\"config\":{\"promo_prequal_enabled\":true,\"promo_style\":\"simple\"}}}";
+
+    static final String CHECKOUT_RESPONSE_JSON = "{\"redirect_url\":"
+            + "\"https://sandbox.affirm.com/checkout/GFTWQ0CXHM0YXKD0/new/\","
+            + "\"checkout_id\":\"GFTWQ0CXHM0YXKD0\"}";
+
+    static final String AFFIRM_ERROR_JSON = "{\"status_code\":400,"
+            + "\"type\":\"invalid_request\","
+            + "\"code\":\"invalid_field\","
+            + "\"message\":\"Invalid phone number format\","
+            + "\"field\":\"shipping.phone_number\","
+            + "\"fields\":[\"shipping.phone_number\"]}";
+
+    private BenchmarkFixtures() {
+    }
+
+    static void initializeAffirm() {
+        if (AffirmPlugins.get() == null) {
+            Affirm.initialize(new Affirm.Configuration.Builder(PUBLIC_KEY,
+                    Affirm.Environment.SANDBOX)
+                    .setMerchantName("Benchmark Merchant")
+                    .build());
+        }
+    }
+
+    static Checkout checkout(int itemCount) {
+        final Map<String, Item> items = new LinkedHashMap<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.put("sku-" + i, Item.builder()
+                    .setDisplayName("Great Deal Wheel " + i)
+                    .setImageUrl("https://www.merchant.com/media/catalog/product/cache/1/"
+                            + "thumbnail/9df78eab33525d08d6e5fb8d27136e95/wheel-" + i + ".jpg")
+                    .setQty(1 + i % 4)
+                    .setSku("sku-" + i)
+                    .setUnitPrice(BigDecimal.valueOf(99.99 + i))
+                    .setUrl("https://www.merchant.com/great_deal_wheel_" + i)
+                    .build());
+        }
+
+        final Map<String, Discount> discounts = new HashMap<>();
+        discounts.put("SUMMER", Discount.builder()
+                .setDisplayName("Summer sale")
+                .setAmount(BigDecimal.valueOf(25.0))
+                .build());
+
+        final Name name = Name.builder().setFull("John Smith").build();
+        final Address address = Address.builder()
+                .setCity("San Francisco")
+                .setCountry("USA")
+                .setLine1("333 Kansas st")
+                .setState("CA")
+                .setZipcode("94103")
+                .build();
+
+        final Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            metadata.put("key_" + i, "value_" + i);
+        }
+
+        return Checkout.builder()
+                .setItems(items)
+                .setDiscounts(discounts)
+                .setBilling(Billing.builder().setAddress(address).setName(name).build())
+                .setShipping(Shipping.builder().setAddress(address).setName(name).build())
+                .setShippingAmount(BigDecimal.valueOf(10.0))
+                .setTaxAmount(BigDecimal.valueOf(100.0))
+                .setTotal(BigDecimal.valueOf(2000.0 + itemCount * 100))
+                .setMetadata(metadata)
+                .setCurrency(Currency.USD)
+                .build();
+    }
+
+    static JsonObject trackingEventData() {
+        final JsonObject data = new JsonObject();
+        data.addProperty("url", "https://sandbox.affirm.com/api/v2/checkout/");
+        data.addProperty("method", "POST");
+        data.addProperty("status_code", 500);
+        data.addProperty("X-Affirm-Request-Id", "3c1e7d1a-b7a5-4ac8-9d7b-5d64a4e3b5c0");
+        data.addProperty("x-amz-cf-id", "Wq5Oa0Qoa1XWqy3_Y6-5jFuOUVqvBDD4R9T4OWSF3YwgaLvX4tJ1Zw");
+        data.addProperty("x-affirm-using-cdn", "true");
+        data.addProperty("x-cache", "Miss from cloudfront");
+        return data;
+    }
+
+    static byte[] rawResource(String name) {
+        try (InputStream ins = BenchmarkFixtures.class.getResourceAsStream("/" + name)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = ins.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.affirm.android;
+
+import com.affirm.android.model.Checkout;
+import com.google.gson.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class CheckoutRequestBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int itemCount;
+
+    private CheckoutRequest standardRequest;
+    private CheckoutRequest vcnRequest;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.initializeAffirm();
+        final Checkout checkout = BenchmarkFixtures.checkout(itemCount);
+        standardRequest = new CheckoutRequest(checkout, null, null, false, -1);
+        vcnRequest = new CheckoutRequest(checkout, null, "caas", true, 10);
+    }
+
+    @Benchmark
+    public JsonObject body() {
+        return standardRequest.buildBody();
+    }
+
+    @Benchmark
+    public JsonObject vcnBody() {
+        return vcnRequest.buildBody();
+    }
+
+    @Benchmark
+    public String bodyToString() {
+        return standardRequest.buildBody().toString();
+    }
+}
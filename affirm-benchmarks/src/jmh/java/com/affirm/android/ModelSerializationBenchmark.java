@@ -0,0 +1,50 @@
+package com.affirm.android;
+
+import com.affirm.android.model.AffirmError;
+import com.affirm.android.model.Checkout;
+import com.affirm.android.model.CheckoutResponse;
+import com.affirm.android.model.PromoResponse;
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class ModelSerializationBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int itemCount;
+
+    private Gson gson;
+    private Checkout checkout;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixtures.initializeAffirm();
+        gson = AffirmPlugins.get().gson();
+        checkout = BenchmarkFixtures.checkout(itemCount);
+    }
+
+    @Benchmark
+    public String serializeCheckout() {
+        return gson.toJson(checkout);
+    }
+
+    @Benchmark
+    public PromoResponse deserializePromoResponse() {
+        return gson.fromJson(BenchmarkFixtures.PROMO_RESPONSE_JSON, PromoResponse.class);
+    }
+
+    @Benchmark
+    public CheckoutResponse deserializeCheckoutResponse() {
+        return gson.fromJson(BenchmarkFixtures.CHECKOUT_RESPONSE_JSON, CheckoutResponse.class);
+    }
+
+    @Benchmark
+    public AffirmError deserializeAffirmError() {
+        return gson.fromJson(BenchmarkFixtures.AFFIRM_ERROR_JSON, AffirmError.class);
+    }
+}
@@ -1,7 +1,6 @@
 package com.affirm.android;
 
 import android.app.Activity;
-import android.app.FragmentManager;
 import android.content.Context;
 import android.content.Intent;
 import android.util.Log;
@@ -11,6 +10,8 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
 
 import com.affirm.android.exception.AffirmException;
 import com.affirm.android.model.AffirmTrack;
@@ -20,8 +21,13 @@ import com.affirm.android.model.Item;
 import com.affirm.android.model.PromoPageType;
 import com.affirm.android.model.VcnReason;
 
+import java.io.File;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static android.app.Activity.RESULT_CANCELED;
 import static android.app.Activity.RESULT_OK;
@@ -54,7 +60,7 @@ public final class Affirm {
 
     static final int RESULT_ERROR = -8575;
 
-    private static final String LIFE_FRAGMENT_TAG = "LifeFragmentTag";
+    private static final long DEFAULT_PREPARED_CHECKOUT_TTL_MILLIS = 5 * 60 * 1000;
 
     public interface PrequalCallbacks {
         void onAffirmPrequalError(@Nullable String message);
@@ -82,6 +88,15 @@ public final class Affirm {
         US, CA
     }
 
+    /**
+     * Where the checkout is shown, see
+     * {@link Configuration.Builder#setPresentationMode(PresentationMode)}
+     */
+    public enum PresentationMode {
+        WEBVIEW,
+        CUSTOM_TABS
+    }
+
     public enum Environment {
         SANDBOX,
         PRODUCTION;
@@ -131,10 +146,46 @@ public final class Affirm {
         final String publicKey;
         final Environment environment;
         final String merchantName;
+        @Nullable
+        final AffirmMetricsListener metricsListener;
+        final boolean tracingEnabled;
+        final boolean warmUpWebView;
+        final boolean prefetchModals;
+        final boolean prefetchPrequal;
+        @NonNull
+        final PresentationMode presentationMode;
+        @NonNull
+        final AffirmRetryPolicy retryPolicy;
+        @NonNull
+        final AffirmCircuitBreakerPolicy circuitBreakerPolicy;
+        @Nullable
+        final AffirmCircuitBreakerListener circuitBreakerListener;
+        final long promoTimeoutMillis;
+        final long checkoutTimeoutMillis;
+        final long trackerTimeoutMillis;
+        final long preparedCheckoutTtlMillis;
+        @Nullable
+        final File httpCacheDirectory;
+        final long httpCacheMaxSize;
 
         Configuration(Builder builder) {
             this.publicKey = builder.publicKey;
             this.merchantName = builder.merchantName;
+            this.metricsListener = builder.metricsListener;
+            this.tracingEnabled = builder.tracingEnabled;
+            this.warmUpWebView = builder.warmUpWebView;
+            this.prefetchModals = builder.prefetchModals;
+            this.prefetchPrequal = builder.prefetchPrequal;
+            this.presentationMode = builder.presentationMode;
+            this.retryPolicy = builder.retryPolicy;
+            this.circuitBreakerPolicy = builder.circuitBreakerPolicy;
+            this.circuitBreakerListener = builder.circuitBreakerListener;
+            this.promoTimeoutMillis = builder.promoTimeoutMillis;
+            this.checkoutTimeoutMillis = builder.checkoutTimeoutMillis;
+            this.trackerTimeoutMillis = builder.trackerTimeoutMillis;
+            this.preparedCheckoutTtlMillis = builder.preparedCheckoutTtlMillis;
+            this.httpCacheDirectory = builder.httpCacheDirectory;
+            this.httpCacheMaxSize = builder.httpCacheMaxSize;
 
             if (builder.environment != null) {
                 this.environment = builder.environment;
@@ -175,6 +226,22 @@ public final class Affirm {
             private int vcnCheckoutRequestCode;
             private int prequalRequestCode;
             private String receiveReasonCodes;
+            private AffirmMetricsListener metricsListener;
+            private boolean tracingEnabled;
+            private boolean warmUpWebView;
+            private boolean prefetchModals;
+            private boolean prefetchPrequal;
+            private PresentationMode presentationMode = PresentationMode.WEBVIEW;
+            private AffirmRetryPolicy retryPolicy = AffirmRetryPolicy.DEFAULT;
+            private AffirmCircuitBreakerPolicy circuitBreakerPolicy =
+                    AffirmCircuitBreakerPolicy.DEFAULT;
+            private AffirmCircuitBreakerListener circuitBreakerListener;
+            private long promoTimeoutMillis;
+            private long checkoutTimeoutMillis;
+            private long trackerTimeoutMillis;
+            private long preparedCheckoutTtlMillis = DEFAULT_PREPARED_CHECKOUT_TTL_MILLIS;
+            private File httpCacheDirectory;
+            private long httpCacheMaxSize;
 
             /**
              * @param publicKey Set the public key to be used by Affirm.
@@ -287,6 +354,193 @@ public final class Affirm {
                 return this;
             }
 
+            /**
+             * Set a listener for the performance metrics of the SDK, it's optional. Network
+             * timings, cache counts & WebView load times are only recorded when a listener is
+             * set.
+             *
+             * @param metricsListener the listener receiving every recorded metric
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setMetricsListener(@Nullable AffirmMetricsListener metricsListener) {
+                this.metricsListener = metricsListener;
+                return this;
+            }
+
+            /**
+             * Add named trace sections for the work of the SDK, so it shows up in Perfetto &
+             * systrace. It's optional and disabled by default.
+             *
+             * @param tracingEnabled whether trace sections should be recorded
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setTracingEnabled(boolean tracingEnabled) {
+                this.tracingEnabled = tracingEnabled;
+                return this;
+            }
+
+            /**
+             * Load the WebView provider while warming up in
+             * {@link Affirm#initializeAsync(Context, Configuration, Executor)}, so the first
+             * promo modal or checkout opens faster. It's optional and disabled by default.
+             *
+             * @param warmUpWebView whether the WebView provider should be loaded on warm up
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setWarmUpWebView(boolean warmUpWebView) {
+                this.warmUpWebView = warmUpWebView;
+                return this;
+            }
+
+            /**
+             * Load the modal of an {@link AffirmPromotionButton} in the background once its
+             * promo is shown, so it opens right away when tapped. It's optional and disabled by
+             * default. The prefetched WebViews are limited by the memory of the device, none are
+             * kept on a low ram device.
+             *
+             * @param prefetchModals whether the modals of the promos should be prefetched
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setPrefetchModals(boolean prefetchModals) {
+                this.prefetchModals = prefetchModals;
+                return this;
+            }
+
+            /**
+             * Load the prequal flow of an {@link AffirmPromotionButton} in the background once
+             * its promo is shown, so it's ready when tapped. It's optional and disabled by
+             * default, as it downloads the prequal page & scripts for promos that may not be
+             * tapped. It shares the WebViews limit of {@link #setPrefetchModals(boolean)}.
+             *
+             * @param prefetchPrequal whether the prequal flows of the promos should be prefetched
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setPrefetchPrequal(boolean prefetchPrequal) {
+                this.prefetchPrequal = prefetchPrequal;
+                return this;
+            }
+
+            /**
+             * Set where the checkout is shown, it's optional. The default is
+             * {@link PresentationMode#WEBVIEW}, a screen of the SDK. With
+             * {@link PresentationMode#CUSTOM_TABS} it's shown in a Custom Tab of the browser,
+             * which is warmed up once Affirm gets a context & shares the browser's cache &
+             * session. The WebView is still used for VCN checkouts, prequal flows, modals, and
+             * when no browser supports Custom Tabs.
+             *
+             * @param presentationMode where the checkout is shown
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setPresentationMode(@NonNull PresentationMode presentationMode) {
+                this.presentationMode = presentationMode;
+                return this;
+            }
+
+            /**
+             * Set how failed http calls are retried, it's optional. The default is
+             * {@link AffirmRetryPolicy#DEFAULT}, use {@link AffirmRetryPolicy#NONE} to disable
+             * retries.
+             *
+             * @param retryPolicy the retry policy of the http calls
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setRetryPolicy(@NonNull AffirmRetryPolicy retryPolicy) {
+                this.retryPolicy = retryPolicy;
+                return this;
+            }
+
+            /**
+             * Set when the circuit breakers of the promo & tracker endpoints open, it's
+             * optional. The default is {@link AffirmCircuitBreakerPolicy#DEFAULT}, use
+             * {@link AffirmCircuitBreakerPolicy#DISABLED} to never open them.
+             *
+             * @param circuitBreakerPolicy the thresholds of the circuit breakers
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setCircuitBreakerPolicy(
+                    @NonNull AffirmCircuitBreakerPolicy circuitBreakerPolicy) {
+                this.circuitBreakerPolicy = circuitBreakerPolicy;
+                return this;
+            }
+
+            /**
+             * Set a listener for the state changes of the circuit breakers, it's optional.
+             *
+             * @param circuitBreakerListener the listener notified when a breaker changes state
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setCircuitBreakerListener(
+                    @Nullable AffirmCircuitBreakerListener circuitBreakerListener) {
+                this.circuitBreakerListener = circuitBreakerListener;
+                return this;
+            }
+
+            /**
+             * Set the deadline of the promo requests, including their retries, it's optional.
+             * It can be overridden per request with
+             * {@link PromoRequestData.Builder#setTimeoutMillis(long)}. The default 0 means no
+             * deadline besides the connect & read timeouts.
+             *
+             * @param promoTimeoutMillis the deadline of the promo requests in milliseconds
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setPromoTimeoutMillis(long promoTimeoutMillis) {
+                this.promoTimeoutMillis = promoTimeoutMillis;
+                return this;
+            }
+
+            /**
+             * Set the deadline of the checkout creation requests, including their retries, it's
+             * optional. The default 0 means no deadline besides the connect & read timeouts.
+             *
+             * @param checkoutTimeoutMillis the deadline of the checkout requests in milliseconds
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setCheckoutTimeoutMillis(long checkoutTimeoutMillis) {
+                this.checkoutTimeoutMillis = checkoutTimeoutMillis;
+                return this;
+            }
+
+            /**
+             * Set the deadline of the tracking requests, including their retries, it's optional.
+             * The default 0 means no deadline besides the connect & read timeouts.
+             *
+             * @param trackerTimeoutMillis the deadline of the tracking requests in milliseconds
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setTrackerTimeoutMillis(long trackerTimeoutMillis) {
+                this.trackerTimeoutMillis = trackerTimeoutMillis;
+                return this;
+            }
+
+            /**
+             * Set how long a checkout created by {@link Affirm#prepareCheckout(Checkout)} can be
+             * shown, it's optional. The default is 5 minutes.
+             *
+             * @param preparedCheckoutTtlMillis the lifetime of a prepared checkout in milliseconds
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setPreparedCheckoutTtlMillis(long preparedCheckoutTtlMillis) {
+                this.preparedCheckoutTtlMillis = preparedCheckoutTtlMillis;
+                return this;
+            }
+
+            /**
+             * Keep an http cache of the promo responses, it's optional and disabled by default.
+             * Unchanged promos are then revalidated with their ETag or Last-Modified and not
+             * downloaded again. The directory must be private to Affirm, eg
+             * {@code new File(context.getCacheDir(), "affirm-http")}.
+             *
+             * @param directory    the directory of the cache, null to disable it
+             * @param maxSizeBytes the maximum size of the cache
+             * @return The same builder, for easy chaining.
+             */
+            public Builder setHttpCache(@Nullable File directory, long maxSizeBytes) {
+                this.httpCacheDirectory = directory;
+                this.httpCacheMaxSize = maxSizeBytes;
+                return this;
+            }
+
             /**
              * Construct this builder into a concrete {@code Configuration} instance.
              *
@@ -295,6 +549,20 @@ public final class Affirm {
             public Configuration build() {
                 AffirmUtils.requireNonNull(publicKey, "public key cannot be null");
                 AffirmUtils.requireNonNull(environment, "environment cannot be null");
+                AffirmUtils.requireNonNull(presentationMode, "presentation mode cannot be null");
+                AffirmUtils.requireNonNull(retryPolicy, "retry policy cannot be null");
+                AffirmUtils.requireNonNull(circuitBreakerPolicy,
+                        "circuit breaker policy cannot be null");
+                if (promoTimeoutMillis < 0 || checkoutTimeoutMillis < 0
+                        || trackerTimeoutMillis < 0) {
+                    throw new IllegalArgumentException("timeouts cannot be negative");
+                }
+                if (preparedCheckoutTtlMillis < 0) {
+                    throw new IllegalArgumentException("prepared checkout ttl cannot be negative");
+                }
+                if (httpCacheDirectory != null && httpCacheMaxSize <= 0) {
+                    throw new IllegalArgumentException("http cache size must be positive");
+                }
                 return new Configuration(this);
             }
         }
@@ -315,6 +583,7 @@ public final class Affirm {
         private AffirmLogoType affirmLogoType;
         @Nullable
         private List<Item> items;
+        private long timeoutMillis;
 
         private PromoRequestData(
                 @Nullable String promoId,
@@ -323,7 +592,8 @@ public final class Affirm {
                 boolean showCta,
                 @NonNull AffirmColor affirmColor,
                 @NonNull AffirmLogoType affirmLogoType,
-                @Nullable List<Item> items
+                @Nullable List<Item> items,
+                long timeoutMillis
         ) {
             this.promoId = promoId;
             this.pageType = pageType;
@@ -332,6 +602,7 @@ public final class Affirm {
             this.affirmColor = affirmColor;
             this.affirmLogoType = affirmLogoType;
             this.items = items;
+            this.timeoutMillis = timeoutMillis;
         }
 
         @Nullable
@@ -367,6 +638,10 @@ public final class Affirm {
             return items;
         }
 
+        long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
         public static final class Builder {
             @Nullable
             private String promoId;
@@ -378,6 +653,7 @@ public final class Affirm {
             private AffirmLogoType affirmLogoType;
             @Nullable
             private List<Item> items;
+            private long timeoutMillis;
 
             /**
              * @param amount  a BigDecimal that represents the amount to retrieve pricing for
@@ -427,6 +703,15 @@ public final class Affirm {
                 return this;
             }
 
+            /**
+             * @param timeoutMillis the deadline of this request including its retries, it's
+             *                      optional and overrides the promo timeout of the configuration
+             */
+            public PromoRequestData.Builder setTimeoutMillis(long timeoutMillis) {
+                this.timeoutMillis = timeoutMillis;
+                return this;
+            }
+
             public PromoRequestData build() {
                 if (affirmLogoType == null) {
                     affirmLogoType = AFFIRM_DISPLAY_TYPE_LOGO;
@@ -443,7 +728,8 @@ public final class Affirm {
                         showCta,
                         affirmColor,
                         affirmLogoType,
-                        items
+                        items,
+                        timeoutMillis
                 );
             }
         }
@@ -463,13 +749,106 @@ public final class Affirm {
             AffirmLog.w("Affirm is already initialized");
             return;
         }
-        AffirmPlugins.initialize(configuration);
+        AffirmTrace.setEnabled(configuration.tracingEnabled);
+        AffirmTrace.beginSection(AffirmTrace.INITIALIZE);
+        try {
+            AffirmPlugins.initialize(configuration);
+        } finally {
+            AffirmTrace.endSection();
+        }
+    }
+
+    /**
+     * Initialize Affirm and build everything it otherwise creates on first use (Gson, the
+     * OkHttp client, the html templates and optionally the WebView provider) on
+     * {@code executor}. Affirm can be used right away, requests made before the warm up is done
+     * are sent once it is.
+     *
+     * @param context       any context, only the application context is kept
+     * @param configuration the configuration of Affirm
+     * @param executor      a background executor running the warm up
+     * @return A future completing once the warm up is done
+     */
+    @NonNull
+    public static AffirmReadyFuture initializeAsync(@NonNull Context context,
+                                                    @NonNull Configuration configuration,
+                                                    @NonNull Executor executor) {
+        AffirmUtils.requireNonNull(context, "context cannot be null");
+        AffirmUtils.requireNonNull(configuration, "configuration cannot be null");
+        AffirmUtils.requireNonNull(executor, "executor cannot be null");
+
+        if (isInitialized()) {
+            AffirmLog.w("Affirm is already initialized");
+            return AffirmPlugins.get().ready();
+        }
+        AffirmTrace.setEnabled(configuration.tracingEnabled);
+        AffirmTrace.beginSection(AffirmTrace.INITIALIZE);
+        try {
+            AffirmPlugins.initialize(configuration, new AffirmReadyFuture());
+        } finally {
+            AffirmTrace.endSection();
+        }
+
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        final Context applicationContext = context.getApplicationContext();
+        AffirmMemoryManager.register(applicationContext);
+        AffirmCustomTabs.bind(applicationContext);
+        try {
+            executor.execute(() -> {
+                try {
+                    plugins.warmUp(applicationContext);
+                } finally {
+                    plugins.ready().complete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            AffirmLog.w("Affirm warm up was rejected: " + e.toString());
+            plugins.ready().complete();
+        }
+        return plugins.ready();
+    }
+
+    /**
+     * Returns a future completing once Affirm is ready, which is right away unless Affirm is
+     * initialized with {@link #initializeAsync(Context, Configuration, Executor)}.
+     */
+    @NonNull
+    public static AffirmReadyFuture getReadyFuture() {
+        if (!isInitialized()) {
+            throw new IllegalStateException("Affirm is not initialized");
+        }
+        return AffirmPlugins.get().ready();
     }
 
     private static boolean isInitialized() {
         return AffirmPlugins.get() != null;
     }
 
+    /**
+     * Returns the histograms of every metric recorded since initialization, keyed by
+     * `metric name/label`, eg `http.ttfb/promo`. Durations are in microseconds. Metrics are only
+     * recorded when a {@link AffirmMetricsListener} is set in the configuration.
+     */
+    @NonNull
+    public static Map<String, AffirmHistogram.Snapshot> getMetricsSnapshot() {
+        if (!isInitialized()) {
+            return Collections.emptyMap();
+        }
+        return AffirmPlugins.get().metrics().snapshot();
+    }
+
+    /**
+     * Returns the counts of the http cache, which are all 0 unless a cache is set with
+     * {@link Configuration.Builder#setHttpCache(File, long)}.
+     */
+    @NonNull
+    public static AffirmHttpCacheStats getHttpCacheStats() {
+        if (!isInitialized()) {
+            return AffirmHttpCacheStats.EMPTY;
+        }
+        return AffirmPlugins.get().httpCacheStats();
+    }
+
 
     /**
      * Start track order
@@ -510,6 +889,80 @@ public final class Affirm {
         trackOrderConfirmed(fragment.requireActivity(), affirmTrack);
     }
 
+    /**
+     * Create the checkout before the user taps to pay with Affirm, eg when the cart screen is
+     * shown. A later {@code startCheckout} of an equal checkout then skips creating it and loads
+     * it right away. Preparing another cart, or changing this one, drops it. With
+     * {@link PresentationMode#CUSTOM_TABS}, use {@link #prepareCheckout(Context, Checkout)}
+     * unless Affirm was initialized with {@link #initializeAsync}.
+     *
+     * @param checkout checkout object that contains address & shipping info & others...
+     */
+    public static void prepareCheckout(@NonNull Checkout checkout) {
+        prepareCheckout(checkout, null, -1, false);
+    }
+
+    /**
+     * Create the checkout before the user taps to pay with Affirm, see
+     * {@link #prepareCheckout(Checkout)}
+     *
+     * @param checkout checkout object that contains address & shipping info & others...
+     * @param useVCN   Prepare a VCN checkout or not
+     */
+    public static void prepareCheckout(@NonNull Checkout checkout, boolean useVCN) {
+        prepareCheckout(checkout, null, -1, useVCN);
+    }
+
+    /**
+     * Create the checkout before the user taps to pay with Affirm, see
+     * {@link #prepareCheckout(Checkout)}. It's only used by a {@code startCheckout} with the same
+     * caas, card auth window & VCN flag.
+     *
+     * @param checkout       checkout object that contains address & shipping info & others...
+     * @param caas           caas merchant-level attribute
+     * @param cardAuthWindow the value is a positive integer, 0 being a valid value
+     * @param useVCN         Prepare a VCN checkout or not
+     */
+    public static void prepareCheckout(@NonNull Checkout checkout, @Nullable String caas,
+                                       int cardAuthWindow, boolean useVCN) {
+        AffirmUtils.requireNonNull(checkout, "checkout cannot be null");
+        CheckoutPreparer.prepare(checkout, caas, cardAuthWindow, useVCN);
+    }
+
+    /**
+     * Create the checkout before the user taps to pay with Affirm, see
+     * {@link #prepareCheckout(Checkout)}. With {@link PresentationMode#CUSTOM_TABS}, the context
+     * lets the checkout be prepared for the Custom Tab and the browser be warmed up, even before
+     * the SDK got any other context.
+     *
+     * @param context  the context being used
+     * @param checkout checkout object that contains address & shipping info & others...
+     */
+    public static void prepareCheckout(@NonNull Context context, @NonNull Checkout checkout) {
+        prepareCheckout(context, checkout, null, -1, false);
+    }
+
+    /**
+     * Create the checkout before the user taps to pay with Affirm, see
+     * {@link #prepareCheckout(Context, Checkout)}. It's only used by a {@code startCheckout}
+     * with the same caas, card auth window & VCN flag.
+     *
+     * @param context        the context being used
+     * @param checkout       checkout object that contains address & shipping info & others...
+     * @param caas           caas merchant-level attribute
+     * @param cardAuthWindow the value is a positive integer, 0 being a valid value
+     * @param useVCN         Prepare a VCN checkout or not
+     */
+    public static void prepareCheckout(@NonNull Context context, @NonNull Checkout checkout,
+                                       @Nullable String caas, int cardAuthWindow,
+                                       boolean useVCN) {
+        AffirmUtils.requireNonNull(context, "context cannot be null");
+        AffirmUtils.requireNonNull(checkout, "checkout cannot be null");
+        AffirmCustomTabs.bind(context);
+        CheckoutPreparer.prepare(checkout, caas, cardAuthWindow, useVCN,
+                useVCN ? null : AffirmCustomTabs.checkoutRedirectScheme(context));
+    }
+
     /**
      * Start checkout flow/ vcn checkout flow. Don't forget to call onActivityResult
      * to get the processed result
@@ -606,9 +1059,13 @@ public final class Affirm {
                                      @Nullable String caas, int cardAuthWindow, boolean useVCN) {
         AffirmUtils.requireNonNull(activity, "activity cannot be null");
         AffirmUtils.requireNonNull(checkout, "checkout cannot be null");
+        AffirmCustomTabs.bind(activity);
         if (useVCN) {
             VcnCheckoutActivity.startActivity(activity, vcnCheckoutRequest, checkout, caas,
                     cardAuthWindow, receiveReasonCodes);
+        } else if (AffirmCustomTabs.isAvailable(activity)) {
+            CustomTabsCheckoutActivity.startActivity(activity, checkoutRequest, checkout, caas,
+                    cardAuthWindow);
         } else {
             CheckoutActivity.startActivity(activity, checkoutRequest, checkout, caas,
                     cardAuthWindow);
@@ -629,9 +1086,13 @@ public final class Affirm {
                                      @Nullable String caas, int cardAuthWindow, boolean useVCN) {
         AffirmUtils.requireNonNull(fragment, "fragment cannot be null");
         AffirmUtils.requireNonNull(checkout, "checkout cannot be null");
+        AffirmCustomTabs.bind(fragment.requireContext());
         if (useVCN) {
             VcnCheckoutActivity.startActivity(fragment, vcnCheckoutRequest, checkout, caas,
                     cardAuthWindow, receiveReasonCodes);
+        } else if (AffirmCustomTabs.isAvailable(fragment.requireContext())) {
+            CustomTabsCheckoutActivity.startActivity(fragment, checkoutRequest, checkout, caas,
+                    cardAuthWindow);
         } else {
             CheckoutActivity.startActivity(fragment, checkoutRequest, checkout, caas,
                     cardAuthWindow);
@@ -886,6 +1347,8 @@ public final class Affirm {
                                        final boolean showPrequal) {
                 promotionButton.setTag(showPrequal);
                 promotionButton.setLabel(promoMessage);
+                promotionButton.prefetchWhenShown(() -> prefetchPromotionClick(
+                        promotionButton.getContext(), amount, promoId, pageType, showPrequal));
             }
 
             @Override
@@ -903,48 +1366,34 @@ public final class Affirm {
                         items,
                         callback);
 
-        final LifecycleListener lifecycleListener = new LifecycleListener() {
+        // Cancel the promo and free its WebView once the screen of the button is destroyed
+        final DefaultLifecycleObserver lifecycleObserver = new DefaultLifecycleObserver() {
             @Override
-            public void onStart() {
-
-            }
-
-            @Override
-            public void onStop() {
-
-            }
-
-            @Override
-            public void onDestroy() {
+            public void onDestroy(@NonNull LifecycleOwner owner) {
                 affirmPromoRequest.cancel();
                 promotionButton.destroy();
             }
         };
 
         promotionButton.addOnAttachStateChangeListener(new View.OnAttachStateChangeListener() {
+            @Nullable
+            private LifecycleOwner lifecycleOwner;
+
             @Override
             public void onViewAttachedToWindow(final View v) {
-                Activity activity = AffirmUtils.getActivityFromView(v);
-                if (activity == null || activity.isFinishing() || activity.isDestroyed()) {
-                    return;
+                lifecycleOwner = AffirmLifecycle.lifecycleOwnerOf(v);
+                if (lifecycleOwner != null) {
+                    lifecycleOwner.getLifecycle().addObserver(lifecycleObserver);
                 }
-
-                LifeListenerFragment fragment =
-                        getLifeListenerFragment(activity);
-                fragment.addLifeListener(lifecycleListener);
             }
 
             @Override
             public void onViewDetachedFromWindow(View v) {
                 promotionButton.removeOnAttachStateChangeListener(this);
-                Activity activity = AffirmUtils.getActivityFromView(v);
-                if (activity == null || activity.isFinishing() || activity.isDestroyed()) {
-                    return;
+                if (lifecycleOwner != null) {
+                    lifecycleOwner.getLifecycle().removeObserver(lifecycleObserver);
+                    lifecycleOwner = null;
                 }
-
-                LifeListenerFragment fragment =
-                        getLifeListenerFragment(activity);
-                fragment.removeLifeListener(lifecycleListener);
             }
         });
 
@@ -1035,6 +1484,7 @@ public final class Affirm {
                                                   SpannablePromoCallback promoCallback,
                                                   Boolean isHtmlStyle) {
         return new PromoRequest(
+                null,
                 requestData.getPromoId(),
                 requestData.getPageType(),
                 requestData.getAmount(),
@@ -1043,10 +1493,41 @@ public final class Affirm {
                 requestData.getAffirmLogoType(),
                 isHtmlStyle,
                 requestData.getItems(),
+                requestData.getTimeoutMillis(),
                 promoCallback
         );
     }
 
+    /**
+     * Load the screen that {@code onPromotionClick} opens in the background, so it's ready when
+     * the promotion message is tapped. It does nothing unless enabled with
+     * {@link Configuration.Builder#setPrefetchModals(boolean)} or
+     * {@link Configuration.Builder#setPrefetchPrequal(boolean)}.
+     *
+     * @param context           the context being used
+     * @param promoRequestModal a class contains the parameters required for the request
+     * @param showPrequal       This value comes from the callback of the method `fetchPromotion`
+     */
+    public static void prefetchPromotionClick(@NonNull Context context,
+                                              @NonNull PromoRequestData promoRequestModal,
+                                              boolean showPrequal) {
+        prefetchPromotionClick(context, promoRequestModal.getAmount(),
+                promoRequestModal.getPromoId(), promoRequestModal.getPageType(), showPrequal);
+    }
+
+    private static void prefetchPromotionClick(@NonNull Context context,
+                                               BigDecimal amount,
+                                               @Nullable String promoId,
+                                               @Nullable PromoPageType pageType,
+                                               boolean showPrequal) {
+        final String type = pageType != null ? pageType.getType() : null;
+        if (showPrequal) {
+            PrequalPrefetcher.prefetch(context, amount, promoId, type);
+        } else {
+            ModalPrefetcher.prefetch(context, amount, PRODUCT, null, type, promoId);
+        }
+    }
+
     /**
      * Handling events that click on the promotion message
      *
@@ -1105,22 +1586,6 @@ public final class Affirm {
         }
     }
 
-    // Add a blank fragment to handle the lifecycle of the activity
-    private static LifeListenerFragment getLifeListenerFragment(Activity activity) {
-        final FragmentManager manager = activity.getFragmentManager();
-        LifeListenerFragment fragment =
-                (LifeListenerFragment) manager.findFragmentByTag(LIFE_FRAGMENT_TAG);
-        if (fragment == null) {
-            fragment = new LifeListenerFragment();
-            manager
-                    .beginTransaction()
-                    .add(fragment, LIFE_FRAGMENT_TAG)
-                    .commitAllowingStateLoss();
-            manager.executePendingTransactions();
-        }
-        return fragment;
-    }
-
     /**
      * Helper method to get the Result from prequal
      */
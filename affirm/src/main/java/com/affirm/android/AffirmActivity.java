@@ -4,6 +4,7 @@ import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
+import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -15,6 +16,8 @@ abstract class AffirmActivity extends AppCompatActivity implements AffirmWebChro
     AffirmWebView webView;
     View progressIndicator;
 
+    private long createdAt;
+
     static void startForResult(@NonNull Activity originalActivity,
                                @NonNull Intent intent,
                                int requestCode) {
@@ -36,13 +39,26 @@ abstract class AffirmActivity extends AppCompatActivity implements AffirmWebChro
 
     abstract void onAttached();
 
+    /**
+     * @return The label of the metrics of this screen
+     */
+    @NonNull
+    abstract String metricsLabel();
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
+        createdAt = System.nanoTime();
         beforeOnCreate();
         super.onCreate(savedInstanceState);
 
-        setContentView(R.layout.affirm_activity_webview);
+        AffirmTrace.beginSection(AffirmTrace.WEBVIEW_INFLATE);
+        try {
+            setContentView(R.layout.affirm_activity_webview);
+        } finally {
+            AffirmTrace.endSection();
+        }
         webView = findViewById(R.id.webview);
+        webView.startMetrics(metricsLabel(), createdAt);
         progressIndicator = findViewById(R.id.progressIndicator);
 
         initViews();
@@ -52,6 +68,30 @@ abstract class AffirmActivity extends AppCompatActivity implements AffirmWebChro
         onAttached();
     }
 
+    /**
+     * Show a WebView loaded off-screen instead of the inflated one, it's set up again by
+     * {@link #initViews()}.
+     */
+    void showPrefetched(@NonNull AffirmWebView prefetched) {
+        final ViewGroup parent = (ViewGroup) webView.getParent();
+        final int index = parent.indexOfChild(webView);
+        final ViewGroup.LayoutParams layoutParams = webView.getLayoutParams();
+        parent.removeViewAt(index);
+        webView.destroyWebView();
+
+        AffirmWebViewPool.attachTo(prefetched, this);
+        prefetched.setId(R.id.webview);
+        parent.addView(prefetched, index, layoutParams);
+        webView = prefetched;
+        webView.startMetrics(metricsLabel(), createdAt);
+        initViews();
+        if (webView.getProgress() >= 100) {
+            // The page finished loading off-screen, its chrome client won't tell again
+            webView.onLoadCompleted();
+            chromeLoadCompleted();
+        }
+    }
+
     @Override
     protected void onDestroy() {
         webView.destroyWebView();
@@ -0,0 +1,204 @@
+package com.affirm.android;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.affirm.android.AffirmCircuitBreakerListener.State;
+
+/**
+ * The circuit breaker of one endpoint, following an {@link AffirmCircuitBreakerPolicy}. The
+ * outcomes of the last calls are kept in a ring buffer, so recording one is O(1).
+ */
+final class AffirmCircuitBreaker {
+
+    interface Clock {
+        long elapsedMillis();
+    }
+
+    @NonNull
+    private final String endpoint;
+    @NonNull
+    private final AffirmCircuitBreakerPolicy policy;
+    @Nullable
+    private final AffirmCircuitBreakerListener listener;
+    @NonNull
+    private final Clock clock;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int size;
+    private int failures;
+    private int slowCalls;
+
+    @NonNull
+    private State state = State.CLOSED;
+    private long openedAt;
+    // Trial calls let through and succeeded while half open
+    private int trialCalls;
+    private int trialSuccesses;
+
+    AffirmCircuitBreaker(@NonNull String endpoint,
+                         @NonNull AffirmCircuitBreakerPolicy policy,
+                         @Nullable AffirmCircuitBreakerListener listener) {
+        this(endpoint, policy, listener, SystemClock::elapsedRealtime);
+    }
+
+    @VisibleForTesting
+    AffirmCircuitBreaker(@NonNull String endpoint,
+                         @NonNull AffirmCircuitBreakerPolicy policy,
+                         @Nullable AffirmCircuitBreakerListener listener,
+                         @NonNull Clock clock) {
+        this.endpoint = endpoint;
+        this.policy = policy;
+        this.listener = listener;
+        this.clock = clock;
+        this.failed = new boolean[policy.getWindowSize()];
+        this.slow = new boolean[policy.getWindowSize()];
+    }
+
+    @NonNull
+    String endpoint() {
+        return endpoint;
+    }
+
+    @NonNull
+    synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return Whether a call can go through, it must then be recorded with
+     * {@link #record(boolean, long)} or released with {@link #release()}
+     */
+    boolean tryAcquire() {
+        if (!policy.isEnabled()) {
+            return true;
+        }
+        final boolean acquired;
+        final boolean halfOpened;
+        synchronized (this) {
+            halfOpened = state == State.OPEN
+                    && clock.elapsedMillis() - openedAt >= policy.getOpenMillis();
+            if (halfOpened) {
+                state = State.HALF_OPEN;
+                trialCalls = 0;
+                trialSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                acquired = trialCalls < policy.getHalfOpenCalls();
+                if (acquired) {
+                    trialCalls++;
+                }
+            } else {
+                acquired = state == State.CLOSED;
+            }
+        }
+        if (halfOpened) {
+            notifyListener(State.HALF_OPEN);
+        }
+        return acquired;
+    }
+
+    /**
+     * Give back a call that went through without an outcome, e.g. a canceled one.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && trialCalls > trialSuccesses) {
+            trialCalls--;
+        }
+    }
+
+    void record(boolean success, long durationMillis) {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        final boolean isSlow = durationMillis >= policy.getSlowCallMillis();
+        final State changed;
+        synchronized (this) {
+            changed = recordLocked(success && !isSlow, !success, isSlow);
+        }
+        if (changed != null) {
+            notifyListener(changed);
+        }
+    }
+
+    @Nullable
+    private State recordLocked(boolean healthy, boolean isFailure, boolean isSlow) {
+        switch (state) {
+            case HALF_OPEN:
+                if (!healthy) {
+                    return open();
+                }
+                trialSuccesses++;
+                if (trialSuccesses >= policy.getHalfOpenCalls()) {
+                    clearWindow();
+                    state = State.CLOSED;
+                    return State.CLOSED;
+                }
+                return null;
+            case CLOSED:
+                add(isFailure, isSlow);
+                if (size >= policy.getMinimumCalls()
+                        && (failures >= policy.getFailureRateThreshold() * size
+                        || slowCalls >= policy.getSlowCallRateThreshold() * size)) {
+                    return open();
+                }
+                return null;
+            default:
+                // A call started before the breaker opened, it doesn't change anything
+                return null;
+        }
+    }
+
+    @NonNull
+    private State open() {
+        clearWindow();
+        state = State.OPEN;
+        openedAt = clock.elapsedMillis();
+        return State.OPEN;
+    }
+
+    private void add(boolean isFailure, boolean isSlow) {
+        if (size == failed.length) {
+            if (failed[next]) {
+                failures--;
+            }
+            if (slow[next]) {
+                slowCalls--;
+            }
+        } else {
+            size++;
+        }
+        failed[next] = isFailure;
+        slow[next] = isSlow;
+        if (isFailure) {
+            failures++;
+        }
+        if (isSlow) {
+            slowCalls++;
+        }
+        next = (next + 1) % failed.length;
+    }
+
+    private void clearWindow() {
+        next = 0;
+        size = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private void notifyListener(@NonNull State newState) {
+        AffirmLog.d("Circuit breaker of " + endpoint + " is " + newState);
+        if (listener != null) {
+            try {
+                listener.onStateChanged(endpoint, newState);
+            } catch (RuntimeException e) {
+                AffirmLog.e("Circuit breaker listener failed: " + e.toString());
+            }
+        }
+    }
+}
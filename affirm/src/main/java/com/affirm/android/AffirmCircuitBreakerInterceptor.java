@@ -0,0 +1,168 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static com.affirm.android.AffirmConstants.PROMO_PATH;
+import static com.affirm.android.AffirmConstants.TRACKER_PATH;
+
+/**
+ * Runs the promo & tracker calls of the rest client through their own
+ * {@link AffirmCircuitBreaker}, so a degraded promo endpoint doesn't hold dispatcher threads for
+ * the read timeout and telemetry never competes with checkout. Other calls go through untouched.
+ * <p>
+ * It runs inside {@link AffirmRetryInterceptor}, so every attempt is recorded and an open breaker
+ * stops the retries.
+ */
+final class AffirmCircuitBreakerInterceptor implements Interceptor {
+
+    // Promo responses are a few KB, anything bigger isn't kept as a stale promo
+    private static final long MAX_STALE_BODY_BYTES = 64 * 1024;
+    private static final int MAX_STALE_PROMOS = 32;
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    static final class CircuitOpenException extends IOException {
+        CircuitOpenException(@NonNull String endpoint) {
+            super("Circuit breaker of " + endpoint + " is open");
+        }
+    }
+
+    private static final class StalePromo {
+        @Nullable
+        final MediaType contentType;
+        @NonNull
+        final byte[] body;
+
+        StalePromo(@Nullable MediaType contentType, @NonNull byte[] body) {
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    @NonNull
+    private final AffirmCircuitBreaker promoBreaker;
+    @NonNull
+    private final AffirmCircuitBreaker trackerBreaker;
+    @NonNull
+    private final AffirmMetrics metrics;
+    private final boolean serveStalePromos;
+
+    // The last promo received per url, in access order so the least recently used is evicted
+    private final Map<String, StalePromo> stalePromos =
+            new LinkedHashMap<String, StalePromo>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, StalePromo> eldest) {
+                    return size() > MAX_STALE_PROMOS;
+                }
+            };
+
+    AffirmCircuitBreakerInterceptor(@NonNull AffirmCircuitBreaker promoBreaker,
+                                    @NonNull AffirmCircuitBreaker trackerBreaker,
+                                    @NonNull AffirmMetrics metrics,
+                                    boolean serveStalePromos) {
+        this.promoBreaker = promoBreaker;
+        this.trackerBreaker = trackerBreaker;
+        this.metrics = metrics;
+        this.serveStalePromos = serveStalePromos;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final String path = request.url().encodedPath();
+        final boolean isPromo = path.startsWith(PROMO_PATH);
+        final AffirmCircuitBreaker breaker = isPromo ? promoBreaker
+                : path.startsWith(TRACKER_PATH) ? trackerBreaker : null;
+        if (breaker == null) {
+            return chain.proceed(request);
+        }
+        final Object tag = request.tag();
+        final String correlationId = tag instanceof String ? (String) tag : null;
+
+        if (!breaker.tryAcquire()) {
+            metrics.count(AffirmMetric.HTTP_CIRCUIT_OPEN, correlationId, 1);
+            final Response stale = isPromo && serveStalePromos ? stalePromo(request) : null;
+            if (stale != null) {
+                metrics.count(AffirmMetric.HTTP_STALE, correlationId, 1);
+                return stale;
+            }
+            throw new CircuitOpenException(breaker.endpoint());
+        }
+
+        final long start = System.nanoTime();
+        final Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                // Superseded or abandoned by the caller, it says nothing of the endpoint
+                breaker.release();
+            } else {
+                breaker.record(false, elapsedMillis(start));
+            }
+            throw e;
+        }
+        final boolean success = response.code() != 429 && response.code() < 500;
+        breaker.record(success, elapsedMillis(start));
+        if (isPromo && serveStalePromos && response.isSuccessful()) {
+            keepStalePromo(request, response);
+        }
+        return response;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private void keepStalePromo(@NonNull Request request, @NonNull Response response)
+            throws IOException {
+        final ResponseBody body = response.body();
+        if (body == null || body.contentLength() > MAX_STALE_BODY_BYTES) {
+            return;
+        }
+        // Peeking buffers the body, which is read in full by AffirmClient anyway
+        final byte[] bytes = response.peekBody(MAX_STALE_BODY_BYTES).bytes();
+        if (bytes.length >= MAX_STALE_BODY_BYTES) {
+            // A body of unknown length that may have been cut at the limit
+            return;
+        }
+        final StalePromo stalePromo = new StalePromo(body.contentType(), bytes);
+        synchronized (stalePromos) {
+            stalePromos.put(request.url().toString(), stalePromo);
+        }
+    }
+
+    @Nullable
+    private Response stalePromo(@NonNull Request request) {
+        final StalePromo stalePromo;
+        synchronized (stalePromos) {
+            stalePromo = stalePromos.get(request.url().toString());
+        }
+        if (stalePromo == null) {
+            return null;
+        }
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header("Warning", STALE_WARNING)
+                .body(ResponseBody.create(stalePromo.body, stalePromo.contentType))
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Notified when the circuit breaker of an endpoint changes state, see
+ * {@link AffirmCircuitBreakerPolicy}. It's called on the thread of the http call that caused the
+ * change, so it should return quickly.
+ */
+public interface AffirmCircuitBreakerListener {
+
+    enum State {
+        // Calls go through
+        CLOSED,
+        // Calls fail right away
+        OPEN,
+        // A few trial calls go through
+        HALF_OPEN
+    }
+
+    /**
+     * @param endpoint `promo` or `tracker`
+     * @param state    the new state of the breaker
+     */
+    void onStateChanged(@NonNull String endpoint, @NonNull State state);
+}
@@ -0,0 +1,200 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * When the circuit breakers of the promo & tracker endpoints open, see
+ * {@link Affirm.Configuration.Builder#setCircuitBreakerPolicy(AffirmCircuitBreakerPolicy)}.
+ * <p>
+ * Each endpoint keeps the outcome of its last calls. The breaker opens when, over at least the
+ * minimum number of calls, too many failed (network error, 429 or 5xx) or were slow. While open,
+ * calls fail right away, or get the last promo received for the same request when stale promos
+ * are served. After the open duration a few trial calls go through: the breaker closes if they
+ * all succeed and opens again otherwise.
+ */
+public final class AffirmCircuitBreakerPolicy {
+
+    /**
+     * Opens when half of the last 20 calls failed or 80% took more than 5s, for 30s.
+     */
+    public static final AffirmCircuitBreakerPolicy DEFAULT = new Builder().build();
+
+    /**
+     * Never opens.
+     */
+    public static final AffirmCircuitBreakerPolicy DISABLED =
+            new Builder().setEnabled(false).build();
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final long slowCallMillis;
+    private final float slowCallRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final boolean serveStalePromos;
+
+    private AffirmCircuitBreakerPolicy(Builder builder) {
+        this.enabled = builder.enabled;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallMillis = builder.slowCallMillis;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.openMillis = builder.openMillis;
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.serveStalePromos = builder.serveStalePromos;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public long getSlowCallMillis() {
+        return slowCallMillis;
+    }
+
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public boolean isServeStalePromos() {
+        return serveStalePromos;
+    }
+
+    public static final class Builder {
+        private boolean enabled = true;
+        private int windowSize = 20;
+        private int minimumCalls = 5;
+        private float failureRateThreshold = 0.5f;
+        private long slowCallMillis = 5_000;
+        private float slowCallRateThreshold = 0.8f;
+        private long openMillis = 30_000;
+        private int halfOpenCalls = 2;
+        private boolean serveStalePromos = true;
+
+        /**
+         * @param enabled whether the breakers can open, true by default
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setEnabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * @param windowSize the number of last calls the rates are computed over
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * @param minimumCalls the number of calls needed before the breaker can open
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * @param failureRateThreshold the rate of failed calls opening the breaker, in (0, 1]
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setFailureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * @param slowCallMillis the duration from which a call is slow
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setSlowCallMillis(long slowCallMillis) {
+            this.slowCallMillis = slowCallMillis;
+            return this;
+        }
+
+        /**
+         * @param slowCallRateThreshold the rate of slow calls opening the breaker, in (0, 1]
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setSlowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * @param openMillis how long the breaker stays open before trial calls go through
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setOpenMillis(long openMillis) {
+            this.openMillis = openMillis;
+            return this;
+        }
+
+        /**
+         * @param halfOpenCalls the number of trial calls deciding whether the breaker closes
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * @param serveStalePromos whether an open promo breaker answers with the last promo
+         *                         received for the same request, true by default
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setServeStalePromos(boolean serveStalePromos) {
+            this.serveStalePromos = serveStalePromos;
+            return this;
+        }
+
+        /**
+         * Construct this builder into a concrete {@code AffirmCircuitBreakerPolicy} instance.
+         *
+         * @return A constructed {@code AffirmCircuitBreakerPolicy} object.
+         */
+        @NonNull
+        public AffirmCircuitBreakerPolicy build() {
+            if (windowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+                throw new IllegalArgumentException(
+                        "windowSize, minimumCalls and halfOpenCalls must be at least 1");
+            }
+            if (failureRateThreshold <= 0 || failureRateThreshold > 1
+                    || slowCallRateThreshold <= 0 || slowCallRateThreshold > 1) {
+                throw new IllegalArgumentException("rate thresholds must be in (0, 1]");
+            }
+            if (slowCallMillis < 0 || openMillis < 0) {
+                throw new IllegalArgumentException("durations must be positive");
+            }
+            return new AffirmCircuitBreakerPolicy(this);
+        }
+    }
+}
@@ -63,9 +63,37 @@ public final class AffirmClient {
     public static <T> Call send(@Nullable OkHttpClient okHttpClient,
                                 @NonNull AffirmApiRequest request,
                                 @NonNull AffirmListener<T> listener) {
+        return send(okHttpClient, request, null, listener);
+    }
+
+    /**
+     * @param correlationId Set as the tag of the request, the network metrics of the call are
+     *                      reported with it
+     */
+    static <T> Call send(@Nullable OkHttpClient okHttpClient,
+                         @NonNull AffirmApiRequest request,
+                         @Nullable String correlationId,
+                         @NonNull AffirmListener<T> listener) {
+        return send(okHttpClient, request, correlationId, null, 0, listener);
+    }
+
+    /**
+     * @param idempotencyKey Sent with the request so the server can deduplicate it, which lets
+     *                       the rest client retry a POST
+     * @param timeoutMillis  The deadline of the call including its retries, 0 for none
+     */
+    static <T> Call send(@Nullable OkHttpClient okHttpClient,
+                         @NonNull AffirmApiRequest request,
+                         @Nullable String correlationId,
+                         @Nullable String idempotencyKey,
+                         long timeoutMillis,
+                         @NonNull AffirmListener<T> listener) {
         AffirmHttpRequest.Builder builder = new AffirmHttpRequest.Builder()
                 .setUrl(request.url())
-                .setMethod(request.method());
+                .setMethod(request.method())
+                .setTag(correlationId)
+                .setIdempotencyKey(idempotencyKey)
+                .setTimeoutMillis(timeoutMillis);
         JsonObject requestBody = request.body();
         if (requestBody != null) {
             builder.setBody(new AffirmHttpBody(CONTENT_TYPE, requestBody.toString()));
@@ -113,7 +141,10 @@ public final class AffirmClient {
 
             @Override
             public void onFailure(@NotNull Call call, @NotNull IOException e) {
-                trackNetworkError(call.request());
+                // A call rejected by an open circuit breaker never reached the network
+                if (!(e instanceof AffirmCircuitBreakerInterceptor.CircuitOpenException)) {
+                    trackNetworkError(call.request());
+                }
                 handleErrorResponse(e, listener);
             }
         });
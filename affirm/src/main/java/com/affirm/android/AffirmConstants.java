@@ -121,8 +121,17 @@ public final class AffirmConstants {
 
     static final String CHECKOUT_PATH = "/api/v2/checkout/";
     static final String TRACKER_PATH = "/collect";
-    static final String PROMO_PATH = "/api/promos/v2/%s?is_sdk=true&field=ala&amount=%d"
-            + "&show_cta=%s";
+    static final String PROMO_PATH = "/api/promos/v2/";
+    static final String PROMO_IS_SDK = "is_sdk";
+    static final String PROMO_FIELD = "field";
+    static final String PROMO_FIELD_VALUE = "ala";
+    static final String PROMO_AMOUNT = "amount";
+    static final String PROMO_SHOW_CTA = "show_cta";
+    static final String PROMO_PROMO_EXTERNAL_ID = "promo_external_id";
+    static final String PROMO_PAGE_TYPE = "page_type";
+    static final String PROMO_LOGO_COLOR = "logo_color";
+    static final String PROMO_LOGO_TYPE = "logo_type";
+    static final String PROMO_ITEMS = "items";
     static final String PREQUAL_PATH = "/apps/prequal";
     static final String PREQUAL_PUBLIC_API_KEY = "public_api_key";
     static final String PREQUAL_UNIT_PRICE = "unit_price";
@@ -135,6 +144,13 @@ public final class AffirmConstants {
     static final String AFFIRM_CHECKOUT_CONFIRMATION_URL = "affirm://checkout/confirmed";
     static final String AFFIRM_CHECKOUT_CANCELLATION_URL = "affirm://checkout/cancelled";
     static final String REFERRING_URL = "https://androidsdk/";
+    // A checkout shown in a Custom Tab redirects to the scheme of the app instead,
+    // <applicationId>.affirm://checkout/confirmed, see the manifest
+    static final String CUSTOM_TABS_REDIRECT_SCHEME_SUFFIX = ".affirm";
+    static final String CUSTOM_TABS_CONFIRMATION_PATH = "://checkout/confirmed";
+    static final String CUSTOM_TABS_CANCELLATION_PATH = "://checkout/cancelled";
+    // The random state of the checkout in its redirects, only the checkout of the app knows it
+    static final String CUSTOM_TABS_REDIRECT_STATE = "state";
     static final String JS_PATH = "/js/v2/affirm.js";
 
     static final String TAG_GET_NEW_PROMO = "GET_NEW_PROMO";
@@ -146,6 +162,8 @@ public final class AffirmConstants {
     static final String HTTP_PROTOCOL = "http://";
     static final String HTTP = "http";
     static final String X_AFFIRM_REQUEST_ID = "X-Affirm-Request-Id";
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String RETRY_AFTER = "Retry-After";
     static final String CONTENT_TYPE = "application/json; charset=utf-8";
     static final String TEXT_HTML = "text/html";
     static final String UTF_8 = "utf-8";
@@ -168,7 +186,8 @@ public final class AffirmConstants {
 
     static final String CHECKOUT_TOKEN = "checkout_token";
     static final String CHECKOUT_ERROR = "checkout_error";
-    static final String CHECKOUT_EXTRA = "checkout_extra";
+    static final String CHECKOUT_SESSION_ID = "checkout_session_id";
+    static final String CHECKOUT_SNAPSHOT = "checkout_snapshot";
     static final String CHECKOUT_CAAS_EXTRA = "checkout_caas_extra";
     static final String CHECKOUT_CARD_AUTH_WINDOW = "checkout_card_auth_window";
     static final String CREDIT_DETAILS = "credit_details";
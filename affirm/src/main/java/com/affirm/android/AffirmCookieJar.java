@@ -0,0 +1,106 @@
+package com.affirm.android;
+
+import android.webkit.CookieManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+import static com.affirm.android.AffirmConstants.HTTPS_PROTOCOL;
+
+/**
+ * Sends the WebView cookies of the Affirm hosts with the calls of the rest client. The cookies of
+ * a host are read from the {@link CookieManager} on its first call and kept until
+ * {@link #invalidate()}, which happens when a WebView page finishes loading and when the cookies
+ * are cleared. Hosts other than the Affirm ones get no cookie.
+ * <p>
+ * The WebView stays the only cookie store: cookies set by responses aren't saved.
+ */
+final class AffirmCookieJar implements CookieJar {
+
+    interface CookieSource {
+        @Nullable
+        String getCookie(@NonNull String url);
+    }
+
+    @NonNull
+    private final Set<String> hosts;
+    @NonNull
+    private final CookieSource source;
+    private final ConcurrentHashMap<String, List<Cookie>> cookies = new ConcurrentHashMap<>();
+    // Bumped by invalidate(), so a load racing with it isn't kept
+    private final AtomicInteger version = new AtomicInteger();
+
+    AffirmCookieJar(@NonNull Set<String> hosts) {
+        this(hosts, url -> CookieManager.getInstance().getCookie(url));
+    }
+
+    @VisibleForTesting
+    AffirmCookieJar(@NonNull Set<String> hosts, @NonNull CookieSource source) {
+        this.hosts = hosts;
+        this.source = source;
+    }
+
+    @NotNull
+    @Override
+    public List<Cookie> loadForRequest(@NotNull HttpUrl url) {
+        final String host = url.host();
+        if (!hosts.contains(host)) {
+            return Collections.emptyList();
+        }
+        List<Cookie> hostCookies = cookies.get(host);
+        if (hostCookies == null) {
+            final int loadVersion = version.get();
+            hostCookies = load(host);
+            cookies.put(host, hostCookies);
+            // Checked after the put, an invalidate() landing in between would otherwise be missed
+            if (loadVersion != version.get()) {
+                cookies.remove(host, hostCookies);
+            }
+        }
+        return hostCookies;
+    }
+
+    @Override
+    public void saveFromResponse(@NotNull HttpUrl url, @NotNull List<Cookie> cookies) {
+    }
+
+    /**
+     * Forget the cookies read so far, the next call of each host reads them again.
+     */
+    void invalidate() {
+        version.incrementAndGet();
+        cookies.clear();
+    }
+
+    @NonNull
+    private List<Cookie> load(@NonNull String host) {
+        final String url = HTTPS_PROTOCOL + host + "/";
+        final String header = source.getCookie(url);
+        if (header == null || header.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final HttpUrl httpUrl = HttpUrl.get(url);
+        final List<Cookie> parsed = new ArrayList<>();
+        for (String pair : header.split(";")) {
+            final Cookie cookie = Cookie.parse(httpUrl, pair.trim());
+            if (cookie != null) {
+                parsed.add(cookie);
+            }
+        }
+        return Collections.unmodifiableList(parsed);
+    }
+}
@@ -0,0 +1,179 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.content.ComponentName;
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsIntent;
+import androidx.browser.customtabs.CustomTabsServiceConnection;
+import androidx.browser.customtabs.CustomTabsSession;
+
+import java.util.regex.Pattern;
+
+import static com.affirm.android.AffirmConstants.CUSTOM_TABS_REDIRECT_SCHEME_SUFFIX;
+
+/**
+ * Shows the checkout in a Custom Tab of the browser, when enabled with
+ * {@link Affirm.Configuration.Builder#setPresentationMode(Affirm.PresentationMode)}. The browser
+ * is bound & warmed up once Affirm gets a context, and told which page is likely opened next
+ * once a checkout is prepared. Without a browser supporting Custom Tabs, the checkout is shown in
+ * the WebView of the SDK. The prequal flow always is, its end url can't be handed back to the
+ * app from the browser.
+ * <p>
+ * Only used on the main thread.
+ */
+final class AffirmCustomTabs {
+
+    // Intent filters match schemes case-sensitively & browsers lowercase them, so only a
+    // lowercase scheme reaches the app
+    private static final Pattern VALID_REDIRECT_SCHEME = Pattern.compile("[a-z][a-z0-9+.-]*");
+
+    // The package of the browser, once looked up
+    @VisibleForTesting
+    @Nullable
+    static String browserPackage;
+    @Nullable
+    private static Connection connection;
+    @Nullable
+    private static CustomTabsSession session;
+    // The page to tell the browser about once it's bound
+    @Nullable
+    private static Uri likelyUrl;
+    // The redirect scheme of the app, once bound
+    @Nullable
+    private static String redirectScheme;
+
+    private AffirmCustomTabs() {
+    }
+
+    static boolean isEnabled() {
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        return plugins != null
+                && plugins.presentationMode() == Affirm.PresentationMode.CUSTOM_TABS;
+    }
+
+    /**
+     * @return Whether the flows are shown in a Custom Tab
+     */
+    static boolean isAvailable(@NonNull Context context) {
+        return isEnabled() && redirectScheme(context) != null && packageName(context) != null;
+    }
+
+    /**
+     * Bind the browser & warm it up, if the checkout is shown in a Custom Tab. It's called with
+     * every context the SDK gets, only the first one binds.
+     */
+    static void bind(@NonNull Context context) {
+        if (connection != null || !isEnabled()) {
+            return;
+        }
+        final String scheme = redirectScheme(context);
+        final String browser = packageName(context);
+        if (scheme == null || browser == null) {
+            return;
+        }
+        redirectScheme = scheme;
+        final Connection newConnection = new Connection();
+        if (CustomTabsClient.bindCustomTabsService(context.getApplicationContext(), browser,
+                newConnection)) {
+            connection = newConnection;
+        }
+    }
+
+    /**
+     * Let the browser load the page ahead of {@link #launch(Activity, String)}.
+     */
+    static void mayLaunchUrl(@NonNull String url) {
+        if (!isEnabled()) {
+            return;
+        }
+        final Uri uri = Uri.parse(url);
+        if (session == null || !session.mayLaunchUrl(uri, null, null)) {
+            likelyUrl = uri;
+        }
+    }
+
+    /**
+     * @return The scheme the checkout shown in a Custom Tab redirects to. It's built from the
+     * application id, like the scheme of {@link CustomTabsRedirectActivity} in the manifest, so
+     * the redirects of an app aren't sent to another app using the SDK. It's null when the
+     * application id can't be a scheme, eg with uppercase letters or underscores, the checkout is
+     * then shown in the WebView.
+     */
+    @Nullable
+    static String redirectScheme(@NonNull Context context) {
+        return redirectScheme(context.getPackageName());
+    }
+
+    @VisibleForTesting
+    @Nullable
+    static String redirectScheme(@NonNull String applicationId) {
+        final String scheme = applicationId + CUSTOM_TABS_REDIRECT_SCHEME_SUFFIX;
+        return VALID_REDIRECT_SCHEME.matcher(scheme).matches() ? scheme : null;
+    }
+
+    /**
+     * @return The redirect scheme of a checkout shown in a Custom Tab, or null when it's shown
+     * in a WebView
+     */
+    @Nullable
+    static String checkoutRedirectScheme(@NonNull Context context) {
+        return isAvailable(context) ? redirectScheme(context) : null;
+    }
+
+    /**
+     * @return The redirect scheme of a checkout prepared for a Custom Tab once the browser is
+     * bound, or null when the checkout is shown in a WebView
+     */
+    @Nullable
+    static String preparedRedirectScheme() {
+        return isEnabled() ? redirectScheme : null;
+    }
+
+    static void launch(@NonNull Activity activity, @NonNull String url) {
+        bind(activity);
+        likelyUrl = null;
+        new CustomTabsIntent.Builder(session)
+                .setShowTitle(true)
+                .build()
+                .launchUrl(activity, Uri.parse(url));
+    }
+
+    @Nullable
+    private static String packageName(@NonNull Context context) {
+        if (browserPackage == null) {
+            // The default browser if it supports Custom Tabs, or any browser that does
+            browserPackage = CustomTabsClient.getPackageName(context, null);
+        }
+        return browserPackage;
+    }
+
+    private static final class Connection extends CustomTabsServiceConnection {
+        @Override
+        public void onCustomTabsServiceConnected(@NonNull ComponentName name,
+                                                @NonNull CustomTabsClient client) {
+            if (connection != this) {
+                return;
+            }
+            client.warmup(0);
+            session = client.newSession(null);
+            if (session != null && likelyUrl != null) {
+                session.mayLaunchUrl(likelyUrl, null, null);
+                likelyUrl = null;
+            }
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            if (connection == this) {
+                connection = null;
+                session = null;
+            }
+        }
+    }
+}
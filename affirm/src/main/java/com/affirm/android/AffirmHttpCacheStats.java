@@ -0,0 +1,122 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * The counts of the http cache of the SDK since it was created, see
+ * {@link Affirm.Configuration.Builder#setHttpCache(java.io.File, long)}.
+ */
+public final class AffirmHttpCacheStats {
+
+    static final AffirmHttpCacheStats EMPTY = new AffirmHttpCacheStats(0, 0, 0, 0, 0);
+
+    private final long requestCount;
+    private final long networkCount;
+    private final long hitCount;
+    private final long revalidationCount;
+    private final long notModifiedCount;
+
+    AffirmHttpCacheStats(long requestCount,
+                         long networkCount,
+                         long hitCount,
+                         long revalidationCount,
+                         long notModifiedCount) {
+        this.requestCount = requestCount;
+        this.networkCount = networkCount;
+        this.hitCount = hitCount;
+        this.revalidationCount = revalidationCount;
+        this.notModifiedCount = notModifiedCount;
+    }
+
+    /**
+     * @return The number of requests that went through the cache
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return The number of requests that needed the network, revalidations included
+     */
+    public long getNetworkCount() {
+        return networkCount;
+    }
+
+    /**
+     * @return The number of responses served by the cache, with or without a revalidation
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of conditional requests sent with the ETag or Last-Modified of a cached
+     * response
+     */
+    public long getRevalidationCount() {
+        return revalidationCount;
+    }
+
+    /**
+     * @return The number of revalidations answered with a 304, whose body wasn't downloaded
+     */
+    public long getNotModifiedCount() {
+        return notModifiedCount;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "AffirmHttpCacheStats{requests=" + requestCount
+                + ", network=" + networkCount
+                + ", hits=" + hitCount
+                + ", revalidations=" + revalidationCount
+                + ", notModified=" + notModifiedCount + '}';
+    }
+
+    /**
+     * Counts the conditional requests reaching the network, which the OkHttp cache doesn't.
+     */
+    static final class Counter implements Interceptor {
+
+        private final AtomicLong revalidations = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+
+        @NotNull
+        @Override
+        public Response intercept(@NotNull Chain chain) throws IOException {
+            final Request request = chain.request();
+            final boolean conditional = request.header("If-None-Match") != null
+                    || request.header("If-Modified-Since") != null;
+            final Response response = chain.proceed(request);
+            if (conditional) {
+                revalidations.incrementAndGet();
+                if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    notModified.incrementAndGet();
+                }
+            }
+            return response;
+        }
+
+        @NonNull
+        AffirmHttpCacheStats snapshot(@Nullable Cache cache) {
+            if (cache == null) {
+                return EMPTY;
+            }
+            return new AffirmHttpCacheStats(cache.requestCount(), cache.networkCount(),
+                    cache.hitCount(), revalidations.get(), notModified.get());
+        }
+    }
+}
@@ -14,6 +14,7 @@ import com.google.gson.JsonSyntaxException;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.MediaType;
@@ -26,6 +27,7 @@ import okio.BufferedSink;
 
 import static com.affirm.android.AffirmConstants.HTTP;
 import static com.affirm.android.AffirmConstants.HTTPS_PROTOCOL;
+import static com.affirm.android.AffirmConstants.IDEMPOTENCY_KEY;
 import static com.affirm.android.AffirmConstants.X_AFFIRM_REQUEST_ID;
 
 public final class AffirmHttpClient {
@@ -113,10 +115,12 @@ public final class AffirmHttpClient {
     }
 
     Call getCallForRequest(@Nullable OkHttpClient client, @NonNull AffirmHttpRequest request) {
-        if (client != null) {
-            return client.newCall(getRequest(request));
+        final Call call = (client != null ? client : okHttpClient).newCall(getRequest(request));
+        // The deadline of the whole call, including its retries
+        if (request.getTimeoutMillis() > 0) {
+            call.timeout().timeout(request.getTimeoutMillis(), TimeUnit.MILLISECONDS);
         }
-        return okHttpClient.newCall(getRequest(request));
+        return call;
     }
 
     private Request getRequest(AffirmHttpRequest request) {
@@ -148,6 +152,11 @@ public final class AffirmHttpClient {
         // set request tag
         okHttpRequestBuilder.tag(request.getTag());
 
+        // A POST with an idempotency key can be retried, see AffirmRetryInterceptor
+        if (request.getIdempotencyKey() != null) {
+            okHttpRequestBuilder.header(IDEMPOTENCY_KEY, request.getIdempotencyKey());
+        }
+
         if (okHttpRequestBody != null) {
             switch (method) {
                 case PUT:
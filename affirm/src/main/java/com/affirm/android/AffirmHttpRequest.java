@@ -5,12 +5,16 @@ public final class AffirmHttpRequest {
     private final Method method;
     private final AffirmHttpBody body;
     private final String tag;
+    private final String idempotencyKey;
+    private final long timeoutMillis;
 
     private AffirmHttpRequest(Builder builder) {
         url = builder.mUrl;
         method = builder.mMethod;
         body = builder.mBody;
         tag = builder.mTag;
+        idempotencyKey = builder.mIdempotencyKey;
+        timeoutMillis = builder.mTimeoutMillis;
     }
 
     String getUrl() {
@@ -29,6 +33,14 @@ public final class AffirmHttpRequest {
         return tag;
     }
 
+    String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
     public enum Method {
         GET, POST, PUT, DELETE
     }
@@ -39,6 +51,8 @@ public final class AffirmHttpRequest {
         private Method mMethod;
         private AffirmHttpBody mBody;
         private String mTag;
+        private String mIdempotencyKey;
+        private long mTimeoutMillis;
 
         Builder() {
         }
@@ -64,6 +78,16 @@ public final class AffirmHttpRequest {
             return this;
         }
 
+        Builder setIdempotencyKey(String idempotencyKey) {
+            mIdempotencyKey = idempotencyKey;
+            return this;
+        }
+
+        Builder setTimeoutMillis(long timeoutMillis) {
+            mTimeoutMillis = timeoutMillis;
+            return this;
+        }
+
         AffirmHttpRequest build() {
             return new AffirmHttpRequest(this);
         }
@@ -0,0 +1,57 @@
+package com.affirm.android;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Initializes Affirm with App Startup, warming it up off the main thread, see
+ * {@link Affirm#initializeAsync(Context, Affirm.Configuration, Executor)}. Apps using it depend
+ * on {@code androidx.startup:startup-runtime}, extend it and register the subclass in the
+ * {@code InitializationProvider} of their manifest:
+ *
+ * <pre>{@code
+ * <provider
+ *     android:name="androidx.startup.InitializationProvider"
+ *     android:authorities="${applicationId}.androidx-startup"
+ *     android:exported="false"
+ *     tools:node="merge">
+ *     <meta-data
+ *         android:name="com.example.MyAffirmInitializer"
+ *         android:value="androidx.startup" />
+ * </provider>
+ * }</pre>
+ */
+public abstract class AffirmInitializer implements Initializer<AffirmReadyFuture> {
+
+    /**
+     * @return The configuration Affirm is initialized with
+     */
+    @NonNull
+    protected abstract Affirm.Configuration configuration(@NonNull Context context);
+
+    /**
+     * @return The executor running the warm up, a new thread by default
+     */
+    @NonNull
+    protected Executor executor() {
+        return command -> new Thread(command, "Affirm-initialize").start();
+    }
+
+    @NonNull
+    @Override
+    public AffirmReadyFuture create(@NonNull Context context) {
+        return Affirm.initializeAsync(context, configuration(context), executor());
+    }
+
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
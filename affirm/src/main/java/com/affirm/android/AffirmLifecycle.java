@@ -0,0 +1,123 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.lifecycle.ViewTreeLifecycleOwner;
+
+/**
+ * Finds the lifecycle a promo button lives in, without adding any fragment:
+ * <ul>
+ * <li>the {@link ViewTreeLifecycleOwner} of the view, e.g. the view lifecycle of its fragment</li>
+ * <li>the activity when it's a {@link LifecycleOwner}</li>
+ * <li>otherwise a lifecycle following the activity callbacks, kept in a tag of its decor view
+ * so that every button of the activity shares it</li>
+ * </ul>
+ * Only used on the main thread.
+ */
+final class AffirmLifecycle {
+
+    private AffirmLifecycle() {
+    }
+
+    @Nullable
+    static LifecycleOwner lifecycleOwnerOf(@NonNull View view) {
+        final LifecycleOwner viewTreeOwner = ViewTreeLifecycleOwner.get(view);
+        if (viewTreeOwner != null) {
+            return viewTreeOwner;
+        }
+        final Activity activity = AffirmUtils.getActivityFromView(view);
+        if (activity == null || activity.isFinishing() || activity.isDestroyed()) {
+            return null;
+        }
+        if (activity instanceof LifecycleOwner) {
+            return (LifecycleOwner) activity;
+        }
+        final View decorView = activity.getWindow().getDecorView();
+        final Object tag = decorView.getTag(R.id.affirm_lifecycle_owner);
+        if (tag instanceof LifecycleOwner) {
+            return (LifecycleOwner) tag;
+        }
+        final ActivityLifecycleOwner owner = new ActivityLifecycleOwner(activity);
+        decorView.setTag(R.id.affirm_lifecycle_owner, owner);
+        return owner;
+    }
+
+    /**
+     * The lifecycle of an activity that isn't a {@link LifecycleOwner}. It's created once a
+     * button is attached to the activity's window, so the activity has been started already.
+     */
+    private static final class ActivityLifecycleOwner implements LifecycleOwner,
+            Application.ActivityLifecycleCallbacks {
+
+        @NonNull
+        private final Activity activity;
+        private final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+        ActivityLifecycleOwner(@NonNull Activity activity) {
+            this.activity = activity;
+            registry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+            activity.getApplication().registerActivityLifecycleCallbacks(this);
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return registry;
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity,
+                                      @Nullable Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+            if (activity == this.activity) {
+                registry.handleLifecycleEvent(Lifecycle.Event.ON_START);
+            }
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+            if (activity == this.activity) {
+                registry.handleLifecycleEvent(Lifecycle.Event.ON_RESUME);
+            }
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+            if (activity == this.activity) {
+                registry.handleLifecycleEvent(Lifecycle.Event.ON_PAUSE);
+            }
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+            if (activity == this.activity) {
+                registry.handleLifecycleEvent(Lifecycle.Event.ON_STOP);
+            }
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity,
+                                                @NonNull Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+            if (activity == this.activity) {
+                activity.getApplication().unregisterActivityLifecycleCallbacks(this);
+                activity.getWindow().getDecorView().setTag(R.id.affirm_lifecycle_owner, null);
+                registry.handleLifecycleEvent(Lifecycle.Event.ON_DESTROY);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.affirm.android;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Releases what the SDK keeps in memory when the system asks the app to trim it, so an app using
+ * Affirm isn't killed sooner on a low ram device. It's registered with the application the first
+ * time the SDK gets a context. By trim level:
+ * <ul>
+ * <li>running moderate: the cached promo layouts are dropped, they're cheap to measure again</li>
+ * <li>running low: the prefetched WebViews and the WebViews of the html promos that are not
+ * attached to a window are destroyed too</li>
+ * <li>running critical, ui hidden & the background levels: every cache is cleared, including the
+ * promo spans, css & templates</li>
+ * </ul>
+ * After any trim, the WebView pool measures again how many WebViews it can keep. The estimated
+ * bytes released are reported as {@link AffirmMetric#MEMORY_RECLAIMED_BYTES}.
+ * <p>
+ * Only used on the main thread.
+ */
+final class AffirmMemoryManager implements ComponentCallbacks2 {
+
+    // A WebView holds at least its own renderer state, its real cost isn't measurable from Java
+    static final long WEBVIEW_BYTES = 2 * 1024 * 1024;
+
+    private static AffirmMemoryManager instance;
+
+    private final Set<AffirmPromotionButton> promotionButtons =
+            Collections.newSetFromMap(new WeakHashMap<>());
+
+    private AffirmMemoryManager() {
+    }
+
+    static void register(@NonNull Context context) {
+        if (instance == null) {
+            instance = new AffirmMemoryManager();
+            context.getApplicationContext().registerComponentCallbacks(instance);
+        }
+    }
+
+    /**
+     * Let the WebView of an html promo be destroyed while the button is off-screen.
+     */
+    static void track(@NonNull AffirmPromotionButton promotionButton) {
+        register(promotionButton.getContext());
+        instance.promotionButtons.add(promotionButton);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        trim(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        trim(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+    }
+
+    /**
+     * @return The estimated bytes released
+     */
+    @VisibleForTesting
+    long trim(int level) {
+        AffirmWebViewPool.resetLimit();
+        if (level < TRIM_MEMORY_RUNNING_MODERATE) {
+            return 0;
+        }
+        long bytes;
+        if (level >= TRIM_MEMORY_RUNNING_CRITICAL) {
+            bytes = PromoLayoutCache.clear();
+            HtmlPromoStyleSheet.clearCache();
+            bytes += AffirmUtils.clearTemplates();
+        } else {
+            bytes = PromoLayoutCache.clearLayouts();
+        }
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            bytes += AffirmWebViewPool.trimToSize(0) * WEBVIEW_BYTES;
+            for (AffirmPromotionButton button : new ArrayList<>(promotionButtons)) {
+                if (button.releaseWebViewIfDetached()) {
+                    bytes += WEBVIEW_BYTES;
+                }
+            }
+        }
+
+        AffirmLog.d("Released ~" + bytes + " bytes on trim memory level " + level);
+        final AffirmMetrics metrics = AffirmMetrics.get();
+        metrics.countBytes(AffirmMetric.MEMORY_RECLAIMED_BYTES,
+                metrics.newCorrelationId(AffirmMetrics.LABEL_MEMORY), bytes);
+        return bytes;
+    }
+
+    @VisibleForTesting
+    static AffirmMemoryManager get() {
+        return instance;
+    }
+}
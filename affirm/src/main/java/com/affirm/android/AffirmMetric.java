@@ -0,0 +1,114 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * A single measurement reported to the {@link AffirmMetricsListener}.
+ */
+public final class AffirmMetric {
+
+    // Number of calls waiting in the OkHttp dispatcher when a call is enqueued
+    public static final String HTTP_QUEUE_DEPTH = "http.queue_depth";
+    public static final String HTTP_DNS = "http.dns";
+    // Includes the TLS handshake
+    public static final String HTTP_CONNECT = "http.connect";
+    public static final String HTTP_TLS = "http.tls";
+    // From the request being sent to the first byte of the response headers
+    public static final String HTTP_TTFB = "http.ttfb";
+    public static final String HTTP_BODY = "http.body";
+    public static final String HTTP_CALL = "http.call";
+    public static final String HTTP_FAILURE = "http.failure";
+    // Reported before every retry, the value is the number of the attempt that failed
+    public static final String HTTP_RETRY = "http.retry";
+    public static final String HTTP_RETRY_BACKOFF = "http.retry_backoff";
+    // A call rejected by an open circuit breaker, see AffirmCircuitBreakerPolicy
+    public static final String HTTP_CIRCUIT_OPEN = "http.circuit_open";
+    // A rejected promo call answered with the last promo received
+    public static final String HTTP_STALE = "http.stale";
+    public static final String HTTP_CACHE_HIT = "http.cache_hit";
+    public static final String HTTP_CACHE_MISS = "http.cache_miss";
+    public static final String HTTP_CACHE_CONDITIONAL_HIT = "http.cache_conditional_hit";
+    // From creating a request to its callback, including parsing the response
+    public static final String REQUEST_DURATION = "request.duration";
+    // A checkout screen taking over the checkout of Affirm.prepareCheckout, or not if its cart
+    // changed or the prepared checkout expired
+    public static final String CHECKOUT_PREPARED_HIT = "checkout.prepared_hit";
+    public static final String CHECKOUT_PREPARED_MISS = "checkout.prepared_miss";
+    public static final String WEBVIEW_PAGE_LOAD = "webview.page_load";
+    // From creating the screen to its page being fully loaded, even if prefetched earlier
+    public static final String WEBVIEW_TIME_TO_READY = "webview.time_to_ready";
+    // A screen opened with a WebView loaded off-screen, or not, see setPrefetchModals &
+    // setPrefetchPrequal
+    public static final String WEBVIEW_PREFETCH_HIT = "webview.prefetch_hit";
+    public static final String WEBVIEW_PREFETCH_MISS = "webview.prefetch_miss";
+    // Estimated memory released when the system asked to trim memory, see onTrimMemory
+    public static final String MEMORY_RECLAIMED_BYTES = "memory.reclaimed_bytes";
+
+    public enum Unit {
+        MICROSECONDS, COUNT, BYTES
+    }
+
+    @NonNull
+    private final String name;
+    @NonNull
+    private final String label;
+    @Nullable
+    private final String correlationId;
+    private final long value;
+    @NonNull
+    private final Unit unit;
+
+    AffirmMetric(@NonNull String name,
+                 @NonNull String label,
+                 @Nullable String correlationId,
+                 long value,
+                 @NonNull Unit unit) {
+        this.name = name;
+        this.label = label;
+        this.correlationId = correlationId;
+        this.value = value;
+        this.unit = unit;
+    }
+
+    /**
+     * @return One of the metric names declared in this class, eg {@link #HTTP_TTFB}
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return What was measured, eg `promo`, `checkout` or `checkout_screen`
+     */
+    @NonNull
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return The id shared by all metrics of the same request or screen
+     */
+    @Nullable
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    @NonNull
+    public Unit getUnit() {
+        return unit;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%s/%s [%s] %d %s", name, label, correlationId, value,
+                unit.name().toLowerCase(Locale.US));
+    }
+}
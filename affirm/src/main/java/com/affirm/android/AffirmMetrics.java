@@ -0,0 +1,148 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the metrics of the SDK: every metric is sent to the {@link AffirmMetricsListener} and
+ * aggregated in a histogram per metric name & label. Without a listener nothing is recorded.
+ */
+final class AffirmMetrics {
+
+    static final String LABEL_PROMO = "promo";
+    static final String LABEL_CHECKOUT = "checkout";
+    static final String LABEL_TRACKER = "tracker";
+    static final String LABEL_WEBVIEW = "webview";
+    static final String LABEL_MEMORY = "memory";
+
+    private static final char SEPARATOR = '-';
+    private static final String UNLABELED = "http";
+
+    static final AffirmMetrics DISABLED = new AffirmMetrics(null);
+
+    // Correlation ids are unique per process, the session part tells processes apart
+    private static final String SESSION =
+            Integer.toString(new Random().nextInt(Integer.MAX_VALUE), Character.MAX_RADIX);
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Nullable
+    private final AffirmMetricsListener listener;
+    private final ConcurrentHashMap<String, AffirmHistogram> histograms =
+            new ConcurrentHashMap<>();
+
+    AffirmMetrics(@Nullable AffirmMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    @NonNull
+    static AffirmMetrics get() {
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        return plugins != null ? plugins.metrics() : DISABLED;
+    }
+
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * @param label What is measured, must not contain `-`
+     * @return A new correlation id, or null when metrics are disabled
+     */
+    @Nullable
+    String newCorrelationId(@NonNull String label) {
+        if (!isEnabled()) {
+            return null;
+        }
+        return label + SEPARATOR + SESSION + SEPARATOR
+                + Long.toString(SEQUENCE.incrementAndGet(), Character.MAX_RADIX);
+    }
+
+    @NonNull
+    static String labelOf(@Nullable String correlationId) {
+        if (correlationId == null) {
+            return UNLABELED;
+        }
+        final int index = correlationId.indexOf(SEPARATOR);
+        return index == -1 ? correlationId : correlationId.substring(0, index);
+    }
+
+    void recordSince(@NonNull String name, @Nullable String correlationId, long startNanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        record(name, correlationId,
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos),
+                AffirmMetric.Unit.MICROSECONDS);
+    }
+
+    void recordDuration(@NonNull String name,
+                        @Nullable String correlationId,
+                        long startNanos,
+                        long endNanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        record(name, correlationId, TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos),
+                AffirmMetric.Unit.MICROSECONDS);
+    }
+
+    void count(@NonNull String name, @Nullable String correlationId, long value) {
+        if (!isEnabled()) {
+            return;
+        }
+        record(name, correlationId, value, AffirmMetric.Unit.COUNT);
+    }
+
+    void countBytes(@NonNull String name, @Nullable String correlationId, long bytes) {
+        if (!isEnabled()) {
+            return;
+        }
+        record(name, correlationId, bytes, AffirmMetric.Unit.BYTES);
+    }
+
+    private void record(@NonNull String name,
+                        @Nullable String correlationId,
+                        long value,
+                        @NonNull AffirmMetric.Unit unit) {
+        final String label = labelOf(correlationId);
+        histogram(name + '/' + label).record(value);
+        try {
+            listener.onMetric(new AffirmMetric(name, label, correlationId, value, unit));
+        } catch (RuntimeException e) {
+            AffirmLog.e("Metrics listener failed: " + e.toString());
+        }
+    }
+
+    @NonNull
+    private AffirmHistogram histogram(@NonNull String key) {
+        AffirmHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            histogram = new AffirmHistogram();
+            final AffirmHistogram existing = histograms.putIfAbsent(key, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * @return A snapshot of every histogram, keyed by `metric name/label`
+     */
+    @NonNull
+    Map<String, AffirmHistogram.Snapshot> snapshot() {
+        final Map<String, AffirmHistogram.Snapshot> snapshot = new TreeMap<>();
+        for (Map.Entry<String, AffirmHistogram> entry : histograms.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+}
@@ -0,0 +1,179 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.affirm.android.AffirmMetric.HTTP_BODY;
+import static com.affirm.android.AffirmMetric.HTTP_CACHE_CONDITIONAL_HIT;
+import static com.affirm.android.AffirmMetric.HTTP_CACHE_HIT;
+import static com.affirm.android.AffirmMetric.HTTP_CACHE_MISS;
+import static com.affirm.android.AffirmMetric.HTTP_CALL;
+import static com.affirm.android.AffirmMetric.HTTP_CONNECT;
+import static com.affirm.android.AffirmMetric.HTTP_DNS;
+import static com.affirm.android.AffirmMetric.HTTP_FAILURE;
+import static com.affirm.android.AffirmMetric.HTTP_QUEUE_DEPTH;
+import static com.affirm.android.AffirmMetric.HTTP_TLS;
+import static com.affirm.android.AffirmMetric.HTTP_TTFB;
+
+/**
+ * Turns the OkHttp events of a call into metrics. The correlation id of the call is the tag of
+ * its request, see {@link AffirmHttpRequest.Builder#setTag(String)}.
+ * <p>
+ * OkHttp reports the events of a call one after the other, so the timestamps don't need to be
+ * synchronized.
+ */
+final class AffirmMetricsEventListener extends EventListener {
+
+    @NonNull
+    private final AffirmMetrics metrics;
+    @Nullable
+    private final String correlationId;
+
+    private long callStart;
+    private long dnsStart;
+    private long connectStart;
+    private long secureConnectStart;
+    private long requestEnd;
+    private long responseBodyStart;
+
+    AffirmMetricsEventListener(@NonNull AffirmMetrics metrics, @Nullable String correlationId) {
+        this.metrics = metrics;
+        this.correlationId = correlationId;
+    }
+
+    static final class Factory implements EventListener.Factory {
+
+        @NonNull
+        private final AffirmMetrics metrics;
+        @NonNull
+        private final Dispatcher dispatcher;
+
+        Factory(@NonNull AffirmMetrics metrics, @NonNull Dispatcher dispatcher) {
+            this.metrics = metrics;
+            this.dispatcher = dispatcher;
+        }
+
+        @NotNull
+        @Override
+        public EventListener create(@NotNull Call call) {
+            final Object tag = call.request().tag();
+            final String correlationId = tag instanceof String ? (String) tag : null;
+            metrics.count(HTTP_QUEUE_DEPTH, correlationId, dispatcher.queuedCallsCount());
+            return new AffirmMetricsEventListener(metrics, correlationId);
+        }
+    }
+
+    @Override
+    public void callStart(@NotNull Call call) {
+        callStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(@NotNull Call call, @NotNull String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(@NotNull Call call,
+                       @NotNull String domainName,
+                       @NotNull List<InetAddress> inetAddressList) {
+        metrics.recordDuration(HTTP_DNS, correlationId, dnsStart, System.nanoTime());
+    }
+
+    @Override
+    public void connectStart(@NotNull Call call,
+                             @NotNull InetSocketAddress inetSocketAddress,
+                             @NotNull Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(@NotNull Call call) {
+        secureConnectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(@NotNull Call call, @Nullable Handshake handshake) {
+        metrics.recordDuration(HTTP_TLS, correlationId, secureConnectStart, System.nanoTime());
+    }
+
+    @Override
+    public void connectEnd(@NotNull Call call,
+                           @NotNull InetSocketAddress inetSocketAddress,
+                           @NotNull Proxy proxy,
+                           @Nullable Protocol protocol) {
+        metrics.recordDuration(HTTP_CONNECT, correlationId, connectStart, System.nanoTime());
+    }
+
+    @Override
+    public void requestHeadersEnd(@NotNull Call call, @NotNull Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(@NotNull Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(@NotNull Call call) {
+        if (requestEnd != 0) {
+            metrics.recordDuration(HTTP_TTFB, correlationId, requestEnd, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void responseBodyStart(@NotNull Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(@NotNull Call call, long byteCount) {
+        if (responseBodyStart != 0) {
+            metrics.recordDuration(HTTP_BODY, correlationId, responseBodyStart,
+                    System.nanoTime());
+        }
+    }
+
+    @Override
+    public void cacheHit(@NotNull Call call, @NotNull Response response) {
+        metrics.count(HTTP_CACHE_HIT, correlationId, 1);
+    }
+
+    @Override
+    public void cacheMiss(@NotNull Call call) {
+        metrics.count(HTTP_CACHE_MISS, correlationId, 1);
+    }
+
+    @Override
+    public void cacheConditionalHit(@NotNull Call call, @NotNull Response cachedResponse) {
+        metrics.count(HTTP_CACHE_CONDITIONAL_HIT, correlationId, 1);
+    }
+
+    @Override
+    public void callEnd(@NotNull Call call) {
+        metrics.recordDuration(HTTP_CALL, correlationId, callStart, System.nanoTime());
+    }
+
+    @Override
+    public void callFailed(@NotNull Call call, @NotNull IOException ioe) {
+        metrics.recordDuration(HTTP_CALL, correlationId, callStart, System.nanoTime());
+        metrics.count(HTTP_FAILURE, correlationId, 1);
+    }
+}
@@ -0,0 +1,16 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receives the performance metrics of the SDK, register it with
+ * {@link Affirm.Configuration.Builder#setMetricsListener(AffirmMetricsListener)}.
+ * <p>
+ * Metrics are delivered on the thread they are recorded on (OkHttp threads for network timings,
+ * the main thread for WebView timings), so implementations should return quickly and hand the
+ * metric off to their APM. Aggregated histograms of all metrics are available through
+ * {@link Affirm#getMetricsSnapshot()}.
+ */
+public interface AffirmMetricsListener {
+    void onMetric(@NonNull AffirmMetric metric);
+}
@@ -1,6 +1,8 @@
 package com.affirm.android;
 
-import android.webkit.CookieManager;
+import android.content.Context;
+import android.os.Process;
+import android.webkit.WebSettings;
 
 import com.affirm.android.model.AbstractAddress;
 import com.affirm.android.model.AffirmAdapterFactory;
@@ -8,30 +10,67 @@ import com.affirm.android.model.AddressSerializer;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
+import okhttp3.Cache;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.brotli.BrotliInterceptor;
 
 public class AffirmPlugins {
 
     private static final Object LOCK = new Object();
     private static AffirmPlugins instance;
     private final Affirm.Configuration configuration;
+    private final AffirmMetrics metrics;
+    private final AffirmReadyFuture ready;
 
     private AffirmHttpClient restClient;
     private Gson gson;
+    private PromoUrlFactory promoUrlFactory;
+    private AffirmUrlRouter urlRouter;
+    private Cache httpCache;
+    private ThreadPoolExecutor backgroundExecutor;
+    private ThreadPoolExecutor idleExecutor;
+    // Read without the lock, so a page finishing doesn't wait for the client being built
+    private volatile AffirmCookieJar cookieJar;
+    private final AffirmHttpCacheStats.Counter httpCacheCounter =
+            new AffirmHttpCacheStats.Counter();
 
     AffirmPlugins(@NonNull Affirm.Configuration configuration) {
+        this(configuration, AffirmReadyFuture.completed());
+    }
+
+    AffirmPlugins(@NonNull Affirm.Configuration configuration, @NonNull AffirmReadyFuture ready) {
         this.configuration = configuration;
+        this.ready = ready;
+        this.metrics = configuration.metricsListener != null
+                ? new AffirmMetrics(configuration.metricsListener) : AffirmMetrics.DISABLED;
     }
 
     static void initialize(@NonNull Affirm.Configuration configuration) {
         AffirmPlugins.set(new AffirmPlugins(configuration));
     }
 
+    static void initialize(@NonNull Affirm.Configuration configuration,
+                            @NonNull AffirmReadyFuture ready) {
+        AffirmPlugins.set(new AffirmPlugins(configuration, ready));
+    }
+
     private static void set(@NonNull AffirmPlugins plugins) {
         synchronized (LOCK) {
             if (instance != null) {
@@ -85,44 +124,264 @@ public class AffirmPlugins {
         return configuration.environment.trackerBaseUrl();
     }
 
+    long promoTimeoutMillis() {
+        return configuration.promoTimeoutMillis;
+    }
+
+    long checkoutTimeoutMillis() {
+        return configuration.checkoutTimeoutMillis;
+    }
+
+    long trackerTimeoutMillis() {
+        return configuration.trackerTimeoutMillis;
+    }
+
+    @NonNull
+    synchronized AffirmUrlRouter urlRouter() {
+        if (urlRouter == null) {
+            urlRouter = AffirmUrlRouter.forEnvironment(baseInvalidCheckoutRedirectUrl());
+        }
+        return urlRouter;
+    }
+
+    long preparedCheckoutTtlMillis() {
+        return configuration.preparedCheckoutTtlMillis;
+    }
+
+    boolean prefetchModals() {
+        return configuration.prefetchModals;
+    }
+
+    boolean prefetchPrequal() {
+        return configuration.prefetchPrequal;
+    }
+
+    @NonNull
+    Affirm.PresentationMode presentationMode() {
+        return configuration.presentationMode;
+    }
+
     String baseInvalidCheckoutRedirectUrl() {
         return configuration.environment.baseInvalidCheckoutRedirectUrl();
     }
 
+    @NonNull
+    AffirmMetrics metrics() {
+        return metrics;
+    }
+
+    @NonNull
+    AffirmReadyFuture ready() {
+        return ready;
+    }
+
+    /**
+     * Run {@code runnable} right away when ready, otherwise on the warm up thread once the warm
+     * up is done, so it doesn't build Gson or the OkHttp client a second time on this thread.
+     */
+    void whenReady(@NonNull Runnable runnable) {
+        if (ready.isDone()) {
+            runnable.run();
+        } else {
+            ready.addListener(runnable, Runnable::run);
+        }
+    }
+
+    /**
+     * Build everything that is otherwise created on first use.
+     */
+    void warmUp(@NonNull Context context) {
+        gson();
+        restClient();
+        promoUrlFactory();
+        try {
+            AffirmUtils.preloadTemplates(context.getResources());
+        } catch (IOException e) {
+            AffirmLog.w("Failed to preload templates: " + e.toString());
+        }
+        if (configuration.warmUpWebView) {
+            try {
+                // Loads the WebView provider, which is the slow part of the first WebView
+                WebSettings.getDefaultUserAgent(context);
+            } catch (RuntimeException e) {
+                AffirmLog.w("Failed to warm up the WebView: " + e.toString());
+            }
+        }
+    }
+
     synchronized Gson gson() {
         if (gson == null) {
-            gson = new GsonBuilder()
-                    .registerTypeAdapterFactory(AffirmAdapterFactory.create())
-                    .registerTypeAdapter(AbstractAddress.class, new AddressSerializer())
-                    .create();
+            AffirmTrace.beginSection(AffirmTrace.GSON);
+            try {
+                gson = new GsonBuilder()
+                        .registerTypeAdapterFactory(AffirmAdapterFactory.create())
+                        .registerTypeAdapter(AbstractAddress.class, new AddressSerializer())
+                        .create();
+            } finally {
+                AffirmTrace.endSection();
+            }
         }
         return gson;
     }
 
+    /**
+     * Runs the work that is kept off the main thread, e.g. preparing checkout payloads. Its
+     * single thread is started on demand and stops once idle for a while.
+     */
+    synchronized Executor backgroundExecutor() {
+        if (backgroundExecutor == null) {
+            backgroundExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        final Thread thread = new Thread(runnable, "Affirm-background");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            backgroundExecutor.allowCoreThreadTimeOut(true);
+        }
+        return backgroundExecutor;
+    }
+
+    /**
+     * Runs the work nothing waits for, e.g. snapshotting checkouts, on its own low priority
+     * thread so it never delays the work of {@link #backgroundExecutor()}.
+     */
+    synchronized Executor idleExecutor() {
+        if (idleExecutor == null) {
+            idleExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        final Thread thread = new Thread(() -> {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }, "Affirm-idle");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            idleExecutor.allowCoreThreadTimeOut(true);
+        }
+        return idleExecutor;
+    }
+
+    synchronized PromoUrlFactory promoUrlFactory() {
+        if (promoUrlFactory == null) {
+            promoUrlFactory = new PromoUrlFactory(AffirmHttpClient.getProtocol(),
+                    basePromoUrl(), publicKey(), gson());
+        }
+        return promoUrlFactory;
+    }
+
     synchronized AffirmHttpClient restClient() {
         if (restClient == null) {
-            OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
-            //add it as the first interceptor
-            clientBuilder.interceptors().add(0, chain -> {
-                final Request.Builder builder = chain.request().newBuilder();
-                builder.addHeader("Accept", "application/json");
-                builder.addHeader("Content-Type", "application/json");
-                builder.addHeader("Affirm-User-Agent", "Affirm-Android-SDK");
-                builder.addHeader("Affirm-User-Agent-Version", BuildConfig.VERSION_NAME);
-
-                CookieManager cookieManager = CookieManager.getInstance();
-                String cookie = cookieManager
-                        .getCookie(AffirmConstants.HTTPS_PROTOCOL + baseUrl());
-                if (cookie != null) {
-                    builder.addHeader("Cookie", cookie);
-                }
-                return chain.proceed(builder.build());
-            });
-            clientBuilder.connectTimeout(5, TimeUnit.SECONDS);
-            clientBuilder.readTimeout(30, TimeUnit.SECONDS);
-            clientBuilder.followRedirects(false);
-            restClient = AffirmHttpClient.createClient(clientBuilder);
+            AffirmTrace.beginSection(AffirmTrace.REST_CLIENT);
+            try {
+                restClient = createRestClient();
+            } finally {
+                AffirmTrace.endSection();
+            }
         }
         return restClient;
     }
+
+    private AffirmHttpClient createRestClient() {
+        OkHttpClient.Builder clientBuilder = new OkHttpClient.Builder();
+        //add it as the first interceptor
+        clientBuilder.interceptors().add(0, chain -> {
+            final Request.Builder builder = chain.request().newBuilder();
+            builder.addHeader("Accept", "application/json");
+            builder.addHeader("Content-Type", "application/json");
+            builder.addHeader("Affirm-User-Agent", "Affirm-Android-SDK");
+            builder.addHeader("Affirm-User-Agent-Version", BuildConfig.VERSION_NAME);
+            return chain.proceed(builder.build());
+        });
+        cookieJar = new AffirmCookieJar(affirmHosts());
+        clientBuilder.cookieJar(cookieJar);
+        if (configuration.httpCacheDirectory != null) {
+            // Stores the ETag & Last-Modified of GET responses and revalidates with them
+            httpCache = new Cache(configuration.httpCacheDirectory,
+                    configuration.httpCacheMaxSize);
+            clientBuilder.cache(httpCache);
+            clientBuilder.addNetworkInterceptor(httpCacheCounter);
+        }
+        clientBuilder.connectTimeout(5, TimeUnit.SECONDS);
+        clientBuilder.readTimeout(30, TimeUnit.SECONDS);
+        clientBuilder.followRedirects(false);
+        clientBuilder.addInterceptor(
+                new AffirmRetryInterceptor(configuration.retryPolicy, metrics));
+        // After the retries, so every attempt goes through the breakers
+        clientBuilder.addInterceptor(new AffirmCircuitBreakerInterceptor(
+                new AffirmCircuitBreaker(AffirmMetrics.LABEL_PROMO,
+                        configuration.circuitBreakerPolicy, configuration.circuitBreakerListener),
+                new AffirmCircuitBreaker(AffirmMetrics.LABEL_TRACKER,
+                        configuration.circuitBreakerPolicy, configuration.circuitBreakerListener),
+                metrics,
+                configuration.circuitBreakerPolicy.isServeStalePromos()));
+        // Without it OkHttp asks for gzip itself
+        if (isBrotliAvailable()) {
+            clientBuilder.addInterceptor(Brotli.INTERCEPTOR);
+        }
+        if (metrics.isEnabled()) {
+            final Dispatcher dispatcher = new Dispatcher();
+            clientBuilder.dispatcher(dispatcher);
+            clientBuilder.eventListenerFactory(
+                    new AffirmMetricsEventListener.Factory(metrics, dispatcher));
+        }
+        return AffirmHttpClient.createClient(clientBuilder);
+    }
+
+    /**
+     * @return The hosts of the environment, the only ones the rest client sends cookies to
+     */
+    @NonNull
+    Set<String> affirmHosts() {
+        final Set<String> hosts = new HashSet<>();
+        for (String baseUrl : new String[]{baseUrl(), basePromoUrl(), baseJsUrl(),
+                trackerBaseUrl()}) {
+            final HttpUrl url = HttpUrl.parse(
+                    baseUrl.contains(AffirmConstants.HTTP) ? baseUrl
+                            : AffirmConstants.HTTPS_PROTOCOL + baseUrl);
+            if (url != null) {
+                hosts.add(url.host());
+            }
+        }
+        return Collections.unmodifiableSet(hosts);
+    }
+
+    /**
+     * Make the rest client read the WebView cookies again on its next calls.
+     */
+    void invalidateCookies() {
+        final AffirmCookieJar jar = cookieJar;
+        if (jar != null) {
+            jar.invalidate();
+        }
+    }
+
+    /**
+     * okhttp-brotli is an optional dependency, brotli is only negotiated when the app has it.
+     */
+    private static boolean isBrotliAvailable() {
+        try {
+            Class.forName("okhttp3.brotli.BrotliInterceptor");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Only loaded once okhttp-brotli is known to be there, so AffirmPlugins itself never
+     * references its classes & is verified without it.
+     */
+    private static final class Brotli {
+        static final Interceptor INTERCEPTOR = BrotliInterceptor.INSTANCE;
+    }
+
+    @NonNull
+    synchronized AffirmHttpCacheStats httpCacheStats() {
+        return httpCacheCounter.snapshot(httpCache);
+    }
+
+    @VisibleForTesting
+    synchronized void setRestClient(@Nullable AffirmHttpClient restClient) {
+        this.restClient = restClient;
+    }
 }
@@ -1,14 +1,22 @@
 package com.affirm.android;
 
 import android.content.Context;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.SpannableString;
+import android.text.SpannableStringBuilder;
 import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.widget.Button;
 import android.widget.FrameLayout;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.core.content.res.ResourcesCompat;
 
 import static com.affirm.android.AffirmColor.AFFIRM_COLOR_TYPE_BLUE;
@@ -16,11 +24,25 @@ import static com.affirm.android.AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO;
 
 public class AffirmPromotionButton extends FrameLayout {
 
+    // How long the promo stays on screen before the screen it opens is prefetched, so scrolling
+    // through a list of promos doesn't prefetch each of them
+    private static final long PREFETCH_DELAY_MILLIS = 500;
+
     private boolean htmlStyling;
     private String message;
 
-    private PromotionButton promotionButton;
     private PromotionWebView promotionWebView;
+    // The html label of a WebView released while detached, loaded again once attached
+    @Nullable
+    private String releasedWebViewHtml;
+
+    // The label drawn by this view, from the PromoLayoutCache
+    @Nullable
+    private PromoLayoutCache.Key spansKey;
+    @Nullable
+    private CharSequence label;
+    @Nullable
+    private Layout layout;
 
     private AffirmLogoType affirmLogoType;
     private AffirmColor affirmColor;
@@ -29,8 +51,22 @@ public class AffirmPromotionButton extends FrameLayout {
     private String typefaceDeclaration;
 
     private float affirmTextSize;
-    private int affirmTextColor;
-    private int affirmTextFont;
+    private int textColor;
+    @Nullable
+    private Typeface typeface;
+
+    private OnClickListener clickListener;
+
+    // The prefetch of the screen opened by a tap, until it's run
+    @Nullable
+    private Runnable prefetch;
+    private final Runnable runPrefetch = () -> {
+        final Runnable pending = prefetch;
+        prefetch = null;
+        if (pending != null) {
+            pending.run();
+        }
+    };
 
     public AffirmPromotionButton(@NonNull Context context) {
         this(context, null);
@@ -65,13 +101,16 @@ public class AffirmPromotionButton extends FrameLayout {
                 typedArray.getDimensionPixelSize(R.styleable.AffirmPromotionButton_affirmTextSize,
                         getResources().getDimensionPixelSize(R.dimen.affirm_promotion_size));
 
-        affirmTextColor =
+        int affirmTextColor =
                 typedArray.getResourceId(R.styleable.AffirmPromotionButton_affirmTextColor,
                         android.R.color.black);
+        textColor = ContextCompat.getColor(context, affirmTextColor);
 
-        affirmTextFont =
+        int affirmTextFont =
                 typedArray.getResourceId(R.styleable.AffirmPromotionButton_affirmTextFont,
                         0);
+        typeface = affirmTextFont > 0
+                ? ResourcesCompat.getFont(context, affirmTextFont) : Typeface.SERIF;
 
         htmlStyling = typedArray.getBoolean(R.styleable.AffirmPromotionButton_htmlStyling,
                 false);
@@ -80,31 +119,213 @@ public class AffirmPromotionButton extends FrameLayout {
         affirmColor = AffirmColor.getAffirmColor(affirmColorOrdinal);
 
         typedArray.recycle();
+
+        AffirmMemoryManager.register(context);
+        AffirmCustomTabs.bind(context);
+
+        // The label is drawn by this view instead of a child
+        setWillNotDraw(false);
     }
 
     protected void setLabel(@NonNull String text) {
         this.message = text;
-        removeAllViews();
         if (htmlStyling) {
-            addView(promotionWebView);
-            promotionWebView.loadWebData(text, remoteCssUrl, typefaceDeclaration);
+            HtmlPromoStyleSheet.load(getContext(), remoteCssUrl, typefaceDeclaration,
+                    styleSheet -> {
+                        // Ignore the style sheet if a newer label has been set meanwhile
+                        if (text.equals(message)) {
+                            setHtmlLabel(text, styleSheet);
+                        }
+                    });
+        } else {
+            final PromoLayoutCache.Key key = PromoLayoutCache.spansKey(text, null,
+                    affirmLogoType, affirmColor, affirmTextSize);
+            CharSequence spans = PromoLayoutCache.getSpans(key);
+            if (spans == null) {
+                spans = updateSpan(text);
+                PromoLayoutCache.putSpans(key, spans);
+            }
+            showLabel(key, spans);
+        }
+    }
+
+    private void setHtmlLabel(@NonNull String text, @NonNull HtmlPromoStyleSheet styleSheet) {
+        final PromoLayoutCache.Key key = PromoLayoutCache.spansKey(text, styleSheet,
+                affirmLogoType, affirmColor, affirmTextSize);
+        CharSequence spans = PromoLayoutCache.getSpans(key);
+        if (spans == null) {
+            final SpannableStringBuilder rendered = updateHtmlSpan(text, styleSheet);
+            spans = rendered != null ? rendered : PromoLayoutCache.NOT_RENDERABLE;
+            PromoLayoutCache.putSpans(key, spans);
+        }
+        if (spans != PromoLayoutCache.NOT_RENDERABLE) {
+            showLabel(key, spans);
         } else {
-            buildPromotionButtonIfNeeded();
-            addView(promotionButton);
-            promotionButton.setText(promotionButton.updateSpan(text));
+            // The markup is outside of what can be rendered natively, use a WebView instead
+            showLabel(null, null);
+            showWebView(text);
         }
     }
 
-    private void buildPromotionButtonIfNeeded() {
-        if (promotionButton == null) {
-            promotionButton = new PromotionButton(getContext());
-            promotionButton.setAffirmTextSize(affirmTextSize);
-            promotionButton.setAffirmTextColor(affirmTextColor);
-            promotionButton.setTypeface(affirmTextFont > 0
-                    ? ResourcesCompat.getFont(getContext(), affirmTextFont) : Typeface.SERIF);
-            promotionButton.setAffirmColor(affirmColor);
-            promotionButton.setAffirmLogoType(affirmLogoType);
+    private void showWebView(@NonNull String html) {
+        releasedWebViewHtml = null;
+        buildPromotionWebViewIfNeeded();
+        promotionWebView.setVisibility(VISIBLE);
+        promotionWebView.loadWebData(html, remoteCssUrl, typefaceDeclaration);
+    }
+
+    /**
+     * Draw the label with this view, the children are left as they are, only the WebView of a
+     * previous html label is hidden.
+     */
+    private void showLabel(@Nullable PromoLayoutCache.Key key, @Nullable CharSequence spans) {
+        if (key != null) {
+            releasedWebViewHtml = null;
+            if (promotionWebView != null) {
+                promotionWebView.setVisibility(GONE);
+            }
+        }
+        if (key != null ? key.equals(spansKey) : spansKey == null) {
+            return;
+        }
+        this.spansKey = key;
+        this.label = spans;
+        this.layout = null;
+        setContentDescription(spans != null ? spans.toString() : null);
+        requestLayout();
+        invalidate();
+    }
+
+    @Nullable
+    CharSequence getLabel() {
+        return label;
+    }
+
+    SpannableString updateSpan(@NonNull String template) {
+        return AffirmUtils.createSpannableForText(template, affirmTextSize,
+                affirmLogoType, affirmColor, getContext());
+    }
+
+    @Nullable
+    SpannableStringBuilder updateHtmlSpan(@NonNull String html,
+                                          @NonNull HtmlPromoStyleSheet styleSheet) {
+        Resources resources = getResources();
+        return HtmlPromoRenderer.render(html, styleSheet, affirmTextSize,
+                AffirmUtils.getLogoDrawable(affirmLogoType, affirmColor, resources),
+                affirmColor, resources);
+    }
+
+    private void buildPromotionWebViewIfNeeded() {
+        if (promotionWebView == null) {
+            AffirmTrace.beginSection(AffirmTrace.WEBVIEW_INFLATE);
+            try {
+                promotionWebView = new PromotionWebView(getContext());
+            } finally {
+                AffirmTrace.endSection();
+            }
+            promotionWebView.setWebViewClickListener(clickListener);
+            addView(promotionWebView);
+            AffirmMemoryManager.track(this);
+        }
+    }
+
+    /**
+     * Destroy the WebView of the html label while this button isn't attached to a window, it's
+     * loaded again once attached.
+     *
+     * @return Whether the WebView was destroyed
+     */
+    boolean releaseWebViewIfDetached() {
+        if (promotionWebView == null || isAttachedToWindow()) {
+            return false;
         }
+        final String html = isShowingWebView() ? message : null;
+        destroy();
+        releasedWebViewHtml = html;
+        return true;
+    }
+
+    /**
+     * Run the prefetch once this button has been attached to a window for a while, a newer
+     * prefetch replaces it.
+     */
+    void prefetchWhenShown(@NonNull Runnable prefetch) {
+        removeCallbacks(runPrefetch);
+        this.prefetch = prefetch;
+        if (isAttachedToWindow()) {
+            postDelayed(runPrefetch, PREFETCH_DELAY_MILLIS);
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (releasedWebViewHtml != null) {
+            showWebView(releasedWebViewHtml);
+        }
+        if (prefetch != null) {
+            postDelayed(runPrefetch, PREFETCH_DELAY_MILLIS);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        removeCallbacks(runPrefetch);
+        super.onDetachedFromWindow();
+    }
+
+    private boolean isShowingWebView() {
+        return promotionWebView != null && promotionWebView.getVisibility() != GONE;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (isShowingWebView()) {
+            layout = null;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+        final int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        final int verticalPadding = getPaddingTop() + getPaddingBottom();
+        if (spansKey == null || label == null) {
+            layout = null;
+            setMeasuredDimension(resolveSize(horizontalPadding, widthMeasureSpec),
+                    resolveSize(verticalPadding, heightMeasureSpec));
+            return;
+        }
+        final int maxWidth = MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED
+                ? Integer.MAX_VALUE
+                : Math.max(0, MeasureSpec.getSize(widthMeasureSpec) - horizontalPadding);
+        layout = PromoLayoutCache.getLayout(spansKey, label, maxWidth, typeface, textColor);
+        setMeasuredDimension(
+                resolveSize(layout.getWidth() + horizontalPadding, widthMeasureSpec),
+                resolveSize(layout.getHeight() + verticalPadding, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (layout == null) {
+            return;
+        }
+        final int contentWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        final int contentHeight = getHeight() - getPaddingTop() - getPaddingBottom();
+        canvas.save();
+        canvas.translate(getPaddingLeft() + (contentWidth - layout.getWidth()) / 2f,
+                getPaddingTop() + (contentHeight - layout.getHeight()) / 2f);
+        layout.draw(canvas);
+        canvas.restore();
+    }
+
+    @Override
+    public CharSequence getAccessibilityClassName() {
+        return Button.class.getName();
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        info.setClassName(Button.class.getName());
     }
 
     public boolean isHtmlStyle() {
@@ -114,15 +335,11 @@ public class AffirmPromotionButton extends FrameLayout {
     @Deprecated
     public void setAffirmLogoType(@NonNull AffirmLogoType affirmLogoType) {
         this.affirmLogoType = affirmLogoType;
-        buildPromotionButtonIfNeeded();
-        promotionButton.setAffirmLogoType(affirmLogoType);
     }
 
     @Deprecated
     public void setAffirmColor(@NonNull AffirmColor affirmColor) {
         this.affirmColor = affirmColor;
-        buildPromotionButtonIfNeeded();
-        promotionButton.setAffirmColor(affirmColor);
     }
 
     public void configWithHtmlStyling() {
@@ -135,7 +352,9 @@ public class AffirmPromotionButton extends FrameLayout {
 
     /**
      * When you want to display the promo message in html style, if you want to custom the style
-     * of promo message, should pass the local or remote url and the file of typeface declaration
+     * of promo message, should pass the local or remote url and the file of typeface declaration.
+     * The promo message is rendered natively with the css rules, a WebView is only used when
+     * the message contains markup that can't be rendered natively.
      *
      * @param remoteCssUrl        Set if you want to use custom css. If not, just pass null
      * @param typefaceDeclaration To embed your selected fonts into a webpage, you should pass
@@ -146,7 +365,6 @@ public class AffirmPromotionButton extends FrameLayout {
         this.htmlStyling = true;
         this.remoteCssUrl = remoteCssUrl;
         this.typefaceDeclaration = typefaceDeclaration;
-        promotionWebView = new PromotionWebView(getContext());
     }
 
     public void configWithLocalStyling(@NonNull AffirmColor affirmColor,
@@ -187,12 +405,11 @@ public class AffirmPromotionButton extends FrameLayout {
         this.htmlStyling = false;
         this.affirmColor = affirmColor;
         this.affirmLogoType = affirmLogoType;
-        promotionButton = new PromotionButton(getContext());
-        promotionButton.setAffirmColor(affirmColor);
-        promotionButton.setAffirmLogoType(affirmLogoType);
-        promotionButton.setTypeface(typeface);
-        promotionButton.setAffirmTextColor(affirmTextColor);
-        promotionButton.setAffirmTextSize(getResources().getDimensionPixelSize(affirmTextSize));
+        this.typeface = typeface;
+        this.textColor = ContextCompat.getColor(getContext(), affirmTextColor);
+        this.affirmTextSize = getResources().getDimensionPixelSize(affirmTextSize);
+        requestLayout();
+        invalidate();
     }
 
     protected AffirmColor getAffirmColor() {
@@ -210,6 +427,7 @@ public class AffirmPromotionButton extends FrameLayout {
     @Override
     public void setOnClickListener(@Nullable OnClickListener l) {
         super.setOnClickListener(l);
+        this.clickListener = l;
 
         if (promotionWebView != null) {
             promotionWebView.setWebViewClickListener(l);
@@ -217,7 +435,9 @@ public class AffirmPromotionButton extends FrameLayout {
     }
 
     public void destroy() {
+        releasedWebViewHtml = null;
         if (promotionWebView != null) {
+            removeView(promotionWebView);
             promotionWebView.destroyWebView();
             promotionWebView = null;
         }
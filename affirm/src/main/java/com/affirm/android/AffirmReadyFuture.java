@@ -0,0 +1,108 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Completes once Affirm is ready to be used without building anything on the calling thread,
+ * see {@link Affirm#initializeAsync(android.content.Context, Affirm.Configuration, Executor)}.
+ * Listeners can be chained onto it with {@link #addListener(Runnable, Executor)}. The future
+ * can't be cancelled.
+ */
+public final class AffirmReadyFuture implements Future<Void> {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final List<Runnable> listeners = new ArrayList<>();
+    private final List<Executor> executors = new ArrayList<>();
+    private boolean done;
+
+    AffirmReadyFuture() {
+    }
+
+    @NonNull
+    static AffirmReadyFuture completed() {
+        final AffirmReadyFuture future = new AffirmReadyFuture();
+        future.complete();
+        return future;
+    }
+
+    void complete() {
+        final List<Runnable> pendingListeners;
+        final List<Executor> pendingExecutors;
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+            done = true;
+            pendingListeners = new ArrayList<>(listeners);
+            pendingExecutors = new ArrayList<>(executors);
+            listeners.clear();
+            executors.clear();
+        }
+        latch.countDown();
+        for (int i = 0; i < pendingListeners.size(); i++) {
+            execute(pendingListeners.get(i), pendingExecutors.get(i));
+        }
+    }
+
+    /**
+     * Run {@code listener} on {@code executor} once Affirm is ready, or right away if it
+     * already is.
+     */
+    public void addListener(@NonNull Runnable listener, @NonNull Executor executor) {
+        synchronized (this) {
+            if (!done) {
+                listeners.add(listener);
+                executors.add(executor);
+                return;
+            }
+        }
+        execute(listener, executor);
+    }
+
+    private static void execute(@NonNull Runnable listener, @NonNull Executor executor) {
+        try {
+            executor.execute(listener);
+        } catch (RejectedExecutionException e) {
+            AffirmLog.e("Affirm ready listener was rejected: " + e.toString());
+        }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return latch.getCount() == 0;
+    }
+
+    @Override
+    public Void get() throws InterruptedException {
+        latch.await();
+        return null;
+    }
+
+    @Override
+    public Void get(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, TimeoutException {
+        if (!latch.await(timeout, unit)) {
+            throw new TimeoutException("Affirm is not ready yet");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static com.affirm.android.AffirmConstants.IDEMPOTENCY_KEY;
+import static com.affirm.android.AffirmConstants.RETRY_AFTER;
+
+/**
+ * Retries the calls of the rest client following an {@link AffirmRetryPolicy}. Retries happen
+ * within the same OkHttp call, so cancelling the call also stops its retries and no retry starts
+ * past its call timeout. A call rejected by an open circuit breaker isn't retried.
+ */
+final class AffirmRetryInterceptor implements Interceptor {
+
+    // How often a backoff checks whether its call was cancelled
+    private static final long CANCEL_CHECK_MILLIS = 50;
+
+    @NonNull
+    private final AffirmRetryPolicy policy;
+    @NonNull
+    private final AffirmMetrics metrics;
+
+    AffirmRetryInterceptor(@NonNull AffirmRetryPolicy policy, @NonNull AffirmMetrics metrics) {
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        if (policy.getMaxAttempts() <= 1 || !isRetryable(request)) {
+            return chain.proceed(request);
+        }
+        final Object tag = request.tag();
+        final String correlationId = tag instanceof String ? (String) tag : null;
+        final long start = System.nanoTime();
+
+        for (int attempt = 1; ; attempt++) {
+            Response response = null;
+            IOException failure = null;
+            try {
+                response = chain.proceed(request);
+            } catch (AffirmCircuitBreakerInterceptor.CircuitOpenException e) {
+                throw e;
+            } catch (IOException e) {
+                failure = e;
+            }
+            if (response != null && !isRetryable(response.code())) {
+                return response;
+            }
+
+            final long delayMillis = retryDelayMillis(chain.call(), response, attempt, start);
+            if (delayMillis < 0) {
+                if (response != null) {
+                    return response;
+                }
+                throw failure;
+            }
+            if (response != null) {
+                response.close();
+            }
+            metrics.count(AffirmMetric.HTTP_RETRY, correlationId, attempt);
+            final long backoffStart = System.nanoTime();
+            sleep(chain.call(), delayMillis);
+            metrics.recordSince(AffirmMetric.HTTP_RETRY_BACKOFF, correlationId, backoffStart);
+        }
+    }
+
+    /**
+     * @return The delay before the next attempt, or -1 if there must not be one
+     */
+    private long retryDelayMillis(@NonNull Call call,
+                                  @Nullable Response response,
+                                  int attempt,
+                                  long startNanos) {
+        if (call.isCanceled() || attempt >= policy.getMaxAttempts()) {
+            return -1;
+        }
+        long delayMillis = -1;
+        if (response != null) {
+            delayMillis = retryAfterMillis(response);
+        }
+        if (delayMillis < 0) {
+            delayMillis = policy.backoffMillis(attempt, ThreadLocalRandom.current().nextDouble());
+        }
+        // The call timeout would interrupt a retry started past it
+        long deadlineMillis = policy.getDeadlineMillis();
+        final long callTimeoutNanos = call.timeout().timeoutNanos();
+        if (callTimeoutNanos > 0) {
+            deadlineMillis = Math.min(deadlineMillis,
+                    TimeUnit.NANOSECONDS.toMillis(callTimeoutNanos));
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (elapsedMillis + delayMillis > deadlineMillis) {
+            return -1;
+        }
+        return delayMillis;
+    }
+
+    static boolean isRetryable(@NonNull Request request) {
+        return "GET".equals(request.method()) || request.header(IDEMPOTENCY_KEY) != null;
+    }
+
+    static boolean isRetryable(int code) {
+        switch (code) {
+            case 408:
+            case 429:
+            case 502:
+            case 503:
+            case 504:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return The delay asked by the {@code Retry-After} header, in seconds or as a date, or -1
+     */
+    static long retryAfterMillis(@NonNull Response response) {
+        final String retryAfter = response.header(RETRY_AFTER);
+        if (retryAfter == null) {
+            return -1;
+        }
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            final Date date = response.headers().getDate(RETRY_AFTER);
+            return date != null ? Math.max(0, date.getTime() - System.currentTimeMillis()) : -1;
+        }
+    }
+
+    private static void sleep(@NonNull Call call, long delayMillis) throws IOException {
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        try {
+            long remainingNanos;
+            while ((remainingNanos = end - System.nanoTime()) > 0) {
+                if (call.isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                Thread.sleep(Math.min(CANCEL_CHECK_MILLIS,
+                        TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+}
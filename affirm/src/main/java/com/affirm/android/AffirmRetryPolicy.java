@@ -0,0 +1,131 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+
+/**
+ * How the SDK retries failed http calls, see
+ * {@link Affirm.Configuration.Builder#setRetryPolicy(AffirmRetryPolicy)}.
+ * <p>
+ * Only GET requests and POST requests carrying an idempotency key are retried, after an
+ * {@link java.io.IOException} or a 408, 429, 502, 503 or 504 response. The delay between two
+ * attempts grows exponentially with a random jitter, unless the response has a
+ * {@code Retry-After} header. No retry is started past the deadline.
+ */
+public final class AffirmRetryPolicy {
+
+    /**
+     * 3 attempts, 250ms initial backoff up to 2s, within 10s.
+     */
+    public static final AffirmRetryPolicy DEFAULT = new Builder().build();
+
+    /**
+     * Never retry.
+     */
+    public static final AffirmRetryPolicy NONE = new Builder().setMaxAttempts(1).build();
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long deadlineMillis;
+
+    private AffirmRetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+        this.deadlineMillis = builder.deadlineMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * @param retry  the retry about to start, 1 for the first one
+     * @param jitter a random number in [0, 1)
+     * @return The delay before the retry, between half and all of the exponential backoff
+     */
+    long backoffMillis(int retry, double jitter) {
+        long backoff = initialBackoffMillis;
+        for (int i = 1; i < retry && backoff < maxBackoffMillis; i++) {
+            backoff *= 2;
+        }
+        backoff = Math.min(backoff, maxBackoffMillis);
+        final long half = backoff / 2;
+        return half + (long) (jitter * (backoff - half));
+    }
+
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private long initialBackoffMillis = 250;
+        private long maxBackoffMillis = 2_000;
+        private long deadlineMillis = 10_000;
+
+        /**
+         * @param maxAttempts the number of attempts including the first one, 1 disables retries
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param initialBackoffMillis the delay before the first retry, doubled for every retry
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setInitialBackoffMillis(long initialBackoffMillis) {
+            this.initialBackoffMillis = initialBackoffMillis;
+            return this;
+        }
+
+        /**
+         * @param maxBackoffMillis the upper bound of the delay between two attempts
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setMaxBackoffMillis(long maxBackoffMillis) {
+            this.maxBackoffMillis = maxBackoffMillis;
+            return this;
+        }
+
+        /**
+         * @param deadlineMillis the time since the first attempt after which no retry is started
+         * @return The same builder, for easy chaining.
+         */
+        public Builder setDeadlineMillis(long deadlineMillis) {
+            this.deadlineMillis = deadlineMillis;
+            return this;
+        }
+
+        /**
+         * Construct this builder into a concrete {@code AffirmRetryPolicy} instance.
+         *
+         * @return A constructed {@code AffirmRetryPolicy} object.
+         */
+        @NonNull
+        public AffirmRetryPolicy build() {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("maxAttempts must be at least 1");
+            }
+            if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+                throw new IllegalArgumentException(
+                        "backoff must be positive and initial backoff at most the max backoff");
+            }
+            if (deadlineMillis < 0) {
+                throw new IllegalArgumentException("deadlineMillis must be positive");
+            }
+            return new AffirmRetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.tracing.Trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named trace sections for Perfetto / systrace, enabled with
+ * {@link Affirm.Configuration.Builder#setTracingEnabled(boolean)}. When tracing is disabled every
+ * method returns right away.
+ */
+final class AffirmTrace {
+
+    static final String INITIALIZE = "Affirm.initialize";
+    static final String GSON = "Affirm.gson";
+    static final String REST_CLIENT = "Affirm.restClient";
+    static final String PROMO_REQUEST = "Affirm.PromoRequest";
+    static final String CHECKOUT_REQUEST = "Affirm.CheckoutRequest";
+    static final String CHECKOUT_BODY = "Affirm.CheckoutRequest.body";
+    static final String CREATE_SPANNABLE = "Affirm.createSpannableForText";
+    static final String INITIAL_HTML = "Affirm.initialHtml";
+    static final String WEBVIEW_INFLATE = "Affirm.AffirmWebView.inflate";
+    static final String WEBVIEW_SETUP = "Affirm.AffirmWebView.setup";
+
+    private static final AtomicInteger COOKIES = new AtomicInteger();
+
+    private static volatile boolean enabled;
+
+    private AffirmTrace() {
+    }
+
+    static void setEnabled(boolean enabled) {
+        AffirmTrace.enabled = enabled;
+    }
+
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Begin a section on the current thread, must be ended with {@link #endSection()} on the
+     * same thread.
+     */
+    static void beginSection(@NonNull String name) {
+        if (enabled) {
+            Trace.beginSection(name);
+        }
+    }
+
+    static void endSection() {
+        if (enabled) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Begin a section that can end on another thread.
+     *
+     * @param requestId the correlation id of the request, used as the trace cookie when set
+     * @return The cookie to pass to {@link #endAsyncSection(String, int)}
+     */
+    static int beginAsyncSection(@NonNull String name, @Nullable String requestId) {
+        if (!enabled) {
+            return 0;
+        }
+        final int cookie = requestId != null ? requestId.hashCode() : COOKIES.incrementAndGet();
+        Trace.beginAsyncSection(name, cookie);
+        return cookie;
+    }
+
+    static void endAsyncSection(@NonNull String name, int cookie) {
+        if (enabled) {
+            Trace.endAsyncSection(name, cookie);
+        }
+    }
+}
@@ -15,7 +15,6 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 
 import androidx.annotation.NonNull;
@@ -91,23 +90,27 @@ public class AffirmTrackView extends FrameLayout
     }
 
     private String initialHtml() {
-        String html;
+        AffirmTrace.beginSection(AffirmTrace.INITIAL_HTML);
         try {
-            final InputStream ins =
-                    getResources().openRawResource(R.raw.affirm_track_order_confirmed);
-            html = AffirmUtils.readInputStream(ins);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-        final String fullPath = HTTPS_PROTOCOL + AffirmPlugins.get().baseJsUrl() + JS_PATH;
+            String html;
+            try {
+                html = AffirmUtils.readTemplate(getResources(),
+                        R.raw.affirm_track_order_confirmed);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            final String fullPath = HTTPS_PROTOCOL + AffirmPlugins.get().baseJsUrl() + JS_PATH;
 
-        final HashMap<String, String> map = new HashMap<>();
+            final HashMap<String, String> map = new HashMap<>();
 
-        map.put(API_KEY, AffirmPlugins.get().publicKey());
-        map.put(JAVASCRIPT, fullPath);
-        map.put(TRACK_ORDER_OBJECT, buildOrderObject().toString());
-        map.put(TRACK_PRODUCT_OBJECT, buildProductObject().toString());
-        return AffirmUtils.replacePlaceholders(html, map);
+            map.put(API_KEY, AffirmPlugins.get().publicKey());
+            map.put(JAVASCRIPT, fullPath);
+            map.put(TRACK_ORDER_OBJECT, buildOrderObject().toString());
+            map.put(TRACK_PRODUCT_OBJECT, buildProductObject().toString());
+            return AffirmUtils.replacePlaceholders(html, map);
+        } finally {
+            AffirmTrace.endSection();
+        }
     }
 
     private JsonObject buildOrderObject() {
@@ -0,0 +1,197 @@
+package com.affirm.android;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CANCELLATION_URL;
+import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CONFIRMATION_URL;
+import static com.affirm.android.AffirmConstants.CUSTOM_TABS_CANCELLATION_PATH;
+import static com.affirm.android.AffirmConstants.CUSTOM_TABS_CONFIRMATION_PATH;
+import static com.affirm.android.AffirmConstants.HTTPS_PROTOCOL;
+import static com.affirm.android.AffirmConstants.REFERRING_URL;
+
+/**
+ * Matches the urls loaded by the WebViews to the callbacks of the SDK, by scheme, host & path.
+ * The urls are looked up by host, so each of the dozens of resources of a page costs a map lookup,
+ * without parsing the url into a {@link Uri} or building the strings of the callback urls.
+ * The table is built once per configuration, see {@link AffirmPlugins#urlRouter()}.
+ */
+final class AffirmUrlRouter {
+
+    enum Route {
+        NONE,
+        CHECKOUT_CONFIRMATION,
+        CHECKOUT_CANCELLATION,
+        PREQUAL_CONFIRMATION,
+        INVALID_CHECKOUT
+    }
+
+    // The routes of the callback urls, which don't depend on the configuration
+    static final AffirmUrlRouter CALLBACKS = callbacks().build();
+
+    private static final class Rule {
+        @NonNull
+        final String scheme;
+        @NonNull
+        final String path;
+        final boolean prefix;
+        @NonNull
+        final Route route;
+
+        Rule(@NonNull String scheme, @NonNull String path, boolean prefix, @NonNull Route route) {
+            this.scheme = scheme;
+            this.path = path;
+            this.prefix = prefix;
+            this.route = route;
+        }
+
+        boolean matches(@NonNull String scheme, @NonNull String url, int pathStart,
+                        int pathEnd) {
+            final int length = pathEnd - pathStart;
+            if (prefix ? length < path.length() : length != path.length()) {
+                return false;
+            }
+            return this.scheme.equalsIgnoreCase(scheme)
+                    && url.regionMatches(pathStart, path, 0, path.length());
+        }
+    }
+
+    // Rules by lower case host
+    private final Map<String, List<Rule>> rules;
+
+    private AffirmUrlRouter(@NonNull Map<String, List<Rule>> rules) {
+        this.rules = rules;
+    }
+
+    @NonNull
+    static Builder callbacks() {
+        return new Builder()
+                .add(AFFIRM_CHECKOUT_CONFIRMATION_URL, true, Route.CHECKOUT_CONFIRMATION)
+                .add(AFFIRM_CHECKOUT_CANCELLATION_URL, true, Route.CHECKOUT_CANCELLATION)
+                .add(REFERRING_URL, false, Route.PREQUAL_CONFIRMATION);
+    }
+
+    /**
+     * @return The routes of the callback urls & of the urls of the environment
+     */
+    @NonNull
+    static AffirmUrlRouter forEnvironment(@NonNull String invalidCheckoutRedirectUrl) {
+        return callbacks()
+                .add(HTTPS_PROTOCOL + invalidCheckoutRedirectUrl, false, Route.INVALID_CHECKOUT)
+                .build();
+    }
+
+    /**
+     * @return The routes of the redirects of a checkout shown in a Custom Tab, only the urls of
+     * this redirect scheme match
+     */
+    @NonNull
+    static AffirmUrlRouter forRedirectScheme(@NonNull String redirectScheme) {
+        return new Builder()
+                .add(redirectScheme + CUSTOM_TABS_CONFIRMATION_PATH, true,
+                        Route.CHECKOUT_CONFIRMATION)
+                .add(redirectScheme + CUSTOM_TABS_CANCELLATION_PATH, true,
+                        Route.CHECKOUT_CANCELLATION)
+                .build();
+    }
+
+    @NonNull
+    Route route(@Nullable String url) {
+        if (url == null) {
+            return Route.NONE;
+        }
+        final int schemeEnd = url.indexOf("://");
+        if (schemeEnd <= 0) {
+            return Route.NONE;
+        }
+        final int hostStart = schemeEnd + 3;
+        int hostEnd = hostStart;
+        while (hostEnd < url.length() && !isHostEnd(url.charAt(hostEnd))) {
+            hostEnd++;
+        }
+        final List<Rule> hostRules = rules.get(
+                url.substring(hostStart, hostEnd).toLowerCase(Locale.US));
+        if (hostRules == null) {
+            return Route.NONE;
+        }
+        int pathEnd = hostEnd;
+        while (pathEnd < url.length() && url.charAt(pathEnd) != '?'
+                && url.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        return route(hostRules, url.substring(0, schemeEnd), url, hostEnd, pathEnd);
+    }
+
+    @NonNull
+    Route route(@Nullable Uri uri) {
+        if (uri == null || uri.getScheme() == null || uri.getHost() == null) {
+            return Route.NONE;
+        }
+        final List<Rule> hostRules = rules.get(uri.getHost().toLowerCase(Locale.US));
+        if (hostRules == null) {
+            return Route.NONE;
+        }
+        final String path = uri.getPath() != null ? uri.getPath() : "";
+        return route(hostRules, uri.getScheme(), path, 0, path.length());
+    }
+
+    @NonNull
+    private static Route route(@NonNull List<Rule> hostRules, @NonNull String scheme,
+                               @NonNull String url, int pathStart, int pathEnd) {
+        for (int i = 0; i < hostRules.size(); i++) {
+            final Rule rule = hostRules.get(i);
+            if (rule.matches(scheme, url, pathStart, pathEnd)) {
+                return rule.route;
+            }
+        }
+        return Route.NONE;
+    }
+
+    private static boolean isHostEnd(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+
+    static final class Builder {
+        private final Map<String, List<Rule>> rules = new HashMap<>();
+
+        /**
+         * @param url    the scheme, host & path of the urls of the route
+         * @param prefix whether the paths starting with the path of the url match too
+         * @return The same builder, for easy chaining.
+         */
+        @NonNull
+        Builder add(@NonNull String url, boolean prefix, @NonNull Route route) {
+            final int schemeEnd = url.indexOf("://");
+            if (schemeEnd <= 0) {
+                throw new IllegalArgumentException("No scheme in " + url);
+            }
+            final int hostStart = schemeEnd + 3;
+            int hostEnd = hostStart;
+            while (hostEnd < url.length() && !isHostEnd(url.charAt(hostEnd))) {
+                hostEnd++;
+            }
+            final String host = url.substring(hostStart, hostEnd).toLowerCase(Locale.US);
+            List<Rule> hostRules = rules.get(host);
+            if (hostRules == null) {
+                hostRules = new ArrayList<>(1);
+                rules.put(host, hostRules);
+            }
+            hostRules.add(new Rule(url.substring(0, schemeEnd), url.substring(hostEnd), prefix,
+                    route));
+            return this;
+        }
+
+        @NonNull
+        AffirmUrlRouter build() {
+            return new AffirmUrlRouter(new HashMap<>(rules));
+        }
+    }
+}
@@ -21,9 +21,11 @@ import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RawRes;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
 
@@ -36,6 +38,14 @@ import static com.affirm.android.AffirmLogoType.AFFIRM_DISPLAY_TYPE_TEXT;
 
 public final class AffirmUtils {
 
+    private static final int[] TEMPLATE_RESOURCES = {
+            R.raw.affirm_modal_template,
+            R.raw.affirm_promo,
+            R.raw.affirm_track_order_confirmed,
+            R.raw.affirm_vcn_checkout
+    };
+    private static final Map<Integer, String> TEMPLATES = new ConcurrentHashMap<>();
+
     private AffirmUtils() {
     }
 
@@ -58,6 +68,38 @@ public final class AffirmUtils {
         return total.toString();
     }
 
+    /**
+     * Read one of the html templates. Templates don't change, so each one is only read once.
+     */
+    @NonNull
+    static String readTemplate(@NonNull Resources resources,
+                               @RawRes int templateRes) throws IOException {
+        String template = TEMPLATES.get(templateRes);
+        if (template == null) {
+            template = readInputStream(resources.openRawResource(templateRes));
+            TEMPLATES.put(templateRes, template);
+        }
+        return template;
+    }
+
+    static void preloadTemplates(@NonNull Resources resources) throws IOException {
+        for (int templateRes : TEMPLATE_RESOURCES) {
+            readTemplate(resources, templateRes);
+        }
+    }
+
+    /**
+     * @return The estimated bytes released
+     */
+    static long clearTemplates() {
+        long bytes = 0;
+        for (String template : TEMPLATES.values()) {
+            bytes += 2L * template.length();
+        }
+        TEMPLATES.clear();
+        return bytes;
+    }
+
     static String replacePlaceholders(@NonNull String text, @NonNull Map<String, String> map) {
         for (Object o : map.entrySet()) {
             Map.Entry pair = (Map.Entry) o;
@@ -137,15 +179,24 @@ public final class AffirmUtils {
             @NonNull AffirmColor affirmColor,
             @NonNull Context context
     ) {
-        Resources resources = context.getResources();
-
-        Drawable logoDrawable = null;
-        if (affirmLogoType != AFFIRM_DISPLAY_TYPE_TEXT) {
-            logoDrawable = resources.getDrawable(
-                    affirmLogoType.getDrawableRes(affirmColor)).mutate();
+        AffirmTrace.beginSection(AffirmTrace.CREATE_SPANNABLE);
+        try {
+            Resources resources = context.getResources();
+            Drawable logoDrawable = getLogoDrawable(affirmLogoType, affirmColor, resources);
+            return getSpannable(template, textSize, logoDrawable, affirmColor, resources);
+        } finally {
+            AffirmTrace.endSection();
         }
+    }
 
-        return getSpannable(template, textSize, logoDrawable, affirmColor, resources);
+    @Nullable
+    static Drawable getLogoDrawable(@NonNull AffirmLogoType affirmLogoType,
+                                    @NonNull AffirmColor affirmColor,
+                                    @NonNull Resources resources) {
+        if (affirmLogoType == AFFIRM_DISPLAY_TYPE_TEXT) {
+            return null;
+        }
+        return resources.getDrawable(affirmLogoType.getDrawableRes(affirmColor)).mutate();
     }
 
     private static SpannableString getSpannable(
@@ -175,7 +226,7 @@ public final class AffirmUtils {
         return spannableString;
     }
 
-    private static ImageSpan getLogoSpan(
+    static ImageSpan getLogoSpan(
             float textSize,
             @NonNull Drawable logoDrawable,
             @NonNull AffirmColor affirmColor,
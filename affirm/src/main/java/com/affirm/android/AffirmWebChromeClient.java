@@ -58,6 +58,9 @@ class AffirmWebChromeClient extends WebChromeClient {
     @Override
     public void onProgressChanged(WebView view, int progress) {
         if (progress > 99) {
+            if (view instanceof AffirmWebView) {
+                ((AffirmWebView) view).onLoadCompleted();
+            }
             callback.chromeLoadCompleted();
         }
     }
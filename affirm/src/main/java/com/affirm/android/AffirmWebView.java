@@ -7,10 +7,18 @@ import android.view.ViewGroup;
 import android.webkit.WebSettings;
 import android.webkit.WebView;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 class AffirmWebView extends WebView {
     private static final String USER_AGENT_PREFIX = "Affirm-SDK:Android-"
             + BuildConfig.VERSION_NAME;
 
+    private long metricsStart = System.nanoTime();
+    @Nullable
+    private String correlationId;
+    private boolean loadCompleted;
+
     public AffirmWebView(Context context) {
         this(context, null);
     }
@@ -19,14 +27,47 @@ class AffirmWebView extends WebView {
     public AffirmWebView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        final String userAgent = USER_AGENT_PREFIX + " " + getSettings().getUserAgentString();
-        getSettings().setUserAgentString(userAgent);
-        clearCache(true);
-        getSettings().setJavaScriptEnabled(true);
-        getSettings().setDomStorageEnabled(true);
-        getSettings().setSupportMultipleWindows(true);
-        getSettings().setCacheMode(WebSettings.LOAD_NO_CACHE);
-        setVerticalScrollBarEnabled(false);
+        AffirmTrace.beginSection(AffirmTrace.WEBVIEW_SETUP);
+        try {
+            final String userAgent = USER_AGENT_PREFIX + " " + getSettings().getUserAgentString();
+            getSettings().setUserAgentString(userAgent);
+            clearCache(true);
+            getSettings().setJavaScriptEnabled(true);
+            getSettings().setDomStorageEnabled(true);
+            getSettings().setSupportMultipleWindows(true);
+            getSettings().setCacheMode(WebSettings.LOAD_NO_CACHE);
+            setVerticalScrollBarEnabled(false);
+        } finally {
+            AffirmTrace.endSection();
+        }
+    }
+
+    /**
+     * Start the metrics of a new screen shown in this WebView
+     *
+     * @param label      the label of the screen metrics
+     * @param startNanos the time to ready of the screen is measured from this time
+     */
+    void startMetrics(@NonNull String label, long startNanos) {
+        correlationId = AffirmMetrics.get().newCorrelationId(label);
+        metricsStart = startNanos;
+        loadCompleted = false;
+    }
+
+    @Nullable
+    String getCorrelationId() {
+        if (correlationId == null) {
+            correlationId = AffirmMetrics.get().newCorrelationId(AffirmMetrics.LABEL_WEBVIEW);
+        }
+        return correlationId;
+    }
+
+    void onLoadCompleted() {
+        if (!loadCompleted) {
+            loadCompleted = true;
+            AffirmMetrics.get().recordSince(AffirmMetric.WEBVIEW_TIME_TO_READY,
+                    getCorrelationId(), metricsStart);
+        }
     }
 
     protected void destroyWebView() {
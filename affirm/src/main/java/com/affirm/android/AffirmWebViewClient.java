@@ -1,6 +1,8 @@
 package com.affirm.android;
 
 import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.net.Uri;
 import android.os.Build;
 import android.webkit.RenderProcessGoneDetail;
 import android.webkit.WebResourceError;
@@ -19,11 +21,27 @@ import static com.affirm.android.AffirmConstants.HTTP;
 abstract class AffirmWebViewClient extends WebViewClient {
 
     private final WebViewClientCallbacks callbacks;
+    @NonNull
+    private final AffirmUrlRouter urlRouter;
+
+    private long pageStartedAt;
 
     abstract boolean hasCallbackUrl(WebView view, String url);
 
     AffirmWebViewClient(@NonNull WebViewClientCallbacks callbacks) {
         this.callbacks = callbacks;
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        this.urlRouter = plugins != null ? plugins.urlRouter() : AffirmUrlRouter.CALLBACKS;
+    }
+
+    @NonNull
+    AffirmUrlRouter.Route route(@Nullable String url) {
+        return urlRouter.route(url);
+    }
+
+    @NonNull
+    AffirmUrlRouter.Route route(@Nullable Uri uri) {
+        return urlRouter.route(uri);
     }
 
     @Override
@@ -38,6 +56,29 @@ abstract class AffirmWebViewClient extends WebViewClient {
         return !url.startsWith(HTTP);
     }
 
+    @Override
+    public void onPageStarted(WebView view, String url, Bitmap favicon) {
+        super.onPageStarted(view, url, favicon);
+        pageStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void onPageFinished(WebView view, String url) {
+        super.onPageFinished(view, url);
+        // The page may have changed the cookies the rest client sends
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        if (plugins != null) {
+            plugins.invalidateCookies();
+        }
+        if (pageStartedAt != 0) {
+            final String correlationId = view instanceof AffirmWebView
+                    ? ((AffirmWebView) view).getCorrelationId() : null;
+            AffirmMetrics.get().recordSince(AffirmMetric.WEBVIEW_PAGE_LOAD, correlationId,
+                    pageStartedAt);
+            pageStartedAt = 0;
+        }
+    }
+
     // This method was deprecated in API level 23
     @SuppressWarnings("deprecation")
     @Override
@@ -0,0 +1,161 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.app.ActivityManager;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the WebViews loaded off-screen until their screen is opened, by key of the page they
+ * loaded. Each one is a whole renderer, so only as many are kept as the device can spare: none on
+ * a low ram device or when the system is low on memory, otherwise the least recently pooled are
+ * destroyed past 1, or 2 with a large heap. Once full, the least recently pooled WebView loads the
+ * page of the next key instead of creating another one. The limit is only measured again after
+ * the system asked the app to trim its memory, see {@link AffirmMemoryManager}.
+ * <p>
+ * Only used on the main thread.
+ */
+final class AffirmWebViewPool {
+
+    private static final int LARGE_MEMORY_CLASS_MB = 256;
+
+    private static final Map<String, AffirmWebView> WEB_VIEWS = new LinkedHashMap<>();
+
+    // How many WebViews can be kept, -1 until it's measured
+    private static int limit = -1;
+
+    private AffirmWebViewPool() {
+    }
+
+    /**
+     * @return A WebView to be loaded off-screen, it's given to an activity with
+     * {@link #attachTo(AffirmWebView, Activity)}
+     */
+    @NonNull
+    static AffirmWebView create(@NonNull Context context) {
+        return new AffirmWebView(new MutableContextWrapper(context.getApplicationContext()));
+    }
+
+    /**
+     * Make the activity the context of a pooled WebView, for its dialogs & intents.
+     */
+    static void attachTo(@NonNull AffirmWebView webView, @NonNull Activity activity) {
+        if (webView.getContext() instanceof MutableContextWrapper) {
+            ((MutableContextWrapper) webView.getContext()).setBaseContext(activity);
+        }
+    }
+
+    /**
+     * @return How many WebViews can be kept
+     */
+    static int limit(@NonNull Context context) {
+        if (limit < 0) {
+            limit = measureLimit(context);
+        }
+        return limit;
+    }
+
+    /**
+     * Measure the limit again on its next use, the memory of the system changed.
+     */
+    static void resetLimit() {
+        limit = -1;
+    }
+
+    private static int measureLimit(@NonNull Context context) {
+        final ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        if (activityManager == null || activityManager.isLowRamDevice()) {
+            return 0;
+        }
+        final ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+        activityManager.getMemoryInfo(memoryInfo);
+        if (memoryInfo.lowMemory) {
+            return 0;
+        }
+        return activityManager.getMemoryClass() >= LARGE_MEMORY_CLASS_MB ? 2 : 1;
+    }
+
+    static boolean contains(@NonNull String key) {
+        return WEB_VIEWS.containsKey(key);
+    }
+
+    static void put(@NonNull Context context, @NonNull String key,
+                    @NonNull AffirmWebView webView) {
+        AffirmMemoryManager.register(context);
+        final AffirmWebView previous = WEB_VIEWS.remove(key);
+        if (previous != null && previous != webView) {
+            previous.destroyWebView();
+        }
+        WEB_VIEWS.put(key, webView);
+        trimToSize(limit(context));
+    }
+
+    /**
+     * @return The least recently pooled WebView if the pool is full, which is no longer pooled, to
+     * load the page of another key in; or null if another WebView can be created
+     */
+    @Nullable
+    static AffirmWebView reuse(@NonNull Context context) {
+        if (WEB_VIEWS.isEmpty() || WEB_VIEWS.size() < limit(context)) {
+            return null;
+        }
+        final Iterator<AffirmWebView> iterator = WEB_VIEWS.values().iterator();
+        final AffirmWebView webView = iterator.next();
+        iterator.remove();
+        return webView;
+    }
+
+    /**
+     * @return The WebView of the key, which is no longer pooled, or null
+     */
+    @Nullable
+    static AffirmWebView take(@NonNull String key) {
+        final AffirmWebView webView = WEB_VIEWS.remove(key);
+        final AffirmMetrics metrics = AffirmMetrics.get();
+        metrics.count(webView != null ? AffirmMetric.WEBVIEW_PREFETCH_HIT
+                        : AffirmMetric.WEBVIEW_PREFETCH_MISS,
+                metrics.newCorrelationId(AffirmMetrics.LABEL_WEBVIEW), 1);
+        return webView;
+    }
+
+    /**
+     * Destroy the WebView of the key, if it's still pooled.
+     */
+    static void remove(@NonNull String key, @NonNull AffirmWebView webView) {
+        if (WEB_VIEWS.get(key) == webView) {
+            WEB_VIEWS.remove(key);
+            webView.destroyWebView();
+        }
+    }
+
+    /**
+     * Destroy the least recently pooled WebViews past the size.
+     *
+     * @return How many WebViews were destroyed
+     */
+    static int trimToSize(int size) {
+        int destroyed = 0;
+        final Iterator<AffirmWebView> iterator = WEB_VIEWS.values().iterator();
+        while (WEB_VIEWS.size() > Math.max(size, 0) && iterator.hasNext()) {
+            final AffirmWebView webView = iterator.next();
+            iterator.remove();
+            webView.destroyWebView();
+            destroyed++;
+        }
+        return destroyed;
+    }
+
+    @VisibleForTesting
+    static int size() {
+        return WEB_VIEWS.size();
+    }
+}
@@ -14,7 +14,7 @@ import androidx.fragment.app.Fragment;
 
 import static com.affirm.android.AffirmConstants.CHECKOUT_CAAS_EXTRA;
 import static com.affirm.android.AffirmConstants.CHECKOUT_CARD_AUTH_WINDOW;
-import static com.affirm.android.AffirmConstants.CHECKOUT_EXTRA;
+import static com.affirm.android.AffirmConstants.CHECKOUT_SESSION_ID;
 import static com.affirm.android.AffirmConstants.CHECKOUT_TOKEN;
 import static com.affirm.android.AffirmTracker.TrackingEvent.CHECKOUT_CREATION_FAIL;
 import static com.affirm.android.AffirmTracker.TrackingEvent.CHECKOUT_CREATION_SUCCESS;
@@ -46,7 +46,7 @@ public class CheckoutActivity extends CheckoutBaseActivity
             @Nullable String caas,
             int cardAuthWindow) {
         final Intent intent = new Intent(originalActivity, CheckoutActivity.class);
-        intent.putExtra(CHECKOUT_EXTRA, checkout);
+        intent.putExtra(CHECKOUT_SESSION_ID, CheckoutSessionStore.put(checkout));
         intent.putExtra(CHECKOUT_CAAS_EXTRA, caas);
         intent.putExtra(CHECKOUT_CARD_AUTH_WINDOW, cardAuthWindow);
         return intent;
@@ -64,6 +64,12 @@ public class CheckoutActivity extends CheckoutBaseActivity
         return false;
     }
 
+    @NonNull
+    @Override
+    String metricsLabel() {
+        return "checkout_screen";
+    }
+
     @Override
     InnerCheckoutCallback getInnerCheckoutCallback() {
         return new InnerCheckoutCallback() {
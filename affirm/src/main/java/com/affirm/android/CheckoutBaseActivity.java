@@ -12,11 +12,14 @@ import static com.affirm.android.Affirm.RESULT_ERROR;
 import static com.affirm.android.AffirmConstants.CHECKOUT_CAAS_EXTRA;
 import static com.affirm.android.AffirmConstants.CHECKOUT_CARD_AUTH_WINDOW;
 import static com.affirm.android.AffirmConstants.CHECKOUT_ERROR;
-import static com.affirm.android.AffirmConstants.CHECKOUT_EXTRA;
+import static com.affirm.android.AffirmConstants.CHECKOUT_SESSION_ID;
+import static com.affirm.android.AffirmConstants.CHECKOUT_SNAPSHOT;
 
 abstract class CheckoutBaseActivity extends AffirmActivity {
 
-    private CheckoutRequest checkoutRequest;
+    private AffirmRequest checkoutRequest;
+
+    private String sessionId;
 
     private Checkout checkout;
 
@@ -36,11 +39,18 @@ abstract class CheckoutBaseActivity extends AffirmActivity {
     @Override
     void initData(@Nullable Bundle savedInstanceState) {
         if (savedInstanceState != null) {
-            checkout = savedInstanceState.getParcelable(CHECKOUT_EXTRA);
+            sessionId = savedInstanceState.getString(CHECKOUT_SESSION_ID);
+            checkout = CheckoutSessionStore.get(sessionId);
+            if (checkout == null && sessionId != null) {
+                // The process was restarted, the checkout is only left in the snapshot
+                checkout = CheckoutSessionStore.restore(sessionId,
+                        savedInstanceState.getByteArray(CHECKOUT_SNAPSHOT));
+            }
             caas = savedInstanceState.getString(CHECKOUT_CAAS_EXTRA);
             cardAuthWindow = savedInstanceState.getInt(CHECKOUT_CARD_AUTH_WINDOW, -1);
         } else {
-            checkout = getIntent().getParcelableExtra(CHECKOUT_EXTRA);
+            sessionId = getIntent().getStringExtra(CHECKOUT_SESSION_ID);
+            checkout = CheckoutSessionStore.get(sessionId);
             caas = getIntent().getStringExtra(CHECKOUT_CAAS_EXTRA);
             cardAuthWindow = getIntent().getIntExtra(CHECKOUT_CARD_AUTH_WINDOW, -1);
         }
@@ -50,20 +60,37 @@ abstract class CheckoutBaseActivity extends AffirmActivity {
     protected void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
 
-        outState.putParcelable(CHECKOUT_EXTRA, checkout);
+        outState.putString(CHECKOUT_SESSION_ID, sessionId);
+        if (sessionId != null) {
+            outState.putByteArray(CHECKOUT_SNAPSHOT, CheckoutSessionStore.snapshot(sessionId));
+        }
         outState.putString(CHECKOUT_CAAS_EXTRA, caas);
+        outState.putInt(CHECKOUT_CARD_AUTH_WINDOW, cardAuthWindow);
     }
 
     @Override
     void onAttached() {
-        checkoutRequest = new CheckoutRequest(checkout, getInnerCheckoutCallback(), caas, useVCN(),
-                cardAuthWindow);
+        if (checkout == null) {
+            finishWithError(new IllegalStateException("The checkout session is gone"));
+            return;
+        }
+        checkoutRequest = CheckoutPreparer.take(checkout, caas, cardAuthWindow, useVCN(), null,
+                getInnerCheckoutCallback());
+        if (checkoutRequest == null) {
+            checkoutRequest = new CheckoutRequest(checkout, getInnerCheckoutCallback(), caas,
+                    useVCN(), cardAuthWindow);
+        }
         checkoutRequest.create();
     }
 
     @Override
     protected void onDestroy() {
-        checkoutRequest.cancel();
+        if (checkoutRequest != null) {
+            checkoutRequest.cancel();
+        }
+        if (isFinishing()) {
+            CheckoutSessionStore.remove(sessionId);
+        }
         super.onDestroy();
     }
 
@@ -0,0 +1,210 @@
+package com.affirm.android;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.affirm.android.exception.AffirmException;
+import com.affirm.android.model.Checkout;
+import com.affirm.android.model.CheckoutResponse;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Creates the checkout of a cart before the user taps to pay with Affirm, see
+ * {@link Affirm#prepareCheckout(Checkout)}. Only the last prepared cart is kept: preparing another
+ * one, or starting a checkout that isn't equal to it, cancels it. A checkout screen takes the
+ * prepared checkout over while it's being created, or once created if it's not older than the
+ * ttl of the configuration.
+ * <p>
+ * Only used on the main thread.
+ */
+final class CheckoutPreparer {
+
+    interface Clock {
+        long elapsedMillis();
+    }
+
+    @Nullable
+    private static Prepared prepared;
+
+    @VisibleForTesting
+    static Clock clock = SystemClock::elapsedRealtime;
+    @VisibleForTesting
+    @Nullable
+    static OkHttpClient okHttpClient;
+
+    private CheckoutPreparer() {
+    }
+
+    static void prepare(@NonNull Checkout checkout, @Nullable String caas, int cardAuthWindow,
+                        boolean useVCN) {
+        // A checkout shown in a Custom Tab redirects to the scheme of the app, it's only known
+        // without a context once the browser is bound
+        prepare(checkout, caas, cardAuthWindow, useVCN,
+                useVCN ? null : AffirmCustomTabs.preparedRedirectScheme());
+    }
+
+    static void prepare(@NonNull Checkout checkout, @Nullable String caas, int cardAuthWindow,
+                        boolean useVCN, @Nullable String redirectScheme) {
+        if (prepared != null) {
+            if (prepared.matches(checkout, caas, cardAuthWindow, useVCN, redirectScheme)
+                    && !prepared.isExpired()) {
+                return;
+            }
+            prepared.request.cancel();
+        }
+        prepared = new Prepared(checkout, caas, cardAuthWindow, useVCN, redirectScheme);
+        prepared.request.create();
+    }
+
+    /**
+     * @return The prepared checkout creation of this checkout, which calls back once
+     * {@link AffirmRequest#create()} is called, or null when there is none
+     */
+    @Nullable
+    static Taken take(@NonNull Checkout checkout,
+                              @Nullable String caas,
+                              int cardAuthWindow,
+                              boolean useVCN,
+                              @Nullable String redirectScheme,
+                              @NonNull InnerCheckoutCallback callback) {
+        final Prepared taken = prepared;
+        prepared = null;
+        if (taken == null) {
+            return null;
+        }
+        final AffirmMetrics metrics = AffirmMetrics.get();
+        final String correlationId = metrics.newCorrelationId(AffirmMetrics.LABEL_CHECKOUT);
+        if (!taken.matches(checkout, caas, cardAuthWindow, useVCN, redirectScheme)
+                || taken.isExpired()) {
+            taken.request.cancel();
+            metrics.count(AffirmMetric.CHECKOUT_PREPARED_MISS, correlationId, 1);
+            return null;
+        }
+        metrics.count(AffirmMetric.CHECKOUT_PREPARED_HIT, correlationId, 1);
+        return new Taken(taken, callback);
+    }
+
+    static void cancel() {
+        if (prepared != null) {
+            prepared.request.cancel();
+            prepared = null;
+        }
+    }
+
+    static final class Taken implements AffirmRequest {
+        @NonNull
+        private final Prepared prepared;
+        @NonNull
+        private final InnerCheckoutCallback callback;
+
+        Taken(@NonNull Prepared prepared, @NonNull InnerCheckoutCallback callback) {
+            this.prepared = prepared;
+            this.callback = callback;
+        }
+
+        /**
+         * @return The state of the redirects of the prepared checkout, see
+         * {@link CheckoutRequest#redirectState()}
+         */
+        @Nullable
+        String redirectState() {
+            return prepared.request.redirectState();
+        }
+
+        @Override
+        public void create() {
+            prepared.setCallback(callback);
+        }
+
+        @Override
+        public void cancel() {
+            prepared.setCallback(null);
+            prepared.request.cancel();
+        }
+    }
+
+    private static final class Prepared implements InnerCheckoutCallback {
+        @NonNull
+        private final Checkout checkout;
+        @Nullable
+        private final String caas;
+        private final int cardAuthWindow;
+        private final boolean useVCN;
+        @Nullable
+        private final String redirectScheme;
+        @NonNull
+        final CheckoutRequest request;
+
+        private final long createdAt = clock.elapsedMillis();
+        @Nullable
+        private InnerCheckoutCallback callback;
+        @Nullable
+        private CheckoutResponse response;
+        @Nullable
+        private AffirmException error;
+
+        Prepared(@NonNull Checkout checkout, @Nullable String caas, int cardAuthWindow,
+                 boolean useVCN, @Nullable String redirectScheme) {
+            this.checkout = checkout;
+            this.caas = caas;
+            this.cardAuthWindow = cardAuthWindow;
+            this.useVCN = useVCN;
+            this.redirectScheme = redirectScheme;
+            this.request = new CheckoutRequest(okHttpClient, checkout, this, caas, useVCN,
+                    cardAuthWindow, redirectScheme);
+        }
+
+        boolean matches(@NonNull Checkout checkout, @Nullable String caas, int cardAuthWindow,
+                        boolean useVCN, @Nullable String redirectScheme) {
+            return this.useVCN == useVCN
+                    && this.cardAuthWindow == cardAuthWindow
+                    && (this.caas != null ? this.caas.equals(caas) : caas == null)
+                    && (this.redirectScheme != null
+                    ? this.redirectScheme.equals(redirectScheme) : redirectScheme == null)
+                    && this.checkout.equals(checkout);
+        }
+
+        boolean isExpired() {
+            return error != null || clock.elapsedMillis() - createdAt
+                    > AffirmPlugins.get().preparedCheckoutTtlMillis();
+        }
+
+        void setCallback(@Nullable InnerCheckoutCallback callback) {
+            this.callback = callback;
+            if (callback == null) {
+                return;
+            }
+            if (response != null) {
+                callback.onSuccess(response);
+            } else if (error != null) {
+                callback.onError(error);
+            }
+        }
+
+        @Override
+        public void onSuccess(@NonNull CheckoutResponse response) {
+            if (redirectScheme != null) {
+                AffirmCustomTabs.mayLaunchUrl(response.redirectUrl());
+            }
+            if (callback != null) {
+                callback.onSuccess(response);
+            } else {
+                this.response = response;
+            }
+        }
+
+        @Override
+        public void onError(@NonNull AffirmException exception) {
+            if (callback != null) {
+                callback.onError(exception);
+            } else {
+                // The checkout screen creates the checkout again
+                this.error = exception;
+            }
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.affirm.android;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.affirm.android.exception.AffirmException;
+import com.affirm.android.exception.InvalidRequestException;
 import com.affirm.android.model.Checkout;
 import com.affirm.android.model.CheckoutResponse;
 import com.affirm.android.model.Merchant;
@@ -14,6 +18,8 @@ import com.google.gson.JsonParser;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
+
 import okhttp3.Call;
 import okhttp3.OkHttpClient;
 
@@ -23,6 +29,9 @@ import static com.affirm.android.AffirmConstants.API_VERSION_KEY;
 import static com.affirm.android.AffirmConstants.API_VERSION_VALUE;
 import static com.affirm.android.AffirmConstants.CHECKOUT;
 import static com.affirm.android.AffirmConstants.CHECKOUT_PATH;
+import static com.affirm.android.AffirmConstants.CUSTOM_TABS_CANCELLATION_PATH;
+import static com.affirm.android.AffirmConstants.CUSTOM_TABS_CONFIRMATION_PATH;
+import static com.affirm.android.AffirmConstants.CUSTOM_TABS_REDIRECT_STATE;
 import static com.affirm.android.AffirmConstants.MERCHANT;
 import static com.affirm.android.AffirmConstants.METADATA;
 import static com.affirm.android.AffirmConstants.PLATFORM_AFFIRM_KEY;
@@ -44,11 +53,19 @@ class CheckoutRequest implements AffirmRequest {
     @Nullable
     private final String caas;
     private final int cardAuthWindow;
+    // The scheme of the redirects of a checkout shown in a Custom Tab
+    @Nullable
+    private final String redirectScheme;
+    // The random state of these redirects, a redirect without it isn't from this checkout
+    @Nullable
+    private final String redirectState;
 
     private Call checkoutCall;
 
+    // Bumped by every create & cancel, a send deferred until Affirm is ready is dropped if stale
+    private int generation;
+
     private final JsonParser jsonParser = new JsonParser();
-    private final Gson gson = AffirmPlugins.get().gson();
 
     CheckoutRequest(@NonNull Checkout checkout,
                     @Nullable InnerCheckoutCallback callback, @Nullable String caas, boolean useVCN,
@@ -60,37 +77,113 @@ class CheckoutRequest implements AffirmRequest {
     CheckoutRequest(@Nullable OkHttpClient okHttpClient, @NonNull Checkout checkout,
                     @Nullable InnerCheckoutCallback callback, @Nullable String caas, boolean useVCN,
                     int cardAuthWindow) {
+        this(okHttpClient, checkout, callback, caas, useVCN, cardAuthWindow, null);
+    }
+
+    CheckoutRequest(@Nullable OkHttpClient okHttpClient, @NonNull Checkout checkout,
+                    @Nullable InnerCheckoutCallback callback, @Nullable String caas, boolean useVCN,
+                    int cardAuthWindow, @Nullable String redirectScheme) {
         this.okHttpClient = okHttpClient;
         this.checkout = checkout;
         this.checkoutCallback = callback;
         this.caas = caas;
         this.useVCN = useVCN;
         this.cardAuthWindow = cardAuthWindow;
+        this.redirectScheme = redirectScheme;
+        this.redirectState = redirectScheme != null ? UUID.randomUUID().toString() : null;
+    }
+
+    /**
+     * @return The state of the redirects of a checkout shown in a Custom Tab, or null when it's
+     * shown in a WebView
+     */
+    @Nullable
+    String redirectState() {
+        return redirectState;
+    }
+
+    @NonNull
+    private String redirectUrl(@NonNull String path) {
+        return redirectScheme + path + "?" + CUSTOM_TABS_REDIRECT_STATE + "=" + redirectState;
     }
 
     @Override
     public void create() {
-        if (checkoutCall != null) {
-            checkoutCall.cancel();
+        final int sendGeneration;
+        synchronized (this) {
+            if (checkoutCall != null) {
+                checkoutCall.cancel();
+                checkoutCall = null;
+            }
+            sendGeneration = ++generation;
         }
-        checkoutCall = AffirmClient.send(okHttpClient, new AffirmCheckoutRequest(),
+        AffirmPlugins.get().whenReady(() -> AffirmPlugins.get().backgroundExecutor()
+                .execute(() -> prepare(sendGeneration)));
+    }
+
+    /**
+     * Validate the checkout & build its payload on the background thread, a big cart makes
+     * both slow.
+     */
+    private void prepare(int sendGeneration) {
+        synchronized (this) {
+            if (sendGeneration != generation) {
+                return;
+            }
+        }
+        final JsonObject body;
+        try {
+            CheckoutValidator.validate(checkout);
+            body = buildBody();
+        } catch (InvalidRequestException e) {
+            new Handler(Looper.getMainLooper()).post(() -> {
+                synchronized (this) {
+                    if (sendGeneration != generation) {
+                        return;
+                    }
+                }
+                handleErrorResponse(e);
+            });
+            return;
+        }
+        send(sendGeneration, body);
+    }
+
+    private synchronized void send(int sendGeneration, @NonNull JsonObject body) {
+        if (sendGeneration != generation) {
+            return;
+        }
+        final AffirmMetrics metrics = AffirmMetrics.get();
+        final String correlationId = metrics.newCorrelationId(AffirmMetrics.LABEL_CHECKOUT);
+        final long start = System.nanoTime();
+        final int traceCookie =
+                AffirmTrace.beginAsyncSection(AffirmTrace.CHECKOUT_REQUEST, correlationId);
+        // One key per checkout creation, shared by its retries
+        final String idempotencyKey = UUID.randomUUID().toString();
+        checkoutCall = AffirmClient.send(okHttpClient, new AffirmCheckoutRequest(body),
+                correlationId, idempotencyKey, AffirmPlugins.get().checkoutTimeoutMillis(),
                 new AffirmClient.AffirmListener<CheckoutResponse>() {
                     @Override
                     public void onSuccess(CheckoutResponse response) {
+                        metrics.recordSince(AffirmMetric.REQUEST_DURATION, correlationId, start);
                         if (checkoutCallback != null) {
                             checkoutCallback.onSuccess(response);
                         }
+                        AffirmTrace.endAsyncSection(AffirmTrace.CHECKOUT_REQUEST, traceCookie);
                     }
 
                     @Override
                     public void onFailure(AffirmException exception) {
+                        metrics.recordSince(AffirmMetric.REQUEST_DURATION, correlationId, start);
                         handleErrorResponse(exception);
+                        AffirmTrace.endAsyncSection(AffirmTrace.CHECKOUT_REQUEST, traceCookie);
                     }
                 });
     }
 
     @Override
-    public void cancel() {
+    public synchronized void cancel() {
+        generation++;
         if (checkoutCall != null) {
             checkoutCall.cancel();
             checkoutCall = null;
@@ -106,29 +199,18 @@ class CheckoutRequest implements AffirmRequest {
     }
 
     private JsonObject parseToJsonObject(Object object) {
+        // Gson is looked up on use, it may still be warming up when the request is created
+        final Gson gson = AffirmPlugins.get().gson();
         return jsonParser.parse(gson.toJson(object)).getAsJsonObject();
     }
 
-
-    class AffirmCheckoutRequest implements AffirmClient.AffirmApiRequest {
-
-        @NotNull
-        @Override
-        public String url() {
-            return AffirmHttpClient.getProtocol()
-                    + AffirmPlugins.get().baseUrl()
-                    + CHECKOUT_PATH;
-        }
-
-        @NotNull
-        @Override
-        public AffirmHttpRequest.Method method() {
-            return AffirmHttpRequest.Method.POST;
-        }
-
-        @Nullable
-        @Override
-        public JsonObject body() {
+    /**
+     * @return The payload of the checkout creation, it's slow to build for a big cart
+     */
+    @NonNull
+    JsonObject buildBody() {
+        AffirmTrace.beginSection(AffirmTrace.CHECKOUT_BODY);
+        try {
             Merchant merchant;
             Integer authWindow = cardAuthWindow >= 0 ? cardAuthWindow : null;
             if (useVCN) {
@@ -142,8 +224,12 @@ class CheckoutRequest implements AffirmRequest {
             } else {
                 merchant = Merchant.builder()
                         .setPublicApiKey(AffirmPlugins.get().publicKey())
-                        .setConfirmationUrl(AFFIRM_CHECKOUT_CONFIRMATION_URL)
-                        .setCancelUrl(AFFIRM_CHECKOUT_CANCELLATION_URL)
+                        .setConfirmationUrl(redirectScheme != null
+                                ? redirectUrl(CUSTOM_TABS_CONFIRMATION_PATH)
+                                : AFFIRM_CHECKOUT_CONFIRMATION_URL)
+                        .setCancelUrl(redirectScheme != null
+                                ? redirectUrl(CUSTOM_TABS_CANCELLATION_PATH)
+                                : AFFIRM_CHECKOUT_CANCELLATION_URL)
                         .setName(AffirmPlugins.get().merchantName())
                         .setCaas(caas)
                         .setCardAuthWindow(authWindow)
@@ -169,6 +255,38 @@ class CheckoutRequest implements AffirmRequest {
             final JsonObject jsonRequest = new JsonObject();
             jsonRequest.add(CHECKOUT, checkoutJson);
             return jsonRequest;
+        } finally {
+            AffirmTrace.endSection();
+        }
+    }
+
+    static class AffirmCheckoutRequest implements AffirmClient.AffirmApiRequest {
+
+        @NonNull
+        private final JsonObject body;
+
+        AffirmCheckoutRequest(@NonNull JsonObject body) {
+            this.body = body;
+        }
+
+        @NotNull
+        @Override
+        public String url() {
+            return AffirmHttpClient.getProtocol()
+                    + AffirmPlugins.get().baseUrl()
+                    + CHECKOUT_PATH;
+        }
+
+        @NotNull
+        @Override
+        public AffirmHttpRequest.Method method() {
+            return AffirmHttpRequest.Method.POST;
+        }
+
+        @Nullable
+        @Override
+        public JsonObject body() {
+            return body;
         }
     }
 }
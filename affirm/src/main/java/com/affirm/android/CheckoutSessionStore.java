@@ -0,0 +1,177 @@
+package com.affirm.android;
+
+import android.os.Parcel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.affirm.android.model.Checkout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the checkouts being shown in this process, so only the id of their session goes through
+ * the Intent instead of the whole cart. A compressed snapshot of the checkout is made on a low
+ * priority thread once its session is put, and a checkout screen saves it to be restored after
+ * a process death, without parceling the cart on the main thread. Only the last few sessions are
+ * kept, in case their screen was never started.
+ */
+final class CheckoutSessionStore {
+
+    // A few checkout screens may be stacked, older sessions are of screens that never started
+    private static final int MAX_SESSIONS = 8;
+
+    private static final Map<String, Session> SESSIONS =
+            new LinkedHashMap<String, Session>(MAX_SESSIONS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                    return size() > MAX_SESSIONS;
+                }
+            };
+
+    private static final class Session {
+        @NonNull
+        final Checkout checkout;
+        // Null until it's made on the idle thread
+        @Nullable
+        volatile byte[] snapshot;
+
+        Session(@NonNull Checkout checkout, @Nullable byte[] snapshot) {
+            this.checkout = checkout;
+            this.snapshot = snapshot;
+        }
+
+        void takeSnapshot() {
+            try {
+                snapshot = compress(checkout);
+            } catch (IOException e) {
+                AffirmLog.w("Failed to snapshot the checkout: " + e.toString());
+            }
+        }
+    }
+
+    private CheckoutSessionStore() {
+    }
+
+    /**
+     * @return The id of the new session of the checkout
+     */
+    @NonNull
+    static String put(@NonNull Checkout checkout) {
+        final String id = UUID.randomUUID().toString();
+        final Session session = new Session(checkout, null);
+        synchronized (SESSIONS) {
+            SESSIONS.put(id, session);
+        }
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        if (plugins != null) {
+            plugins.idleExecutor().execute(session::takeSnapshot);
+        }
+        return id;
+    }
+
+    @Nullable
+    static Checkout get(@Nullable String id) {
+        if (id == null) {
+            return null;
+        }
+        synchronized (SESSIONS) {
+            final Session session = SESSIONS.get(id);
+            return session != null ? session.checkout : null;
+        }
+    }
+
+    static void remove(@Nullable String id) {
+        if (id == null) {
+            return;
+        }
+        synchronized (SESSIONS) {
+            SESSIONS.remove(id);
+        }
+    }
+
+    /**
+     * @return The snapshot of the checkout of the session, to be saved with the screen state, or
+     * null if it's not made yet
+     */
+    @Nullable
+    static byte[] snapshot(@NonNull String id) {
+        final Session session;
+        synchronized (SESSIONS) {
+            session = SESSIONS.get(id);
+        }
+        return session != null ? session.snapshot : null;
+    }
+
+    /**
+     * Put the checkout of a snapshot back under its session id, after the process was restarted.
+     *
+     * @return The checkout, null if it can't be read
+     */
+    @Nullable
+    static Checkout restore(@NonNull String id, @Nullable byte[] snapshot) {
+        if (snapshot == null) {
+            return null;
+        }
+        final Checkout checkout;
+        try {
+            checkout = decompress(snapshot);
+        } catch (IOException | RuntimeException e) {
+            AffirmLog.w("Failed to restore the checkout: " + e.toString());
+            return null;
+        }
+        if (checkout != null) {
+            synchronized (SESSIONS) {
+                SESSIONS.put(id, new Session(checkout, snapshot));
+            }
+        }
+        return checkout;
+    }
+
+    @NonNull
+    private static byte[] compress(@NonNull Checkout checkout) throws IOException {
+        final Parcel parcel = Parcel.obtain();
+        final byte[] marshalled;
+        try {
+            parcel.writeParcelable(checkout, 0);
+            marshalled = parcel.marshall();
+        } finally {
+            parcel.recycle();
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(marshalled.length / 4);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(marshalled);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Nullable
+    private static Checkout decompress(@NonNull byte[] snapshot) throws IOException {
+        final ByteArrayOutputStream marshalled = new ByteArrayOutputStream(snapshot.length * 4);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot))) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                marshalled.write(buffer, 0, read);
+            }
+        }
+        final byte[] bytes = marshalled.toByteArray();
+        final Parcel parcel = Parcel.obtain();
+        try {
+            parcel.unmarshall(bytes, 0, bytes.length);
+            parcel.setDataPosition(0);
+            return parcel.readParcelable(Checkout.class.getClassLoader());
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
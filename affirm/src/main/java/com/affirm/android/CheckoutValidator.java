@@ -0,0 +1,88 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.affirm.android.exception.InvalidRequestException;
+import com.affirm.android.model.Checkout;
+import com.affirm.android.model.Discount;
+import com.affirm.android.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a checkout before it's sent, on the background thread preparing its payload. Amounts
+ * that can't be right, such as a negative tax or an item without quantity, fail the checkout.
+ * A total that doesn't add up is only logged: the total is what the user is charged, it's not
+ * computed from the items.
+ */
+final class CheckoutValidator {
+
+    static final String INVALID_FIELD = "invalid_field";
+
+    private CheckoutValidator() {
+    }
+
+    static void validate(@NonNull Checkout checkout) throws InvalidRequestException {
+        final List<String> fields = new ArrayList<>();
+        if (isMissingOrNegative(checkout.total())) {
+            fields.add("total");
+        }
+        if (isMissingOrNegative(checkout.shippingAmount())) {
+            fields.add("shipping_amount");
+        }
+        if (isMissingOrNegative(checkout.taxAmount())) {
+            fields.add("tax_amount");
+        }
+
+        long expectedTotal = 0;
+        final Map<String, Item> items = checkout.items();
+        if (items != null) {
+            // A checkout without items is accepted by the API, only malformed items fail it
+            for (Map.Entry<String, Item> entry : items.entrySet()) {
+                final Item item = entry.getValue();
+                final String field = "items." + entry.getKey();
+                if (item == null) {
+                    fields.add(field);
+                    continue;
+                }
+                if (item.qty() == null || item.qty() <= 0) {
+                    fields.add(field + ".qty");
+                } else if (isMissingOrNegative(item.unitPrice())) {
+                    fields.add(field + ".unit_price");
+                } else {
+                    expectedTotal += (long) item.unitPrice() * item.qty();
+                }
+            }
+        }
+
+        final Map<String, Discount> discounts = checkout.discounts();
+        if (discounts != null) {
+            for (Map.Entry<String, Discount> entry : discounts.entrySet()) {
+                final Discount discount = entry.getValue();
+                if (discount == null || isMissingOrNegative(discount.amount())) {
+                    fields.add("discounts." + entry.getKey() + ".amount");
+                } else {
+                    expectedTotal -= discount.amount();
+                }
+            }
+        }
+
+        if (!fields.isEmpty()) {
+            throw new InvalidRequestException("Invalid checkout: " + fields, INVALID_FIELD,
+                    fields, fields.get(0), null, null, null, null);
+        }
+
+        expectedTotal += checkout.shippingAmount() + checkout.taxAmount();
+        if (expectedTotal != checkout.total()) {
+            AffirmLog.w("Checkout total " + checkout.total() + " differs from its items, "
+                    + "discounts, shipping & tax: " + expectedTotal);
+        }
+    }
+
+    private static boolean isMissingOrNegative(@Nullable Integer amount) {
+        return amount == null || amount < 0;
+    }
+}
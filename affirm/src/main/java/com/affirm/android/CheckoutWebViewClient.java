@@ -5,8 +5,6 @@ import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
 
-import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CANCELLATION_URL;
-import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CONFIRMATION_URL;
 import static com.affirm.android.AffirmConstants.CHECKOUT_TOKEN;
 
 final class CheckoutWebViewClient extends AffirmWebViewClient {
@@ -19,16 +17,17 @@ final class CheckoutWebViewClient extends AffirmWebViewClient {
 
     @Override
     boolean hasCallbackUrl(WebView view, String url) {
-        if (url.contains(AFFIRM_CHECKOUT_CONFIRMATION_URL)) {
-            final String token = Uri.parse(url).getQueryParameter(CHECKOUT_TOKEN);
-            callbacks.onWebViewConfirmation(token);
-            return true;
-        } else if (url.contains(AFFIRM_CHECKOUT_CANCELLATION_URL)) {
-            callbacks.onWebViewCancellation();
-            return true;
+        switch (route(url)) {
+            case CHECKOUT_CONFIRMATION:
+                final String token = Uri.parse(url).getQueryParameter(CHECKOUT_TOKEN);
+                callbacks.onWebViewConfirmation(token);
+                return true;
+            case CHECKOUT_CANCELLATION:
+                callbacks.onWebViewCancellation();
+                return true;
+            default:
+                return false;
         }
-
-        return false;
     }
 
     interface Callbacks extends WebViewClientCallbacks {
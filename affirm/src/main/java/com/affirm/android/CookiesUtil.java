@@ -1,81 +1,156 @@
 package com.affirm.android;
 
 import android.content.Context;
-import android.net.Uri;
-import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.webkit.CookieManager;
-import android.webkit.CookieSyncManager;
+import android.webkit.ValueCallback;
 
-import java.util.Vector;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import static com.affirm.android.AffirmConstants.HTTPS_PROTOCOL;
-import static com.affirm.android.AffirmConstants.HTTP_PROTOCOL;
 
 public final class CookiesUtil {
 
+    // Expires a cookie right away, the value is only there to make it a valid cookie
+    private static final String EXPIRED = "=; Max-Age=0; Path=/";
+
+    public interface ClearCookiesCallback {
+        void onCookiesCleared();
+    }
+
     private CookiesUtil() {
     }
 
+    /**
+     * Clear the cookies of the Affirm hosts on the calling thread, they're gone once it returns,
+     * see {@link #clearCookies(Context, ClearCookiesCallback)} to not wait for it.
+     */
     public static void clearCookies(Context context) {
-        final CookieManager cookieManager = CookieManager.getInstance();
-        final CookieSyncManager cookieSyncManager = CookieSyncManager.createInstance(context);
-        CookiesUtil.clearCookieByUrl(HTTPS_PROTOCOL + AffirmPlugins.get().baseUrl(),
-                cookieManager, cookieSyncManager);
+        clearCookies(CookieManager.getInstance(), AffirmPlugins.get().affirmHosts());
     }
 
-    private static void clearCookieByUrl(String url, CookieManager cookieManager,
-                                 CookieSyncManager cookieSyncManager) {
-        Uri uri = Uri.parse(url);
-        String host = uri.getHost();
-        clearCookieByUrlInternal(url, cookieManager, cookieSyncManager);
-        clearCookieByUrlInternal(HTTP_PROTOCOL + "." + host, cookieManager, cookieSyncManager);
-        clearCookieByUrlInternal(HTTPS_PROTOCOL + "." + host, cookieManager, cookieSyncManager);
+    /**
+     * Clear the cookies of every Affirm host (api, promo, cdn & tracker) in one batch. The other
+     * cookies of the app's WebViews are kept. The cookies are expired asynchronously on the main
+     * thread and written to disk once.
+     *
+     * @param callback called on the main thread once the cookies are cleared, it's optional
+     */
+    public static void clearCookies(@NonNull Context context,
+                                    @Nullable final ClearCookiesCallback callback) {
+        final Set<String> hosts = AffirmPlugins.get().affirmHosts();
+        // The callbacks of CookieManager are delivered on the looper of the calling thread
+        new Handler(Looper.getMainLooper()).post(
+                () -> clearCookies(CookieManager.getInstance(), hosts, callback));
     }
 
-    private static void clearCookieByUrlInternal(String url, CookieManager cookieManager,
-                                                 CookieSyncManager cookieSyncManager) {
+    @VisibleForTesting
+    static void clearCookies(@NonNull CookieManager cookieManager,
+                             @NonNull Collection<String> hosts) {
+        final List<String> urls = new ArrayList<>();
+        final List<String> expiredCookies = new ArrayList<>();
+        collectCookies(cookieManager, hosts, urls, expiredCookies);
+        for (int i = 0; i < urls.size(); i++) {
+            cookieManager.setCookie(urls.get(i), expiredCookies.get(i));
+        }
+        onCleared(cookieManager, null);
+    }
 
-        String cookieString = cookieManager.getCookie(url);
-        Vector<String> cookie = getCookieNamesByUrl(cookieString);
-        if (cookie == null || cookie.isEmpty()) {
+    @VisibleForTesting
+    static void clearCookies(@NonNull final CookieManager cookieManager,
+                             @NonNull Collection<String> hosts,
+                             @Nullable final ClearCookiesCallback callback) {
+        final List<String> urls = new ArrayList<>();
+        final List<String> expiredCookies = new ArrayList<>();
+        collectCookies(cookieManager, hosts, urls, expiredCookies);
+        if (urls.isEmpty()) {
+            onCleared(cookieManager, callback);
             return;
         }
-        int len = cookie.size();
-        for (int i = 0; i < len; i++) {
-            cookieManager.setCookie(url, cookie.get(i) + "=-1");
+
+        final int[] pending = {urls.size()};
+        final ValueCallback<Boolean> onExpired = set -> {
+            if (--pending[0] == 0) {
+                onCleared(cookieManager, callback);
+            }
+        };
+        for (int i = 0; i < urls.size(); i++) {
+            cookieManager.setCookie(urls.get(i), expiredCookies.get(i), onExpired);
+        }
+    }
+
+    /**
+     * Add the expired cookie & its url for every cookie of the hosts.
+     */
+    private static void collectCookies(@NonNull CookieManager cookieManager,
+                                       @NonNull Collection<String> hosts,
+                                       @NonNull List<String> urls,
+                                       @NonNull List<String> expiredCookies) {
+        for (String host : hosts) {
+            final String url = HTTPS_PROTOCOL + host;
+            final List<String> names = getCookieNames(cookieManager.getCookie(url));
+            for (String domain : domainsOf(host)) {
+                for (String name : names) {
+                    urls.add(url);
+                    expiredCookies.add(name + EXPIRED + domain);
+                }
+            }
+        }
+    }
+
+    private static void onCleared(@NonNull CookieManager cookieManager,
+                                  @Nullable ClearCookiesCallback callback) {
+        cookieManager.flush();
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        if (plugins != null) {
+            plugins.invalidateCookies();
+        }
+        if (callback != null) {
+            callback.onCookiesCleared();
         }
+    }
 
-        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
-            cookieSyncManager.sync();
-        } else {
-            cookieManager.flush();
+    /**
+     * @return The Domain attributes a cookie of the host may have been set with: none for a host
+     * only cookie, the host itself and its parent domain
+     */
+    @NonNull
+    private static Set<String> domainsOf(@NonNull String host) {
+        final Set<String> domains = new LinkedHashSet<>();
+        domains.add("");
+        domains.add("; Domain=" + host);
+        final int dot = host.indexOf('.');
+        if (dot != -1 && host.indexOf('.', dot + 1) != -1) {
+            domains.add("; Domain=" + host.substring(dot));
         }
+        return domains;
     }
 
-    private static Vector<String> getCookieNamesByUrl(String cookie) {
+    @NonNull
+    private static List<String> getCookieNames(@Nullable String cookie) {
+        final List<String> names = new ArrayList<>();
         if (TextUtils.isEmpty(cookie)) {
-            return null;
-        }
-        String[] cookieField = cookie.split(";");
-        int len = cookieField.length;
-        for (int i = 0; i < len; i++) {
-            cookieField[i] = cookieField[i].trim();
+            return names;
         }
-        Vector<String> allCookieField = new Vector<>();
-        for (String aCookieField : cookieField) {
-            if (TextUtils.isEmpty(aCookieField)) {
-                continue;
+        for (String field : cookie.split(";")) {
+            final int equals = field.indexOf('=');
+            if (equals > 0) {
+                final String name = field.substring(0, equals).trim();
+                if (!name.isEmpty()) {
+                    names.add(name);
+                }
             }
-            if (!aCookieField.contains("=")) {
-                continue;
-            }
-            String[] singleCookieField = aCookieField.split("=");
-            allCookieField.add(singleCookieField[0]);
-        }
-        if (allCookieField.isEmpty()) {
-            return null;
         }
-        return allCookieField;
+        return names;
     }
 }
@@ -0,0 +1,258 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.net.Uri;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.fragment.app.Fragment;
+
+import com.affirm.android.exception.AffirmException;
+import com.affirm.android.exception.ConnectionException;
+import com.affirm.android.model.Checkout;
+import com.affirm.android.model.CheckoutResponse;
+
+import static com.affirm.android.Affirm.RESULT_ERROR;
+import static com.affirm.android.AffirmConstants.CHECKOUT_CAAS_EXTRA;
+import static com.affirm.android.AffirmConstants.CHECKOUT_CARD_AUTH_WINDOW;
+import static com.affirm.android.AffirmConstants.CHECKOUT_ERROR;
+import static com.affirm.android.AffirmConstants.CHECKOUT_SESSION_ID;
+import static com.affirm.android.AffirmConstants.CHECKOUT_TOKEN;
+import static com.affirm.android.AffirmConstants.CUSTOM_TABS_REDIRECT_STATE;
+import static com.affirm.android.AffirmTracker.TrackingEvent.CHECKOUT_CREATION_FAIL;
+import static com.affirm.android.AffirmTracker.TrackingEvent.CHECKOUT_CREATION_SUCCESS;
+import static com.affirm.android.AffirmTracker.TrackingEvent.CHECKOUT_WEBVIEW_FAIL;
+import static com.affirm.android.AffirmTracker.TrackingEvent.CHECKOUT_WEBVIEW_SUCCESS;
+import static com.affirm.android.AffirmTracker.TrackingLevel.ERROR;
+import static com.affirm.android.AffirmTracker.TrackingLevel.INFO;
+
+/**
+ * Creates a checkout & shows it in a Custom Tab opened above this activity, see
+ * {@link AffirmCustomTabs}. The checkout redirects to the
+ * {@code <applicationId>.affirm://checkout/...} urls of the app, which
+ * {@link CustomTabsRedirectActivity} hands back here, closing the tab. Only the redirects to
+ * the scheme the checkout was created with, carrying its random state, are accepted. It
+ * finishes with the same results as {@link CheckoutActivity}, closing the tab cancels the
+ * checkout.
+ */
+public class CustomTabsCheckoutActivity extends Activity {
+
+    private static final String TAB_LAUNCHED = "tab_launched";
+    private static final String REDIRECT_SCHEME = "redirect_scheme";
+    private static final String REDIRECT_STATE = "redirect_state";
+
+    @Nullable
+    private AffirmRequest checkoutRequest;
+
+    private String sessionId;
+
+    private String caas;
+
+    private int cardAuthWindow;
+
+    // The scheme the checkout of this session redirects to
+    private String redirectScheme;
+
+    // The state the checkout of this session redirects with, once it's being created
+    @Nullable
+    private String redirectState;
+
+    private boolean tabLaunched;
+
+    // Whether this activity was left for the tab, it's resumed again once the tab is closed
+    private boolean tabShown;
+
+    static void startActivity(@NonNull Activity activity, int requestCode,
+                              @NonNull Checkout checkout, @Nullable String caas,
+                              int cardAuthWindow) {
+        Intent intent = buildIntent(activity, checkout, caas, cardAuthWindow);
+        activity.startActivityForResult(intent, requestCode);
+    }
+
+    static void startActivity(@NonNull Fragment fragment, int requestCode,
+                              @NonNull Checkout checkout, @Nullable String caas,
+                              int cardAuthWindow) {
+        Intent intent = buildIntent(fragment.requireActivity(), checkout, caas, cardAuthWindow);
+        fragment.startActivityForResult(intent, requestCode);
+    }
+
+    private static Intent buildIntent(
+            @NonNull Activity originalActivity,
+            @NonNull Checkout checkout,
+            @Nullable String caas,
+            int cardAuthWindow) {
+        final Intent intent = new Intent(originalActivity, CustomTabsCheckoutActivity.class);
+        intent.putExtra(CHECKOUT_SESSION_ID, CheckoutSessionStore.put(checkout));
+        intent.putExtra(CHECKOUT_CAAS_EXTRA, caas);
+        intent.putExtra(CHECKOUT_CARD_AUTH_WINDOW, cardAuthWindow);
+        intent.putExtra(REDIRECT_SCHEME, AffirmCustomTabs.redirectScheme(originalActivity));
+        return intent;
+    }
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        if (savedInstanceState != null) {
+            sessionId = savedInstanceState.getString(CHECKOUT_SESSION_ID);
+            caas = savedInstanceState.getString(CHECKOUT_CAAS_EXTRA);
+            cardAuthWindow = savedInstanceState.getInt(CHECKOUT_CARD_AUTH_WINDOW, -1);
+            redirectScheme = savedInstanceState.getString(REDIRECT_SCHEME);
+            redirectState = savedInstanceState.getString(REDIRECT_STATE);
+            tabLaunched = savedInstanceState.getBoolean(TAB_LAUNCHED);
+            // Recreated while the tab was shown, coming back means it was closed
+            tabShown = tabLaunched;
+        } else {
+            sessionId = getIntent().getStringExtra(CHECKOUT_SESSION_ID);
+            caas = getIntent().getStringExtra(CHECKOUT_CAAS_EXTRA);
+            cardAuthWindow = getIntent().getIntExtra(CHECKOUT_CARD_AUTH_WINDOW, -1);
+            redirectScheme = getIntent().getStringExtra(REDIRECT_SCHEME);
+        }
+
+        if (sessionId == null || redirectScheme == null) {
+            // A redirect without a checkout waiting for it
+            finish();
+            return;
+        }
+        if (!tabLaunched) {
+            createCheckout();
+        }
+    }
+
+    private void createCheckout() {
+        final Checkout checkout = CheckoutSessionStore.get(sessionId);
+        if (checkout == null) {
+            finishWithResult(RESULT_ERROR, errorData(
+                    new IllegalStateException("The checkout session is gone")));
+            return;
+        }
+        final InnerCheckoutCallback callback = new InnerCheckoutCallback() {
+            @Override
+            public void onError(@NonNull AffirmException exception) {
+                AffirmTracker.track(CHECKOUT_CREATION_FAIL, ERROR, null);
+                finishWithResult(RESULT_ERROR, errorData(exception));
+            }
+
+            @Override
+            public void onSuccess(@NonNull CheckoutResponse response) {
+                AffirmTracker.track(CHECKOUT_CREATION_SUCCESS, INFO, null);
+                tabLaunched = true;
+                AffirmCustomTabs.launch(CustomTabsCheckoutActivity.this, response.redirectUrl());
+            }
+        };
+        final CheckoutPreparer.Taken taken = CheckoutPreparer.take(checkout, caas,
+                cardAuthWindow, false, redirectScheme, callback);
+        if (taken != null) {
+            redirectState = taken.redirectState();
+            checkoutRequest = taken;
+        } else {
+            final CheckoutRequest request = new CheckoutRequest(null, checkout, callback, caas,
+                    false, cardAuthWindow, redirectScheme);
+            redirectState = request.redirectState();
+            checkoutRequest = request;
+        }
+        checkoutRequest.create();
+    }
+
+    @Override
+    protected void onNewIntent(Intent intent) {
+        super.onNewIntent(intent);
+        final Uri uri = intent.getData();
+        if (uri == null || !tabLaunched) {
+            return;
+        }
+        final Intent data = new Intent();
+        final int resultCode = result(uri.toString(), redirectScheme, redirectState, data);
+        if (resultCode == RESULT_OK) {
+            AffirmTracker.track(CHECKOUT_WEBVIEW_SUCCESS, INFO, null);
+        } else if (resultCode == RESULT_ERROR) {
+            AffirmTracker.track(CHECKOUT_WEBVIEW_FAIL, ERROR, null);
+        }
+        finishWithResult(resultCode, data);
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (tabShown && !isFinishing()) {
+            // The tab was closed without the checkout redirecting
+            finishWithResult(RESULT_CANCELED, null);
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (tabLaunched) {
+            tabShown = true;
+        }
+    }
+
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+
+        outState.putString(CHECKOUT_SESSION_ID, sessionId);
+        outState.putString(CHECKOUT_CAAS_EXTRA, caas);
+        outState.putInt(CHECKOUT_CARD_AUTH_WINDOW, cardAuthWindow);
+        outState.putString(REDIRECT_SCHEME, redirectScheme);
+        outState.putString(REDIRECT_STATE, redirectState);
+        outState.putBoolean(TAB_LAUNCHED, tabLaunched);
+    }
+
+    @Override
+    protected void onDestroy() {
+        if (checkoutRequest != null) {
+            checkoutRequest.cancel();
+        }
+        if (isFinishing()) {
+            CheckoutSessionStore.remove(sessionId);
+        }
+        super.onDestroy();
+    }
+
+    /**
+     * Map a redirect of the checkout to the result of {@link CheckoutActivity}, a redirect to
+     * another scheme than the one of the checkout, or without its state, is an error.
+     *
+     * @param url            the redirect url
+     * @param redirectScheme the scheme the checkout redirects to
+     * @param redirectState  the state the checkout redirects with
+     * @param data           the intent receiving the token or the error
+     * @return The result code
+     */
+    @VisibleForTesting
+    static int result(@NonNull String url, @NonNull String redirectScheme,
+                      @Nullable String redirectState, @NonNull Intent data) {
+        final Uri uri = Uri.parse(url);
+        final boolean fromCheckout = redirectState != null
+                && redirectState.equals(uri.getQueryParameter(CUSTOM_TABS_REDIRECT_STATE));
+        switch (fromCheckout ? AffirmUrlRouter.forRedirectScheme(redirectScheme).route(url)
+                : AffirmUrlRouter.Route.NONE) {
+            case CHECKOUT_CONFIRMATION:
+                data.putExtra(CHECKOUT_TOKEN, uri.getQueryParameter(CHECKOUT_TOKEN));
+                return RESULT_OK;
+            case CHECKOUT_CANCELLATION:
+                return RESULT_CANCELED;
+            default:
+                data.putExtra(CHECKOUT_ERROR,
+                        new ConnectionException("Unexpected checkout redirect").toString());
+                return RESULT_ERROR;
+        }
+    }
+
+    @NonNull
+    private static Intent errorData(@NonNull Throwable error) {
+        final Intent intent = new Intent();
+        intent.putExtra(CHECKOUT_ERROR, error.toString());
+        return intent;
+    }
+
+    private void finishWithResult(int resultCode, @Nullable Intent data) {
+        setResult(resultCode, data);
+        finish();
+    }
+}
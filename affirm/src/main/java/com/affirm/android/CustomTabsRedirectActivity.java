@@ -0,0 +1,26 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.os.Bundle;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Receives the {@code <applicationId>.affirm://checkout/...} redirects of a checkout shown in a
+ * Custom Tab and hands them to the {@link CustomTabsCheckoutActivity} below the tab, which closes
+ * the tab & checks them.
+ */
+public class CustomTabsRedirectActivity extends Activity {
+
+    @Override
+    protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        final Intent intent = new Intent(this, CustomTabsCheckoutActivity.class);
+        intent.setData(getIntent().getData());
+        intent.addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        startActivity(intent);
+        finish();
+    }
+}
@@ -0,0 +1,375 @@
+package com.affirm.android;
+
+import android.content.res.Resources;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.Layout;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.style.AbsoluteSizeSpan;
+import android.text.style.AlignmentSpan;
+import android.text.style.BackgroundColorSpan;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.RelativeSizeSpan;
+import android.text.style.StrikethroughSpan;
+import android.text.style.StyleSpan;
+import android.text.style.UnderlineSpan;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.affirm.android.AffirmConstants.LOGO_PLACEHOLDER;
+
+/**
+ * Renders the limited markup of `html_ala` into a Spannable, so html styled promos can be shown
+ * without a WebView. Returns null when the markup uses anything outside of the supported subset,
+ * including named entities other than the basic ones, or when the css uses fonts, in which case
+ * the caller should fall back to {@link PromotionWebView}. Like a browser, the tags have default
+ * styles that the css overrides, and block tags start & end a line.
+ */
+final class HtmlPromoRenderer {
+
+    private static final String BODY = "body";
+    private static final String LOGO_CLASS = "affirm-logo";
+
+    private static final Set<String> SUPPORTED_TAGS = new HashSet<>(Arrays.asList(
+            "span", "a", "b", "strong", "i", "em", "u", "s", "br", "p", "div"));
+    private static final Set<String> VOID_TAGS = new HashSet<>(Arrays.asList("br"));
+    private static final Set<String> BLOCK_TAGS = new HashSet<>(Arrays.asList("p", "div"));
+    // The styles of the user agent, applied under the css
+    private static final Map<String, HtmlPromoStyleSheet.Style> DEFAULT_STYLES = new HashMap<>();
+
+    static {
+        final HtmlPromoStyleSheet.Style bold = new HtmlPromoStyleSheet.Style();
+        bold.bold = true;
+        final HtmlPromoStyleSheet.Style italic = new HtmlPromoStyleSheet.Style();
+        italic.italic = true;
+        final HtmlPromoStyleSheet.Style underline = new HtmlPromoStyleSheet.Style();
+        underline.underline = true;
+        final HtmlPromoStyleSheet.Style strikethrough = new HtmlPromoStyleSheet.Style();
+        strikethrough.strikethrough = true;
+        DEFAULT_STYLES.put("b", bold);
+        DEFAULT_STYLES.put("strong", bold);
+        DEFAULT_STYLES.put("i", italic);
+        DEFAULT_STYLES.put("em", italic);
+        DEFAULT_STYLES.put("u", underline);
+        DEFAULT_STYLES.put("s", strikethrough);
+    }
+
+    private static final Pattern CLASS_ATTRIBUTE =
+            Pattern.compile("class\\s*=\\s*(\"([^\"]*)\"|'([^']*)')", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NUMERIC_ENTITY = Pattern.compile("&#(x?)([0-9a-fA-F]+);");
+    private static final Pattern NAMED_ENTITY = Pattern.compile("&([a-zA-Z][a-zA-Z0-9]*);");
+    private static final Set<String> NAMED_ENTITIES = new HashSet<>(Arrays.asList(
+            "nbsp", "lt", "gt", "quot", "apos", "amp"));
+
+    private HtmlPromoRenderer() {
+    }
+
+    @Nullable
+    static SpannableStringBuilder render(@NonNull String html,
+                                         @NonNull HtmlPromoStyleSheet styleSheet,
+                                         float textSize,
+                                         @Nullable Drawable logoDrawable,
+                                         @NonNull AffirmColor affirmColor,
+                                         @NonNull Resources resources) {
+        if (styleSheet.usesFonts()) {
+            // The fonts of the css are only loaded by a WebView
+            return null;
+        }
+        final SpannableStringBuilder builder = new SpannableStringBuilder();
+        final Deque<Element> stack = new ArrayDeque<>();
+        final List<Element> closed = new ArrayList<>();
+
+        int index = 0;
+        final int length = html.length();
+        // Whether a block ended, the next text starts a line
+        boolean afterBlock = false;
+        while (index < length) {
+            int tagStart = html.indexOf('<', index);
+            String text = html.substring(index, tagStart == -1 ? length : tagStart);
+            if (afterBlock) {
+                if (text.trim().isEmpty()) {
+                    // The whitespace between blocks isn't shown
+                    text = "";
+                } else {
+                    breakLine(builder);
+                    afterBlock = false;
+                }
+            }
+            if (!text.isEmpty() && !appendText(builder, text)) {
+                return null;
+            }
+            if (tagStart == -1) {
+                break;
+            }
+            int tagEnd = html.indexOf('>', tagStart);
+            if (tagEnd == -1) {
+                return null;
+            }
+
+            String tag = html.substring(tagStart + 1, tagEnd).trim();
+            index = tagEnd + 1;
+            if (tag.startsWith("!--")) {
+                int commentEnd = html.indexOf("-->", tagStart);
+                index = commentEnd == -1 ? length : commentEnd + 3;
+                continue;
+            }
+
+            if (tag.startsWith("/")) {
+                final String name = tagName(tag.substring(1));
+                if (stack.isEmpty() || !stack.peek().tag.equals(name)) {
+                    return null;
+                }
+                final Element element = stack.pop();
+                element.end = builder.length();
+                closed.add(element);
+                afterBlock |= BLOCK_TAGS.contains(name);
+                continue;
+            }
+
+            final boolean selfClosing = tag.endsWith("/");
+            final String name = tagName(selfClosing ? tag.substring(0, tag.length() - 1) : tag);
+            if (!SUPPORTED_TAGS.contains(name)) {
+                return null;
+            }
+            if (name.equals("br")) {
+                builder.append('\n');
+            }
+            if (BLOCK_TAGS.contains(name)) {
+                breakLine(builder);
+                afterBlock = false;
+            }
+            if (selfClosing || VOID_TAGS.contains(name)) {
+                continue;
+            }
+            stack.push(new Element(name, classes(tag), builder.length()));
+        }
+
+        if (!stack.isEmpty()) {
+            return null;
+        }
+
+        applyStyle(builder, styleSheet.resolve(BODY), 0, builder.length(), textSize);
+        // Elements close inner first, apply outer styles first so inner spans win
+        for (int i = closed.size() - 1; i >= 0; i--) {
+            final Element element = closed.get(i);
+            HtmlPromoStyleSheet.Style style = styleSheet.resolve(element.tag, element.classes);
+            final HtmlPromoStyleSheet.Style defaultStyle = DEFAULT_STYLES.get(element.tag);
+            if (defaultStyle != null) {
+                style = defaultStyle.merge(style);
+            }
+            applyStyle(builder, style, element.start, element.end, textSize);
+        }
+        for (Element element : closed) {
+            if (element.isLogo() && logoDrawable != null && element.end > element.start) {
+                builder.setSpan(
+                        AffirmUtils.getLogoSpan(textSize, logoDrawable, affirmColor, resources),
+                        element.start, element.end, Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
+            }
+        }
+        replaceLogoPlaceholder(builder, textSize, logoDrawable, affirmColor, resources);
+        return builder;
+    }
+
+    private static void replaceLogoPlaceholder(@NonNull SpannableStringBuilder builder,
+                                               float textSize,
+                                               @Nullable Drawable logoDrawable,
+                                               @NonNull AffirmColor affirmColor,
+                                               @NonNull Resources resources) {
+        int index = builder.toString().indexOf(LOGO_PLACEHOLDER);
+        if (index == -1) {
+            return;
+        }
+        if (logoDrawable != null) {
+            builder.setSpan(
+                    AffirmUtils.getLogoSpan(textSize, logoDrawable, affirmColor, resources),
+                    index, index + LOGO_PLACEHOLDER.length(), Spannable.SPAN_EXCLUSIVE_EXCLUSIVE);
+        } else {
+            builder.delete(index, index + LOGO_PLACEHOLDER.length());
+        }
+    }
+
+    private static void applyStyle(@NonNull SpannableStringBuilder builder,
+                                   @NonNull HtmlPromoStyleSheet.Style style,
+                                   int start,
+                                   int end,
+                                   float textSize) {
+        if (style.isEmpty() || end <= start) {
+            return;
+        }
+        final int flags = Spannable.SPAN_EXCLUSIVE_EXCLUSIVE;
+        if (style.color != null) {
+            builder.setSpan(new ForegroundColorSpan(style.color), start, end, flags);
+        }
+        if (style.backgroundColor != null) {
+            builder.setSpan(new BackgroundColorSpan(style.backgroundColor), start, end, flags);
+        }
+        final boolean bold = Boolean.TRUE.equals(style.bold);
+        final boolean italic = Boolean.TRUE.equals(style.italic);
+        if (bold || italic) {
+            final int typefaceStyle = bold && italic ? Typeface.BOLD_ITALIC
+                    : bold ? Typeface.BOLD : Typeface.ITALIC;
+            builder.setSpan(new StyleSpan(typefaceStyle), start, end, flags);
+        }
+        if (Boolean.TRUE.equals(style.underline)) {
+            builder.setSpan(new UnderlineSpan(), start, end, flags);
+        }
+        if (Boolean.TRUE.equals(style.strikethrough)) {
+            builder.setSpan(new StrikethroughSpan(), start, end, flags);
+        }
+        if (style.absoluteSize > 0) {
+            builder.setSpan(new AbsoluteSizeSpan(style.absoluteSize, true), start, end, flags);
+        }
+        if (style.relativeSize > 0) {
+            builder.setSpan(new RelativeSizeSpan(style.relativeSize), start, end, flags);
+        }
+        if (style.textAlign != null && start == 0 && end == builder.length()) {
+            Layout.Alignment alignment = alignment(style.textAlign);
+            if (alignment != null) {
+                builder.setSpan(new AlignmentSpan.Standard(alignment), start, end,
+                        Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+            }
+        }
+    }
+
+    @Nullable
+    private static Layout.Alignment alignment(@NonNull String textAlign) {
+        switch (textAlign) {
+            case "center":
+                return Layout.Alignment.ALIGN_CENTER;
+            case "right":
+            case "end":
+                return Layout.Alignment.ALIGN_OPPOSITE;
+            case "left":
+            case "start":
+                return Layout.Alignment.ALIGN_NORMAL;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return Whether the text could be decoded
+     */
+    private static boolean appendText(@NonNull SpannableStringBuilder builder,
+                                      @NonNull String text) {
+        // Collapse whitespace the way a browser would
+        String collapsed = text.replaceAll("\\s+", " ");
+        if (collapsed.startsWith(" ")
+                && (builder.length() == 0 || isWhitespace(builder.charAt(builder.length() - 1)))) {
+            collapsed = collapsed.substring(1);
+        }
+        final String decoded = decodeEntities(collapsed);
+        if (decoded == null) {
+            return false;
+        }
+        builder.append(decoded);
+        return true;
+    }
+
+    /**
+     * Start a line, unless the text is empty or already at the start of one.
+     */
+    private static void breakLine(@NonNull SpannableStringBuilder builder) {
+        if (builder.length() > 0 && builder.charAt(builder.length() - 1) != '\n') {
+            builder.append('\n');
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n';
+    }
+
+    /**
+     * @return The text with its entities decoded, or null if it uses a named entity other than
+     * the basic ones
+     */
+    @Nullable
+    static String decodeEntities(@NonNull String text) {
+        if (text.indexOf('&') == -1) {
+            return text;
+        }
+        final Matcher named = NAMED_ENTITY.matcher(text);
+        while (named.find()) {
+            if (!NAMED_ENTITIES.contains(named.group(1))) {
+                return null;
+            }
+        }
+        final Matcher matcher = NUMERIC_ENTITY.matcher(text);
+        final StringBuffer decoded = new StringBuffer();
+        while (matcher.find()) {
+            final int radix = matcher.group(1).isEmpty() ? 10 : 16;
+            final int codePoint = Integer.parseInt(matcher.group(2), radix);
+            matcher.appendReplacement(decoded,
+                    Matcher.quoteReplacement(new String(Character.toChars(codePoint))));
+        }
+        matcher.appendTail(decoded);
+        return decoded.toString()
+                .replace("&nbsp;", "\u00A0")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&amp;", "&");
+    }
+
+    @NonNull
+    private static String tagName(@NonNull String tag) {
+        int end = 0;
+        while (end < tag.length() && !Character.isWhitespace(tag.charAt(end))) {
+            end++;
+        }
+        return tag.substring(0, end).toLowerCase(Locale.US);
+    }
+
+    @NonNull
+    private static List<String> classes(@NonNull String tag) {
+        final List<String> classes = new ArrayList<>();
+        final Matcher matcher = CLASS_ATTRIBUTE.matcher(tag);
+        if (matcher.find()) {
+            final String value = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+            for (String className : value.trim().split("\\s+")) {
+                if (!className.isEmpty()) {
+                    classes.add(className.toLowerCase(Locale.US));
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static final class Element {
+        final String tag;
+        final List<String> classes;
+        final int start;
+        int end;
+
+        Element(@NonNull String tag, @NonNull List<String> classes, int start) {
+            this.tag = tag;
+            this.classes = classes;
+            this.start = start;
+        }
+
+        boolean isLogo() {
+            for (String className : classes) {
+                if (className.contains(LOGO_CLASS)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.affirm.android;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * A parsed subset of the merchant's promo css, used to style `html_ala` natively.
+ * Supports `tag`, `.class` and `tag.class` selectors and the color, background-color,
+ * font-weight, font-style, font-size, text-decoration & text-align properties. Fonts, set with
+ * font-family or @font-face, are only loaded by a WebView, see {@link #usesFonts()}.
+ */
+final class HtmlPromoStyleSheet {
+
+    private static final String ASSET_PREFIX = "file:///android_asset/";
+    private static final String FILE_PREFIX = "file://";
+    private static final Pattern FONTS =
+            Pattern.compile("@font-face|(^|[\\s;{])font(-family)?\\s*:");
+
+    private static final Map<String, HtmlPromoStyleSheet> CACHE =
+            Collections.synchronizedMap(new HashMap<>());
+    private static final Map<String, List<LoadCallback>> PENDING = new HashMap<>();
+
+    static final HtmlPromoStyleSheet EMPTY = new HtmlPromoStyleSheet(new HashMap<>(), false);
+
+    private final Map<String, Style> rules;
+    private final boolean usesFonts;
+    private final Map<String, Style> resolved = new HashMap<>();
+
+    interface LoadCallback {
+        void onLoaded(@NonNull HtmlPromoStyleSheet styleSheet);
+    }
+
+    private HtmlPromoStyleSheet(@NonNull Map<String, Style> rules, boolean usesFonts) {
+        this.rules = rules;
+        this.usesFonts = usesFonts;
+    }
+
+    /**
+     * @return Whether the css sets a font-family or declares a @font-face, which can't be
+     * rendered natively
+     */
+    boolean usesFonts() {
+        return usesFonts;
+    }
+
+    /**
+     * Load the style sheet built from the remote css & typeface declaration. Parsed style
+     * sheets are cached, so the css is only read once per url.
+     */
+    static void load(@NonNull Context context,
+                     @Nullable String remoteCssUrl,
+                     @Nullable String typefaceDeclaration,
+                     @NonNull LoadCallback callback) {
+        final String key = remoteCssUrl + "\n" + typefaceDeclaration;
+        HtmlPromoStyleSheet cached = CACHE.get(key);
+        if (cached != null) {
+            callback.onLoaded(cached);
+            return;
+        }
+
+        if (TextUtils.isEmpty(remoteCssUrl)) {
+            callback.onLoaded(cache(key, parse(typefaceDeclaration)));
+            return;
+        }
+
+        if (!remoteCssUrl.startsWith(FILE_PREFIX)) {
+            synchronized (PENDING) {
+                List<LoadCallback> callbacks = PENDING.get(key);
+                if (callbacks != null) {
+                    // A request for the same css is in flight, wait for it
+                    callbacks.add(callback);
+                    return;
+                }
+                callbacks = new ArrayList<>();
+                callbacks.add(callback);
+                PENDING.put(key, callbacks);
+            }
+            loadRemote(key, remoteCssUrl, typefaceDeclaration);
+            return;
+        }
+
+        String css;
+        try {
+            final InputStream ins = remoteCssUrl.startsWith(ASSET_PREFIX)
+                    ? context.getAssets().open(remoteCssUrl.substring(ASSET_PREFIX.length()))
+                    : new FileInputStream(remoteCssUrl.substring(FILE_PREFIX.length()));
+            css = AffirmUtils.readInputStream(ins);
+        } catch (IOException e) {
+            AffirmLog.w("Failed to read promo css: " + e.toString());
+            css = "";
+        }
+        callback.onLoaded(cache(key, parse(join(typefaceDeclaration, css))));
+    }
+
+    private static void loadRemote(@NonNull String key,
+                                   @NonNull String remoteCssUrl,
+                                   @Nullable String typefaceDeclaration) {
+        AffirmHttpRequest request = new AffirmHttpRequest.Builder()
+                .setUrl(remoteCssUrl)
+                .setMethod(AffirmHttpRequest.Method.GET)
+                .build();
+        AffirmPlugins.get().restClient().getCallForRequest(null, request).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NotNull Call call, @NotNull Response response) {
+                String css = null;
+                try (ResponseBody body = response.body()) {
+                    if (response.isSuccessful() && body != null) {
+                        css = body.string();
+                    } else {
+                        AffirmLog.w("Failed to load promo css: " + response.code());
+                    }
+                } catch (IOException e) {
+                    AffirmLog.w("Failed to read promo css: " + e.toString());
+                }
+                if (css == null) {
+                    // Don't cache the failure, the next label will try again
+                    deliver(key, parse(typefaceDeclaration));
+                } else {
+                    deliver(key, cache(key, parse(join(typefaceDeclaration, css))));
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Call call, @NotNull IOException e) {
+                AffirmLog.w("Failed to load promo css: " + e.toString());
+                // Don't cache the failure, the next label will try again
+                deliver(key, parse(typefaceDeclaration));
+            }
+        });
+    }
+
+    private static void deliver(@NonNull String key, @NonNull HtmlPromoStyleSheet styleSheet) {
+        final List<LoadCallback> callbacks;
+        synchronized (PENDING) {
+            callbacks = PENDING.remove(key);
+        }
+        if (callbacks == null) {
+            return;
+        }
+        new Handler(Looper.getMainLooper()).post(() -> {
+            for (LoadCallback callback : callbacks) {
+                callback.onLoaded(styleSheet);
+            }
+        });
+    }
+
+    @NonNull
+    private static String join(@Nullable String typefaceDeclaration, @NonNull String css) {
+        return typefaceDeclaration == null ? css : typefaceDeclaration + "\n" + css;
+    }
+
+    private static HtmlPromoStyleSheet cache(@NonNull String key,
+                                             @NonNull HtmlPromoStyleSheet styleSheet) {
+        CACHE.put(key, styleSheet);
+        return styleSheet;
+    }
+
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    @NonNull
+    static HtmlPromoStyleSheet parse(@Nullable String css) {
+        if (TextUtils.isEmpty(css)) {
+            return EMPTY;
+        }
+
+        final String source = css
+                .replaceAll("(?s)/\\*.*?\\*/", "")
+                .replaceAll("(?s)<!--.*?-->", "")
+                .replaceAll("(?i)</?style[^>]*>", "")
+                .replaceAll("(?i)<link[^>]*>", "");
+
+        final Map<String, Style> rules = new HashMap<>();
+        int index = 0;
+        while (index < source.length()) {
+            int open = source.indexOf('{', index);
+            if (open == -1) {
+                break;
+            }
+            int close = source.indexOf('}', open);
+            if (close == -1) {
+                break;
+            }
+            final String selectors = source.substring(index, open).trim();
+            if (selectors.startsWith("@")) {
+                // Skip at-rules such as @font-face & @media, including nested blocks
+                close = skipBlock(source, open);
+            } else {
+                final Style style = parseDeclarations(source.substring(open + 1, close));
+                for (String selector : selectors.split(",")) {
+                    final String key = selector.trim().toLowerCase(Locale.US);
+                    if (isSupportedSelector(key)) {
+                        Style existing = rules.get(key);
+                        rules.put(key, existing == null ? style : existing.merge(style));
+                    }
+                }
+            }
+            index = close + 1;
+        }
+        return new HtmlPromoStyleSheet(rules,
+                FONTS.matcher(source.toLowerCase(Locale.US)).find());
+    }
+
+    private static int skipBlock(@NonNull String source, int open) {
+        int depth = 0;
+        for (int i = open; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return source.length();
+    }
+
+    private static boolean isSupportedSelector(@NonNull String selector) {
+        return selector.matches("[a-z0-9_-]*(\\.[a-z0-9_-]+)?") && !selector.isEmpty();
+    }
+
+    @NonNull
+    private static Style parseDeclarations(@NonNull String block) {
+        final Style style = new Style();
+        for (String declaration : block.split(";")) {
+            int colon = declaration.indexOf(':');
+            if (colon == -1) {
+                continue;
+            }
+            final String name = declaration.substring(0, colon).trim().toLowerCase(Locale.US);
+            final String value = declaration.substring(colon + 1)
+                    .replace("!important", "")
+                    .trim()
+                    .toLowerCase(Locale.US);
+            switch (name) {
+                case "color":
+                    style.color = parseColor(value);
+                    break;
+                case "background-color":
+                    style.backgroundColor = parseColor(value);
+                    break;
+                case "font-weight":
+                    style.bold = value.equals("bold") || value.equals("bolder")
+                            || (value.matches("\\d+") && Integer.parseInt(value) >= 600);
+                    break;
+                case "font-style":
+                    style.italic = value.equals("italic") || value.equals("oblique");
+                    break;
+                case "text-decoration":
+                case "text-decoration-line":
+                    style.underline = value.contains("underline");
+                    style.strikethrough = value.contains("line-through");
+                    break;
+                case "text-align":
+                    style.textAlign = value;
+                    break;
+                case "font-size":
+                    parseFontSize(style, value);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return style;
+    }
+
+    private static void parseFontSize(@NonNull Style style, @NonNull String value) {
+        try {
+            if (value.endsWith("px")) {
+                style.absoluteSize = Math.round(Float.parseFloat(
+                        value.substring(0, value.length() - 2).trim()));
+            } else if (value.endsWith("em")) {
+                style.relativeSize = Float.parseFloat(
+                        value.substring(0, value.length() - 2).trim());
+            } else if (value.endsWith("%")) {
+                style.relativeSize = Float.parseFloat(
+                        value.substring(0, value.length() - 1).trim()) / 100f;
+            }
+        } catch (NumberFormatException e) {
+            AffirmLog.v("Unsupported font-size: " + value);
+        }
+    }
+
+    @Nullable
+    @VisibleForTesting
+    static Integer parseColor(@NonNull String value) {
+        try {
+            if (value.startsWith("#") && value.length() == 4) {
+                final char r = value.charAt(1);
+                final char g = value.charAt(2);
+                final char b = value.charAt(3);
+                return Color.parseColor("#" + r + r + g + g + b + b);
+            } else if (value.startsWith("rgb")) {
+                final String[] parts = value.substring(value.indexOf('(') + 1,
+                        value.indexOf(')')).split(",");
+                final int alpha = parts.length > 3
+                        ? Math.round(Float.parseFloat(parts[3].trim()) * 255) : 255;
+                return Color.argb(alpha,
+                        Integer.parseInt(parts[0].trim()),
+                        Integer.parseInt(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim()));
+            }
+            return Color.parseColor(value);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            AffirmLog.v("Unsupported color: " + value);
+            return null;
+        }
+    }
+
+    /**
+     * Resolve the style of an element, applying the tag rule, then the class rules and the
+     * tag.class rules in order. Results are cached per tag & class list.
+     */
+    @NonNull
+    synchronized Style resolve(@NonNull String tag, @NonNull List<String> classes) {
+        final String key = tag + classes.toString();
+        Style style = resolved.get(key);
+        if (style == null) {
+            style = new Style();
+            Style tagStyle = rules.get(tag);
+            if (tagStyle != null) {
+                style = style.merge(tagStyle);
+            }
+            for (String className : classes) {
+                Style classStyle = rules.get("." + className);
+                if (classStyle != null) {
+                    style = style.merge(classStyle);
+                }
+                Style tagClassStyle = rules.get(tag + "." + className);
+                if (tagClassStyle != null) {
+                    style = style.merge(tagClassStyle);
+                }
+            }
+            resolved.put(key, style);
+        }
+        return style;
+    }
+
+    @NonNull
+    Style resolve(@NonNull String tag) {
+        return resolve(tag, new ArrayList<>());
+    }
+
+    static final class Style {
+        @Nullable
+        Integer color;
+        @Nullable
+        Integer backgroundColor;
+        @Nullable
+        Boolean bold;
+        @Nullable
+        Boolean italic;
+        @Nullable
+        Boolean underline;
+        @Nullable
+        Boolean strikethrough;
+        @Nullable
+        String textAlign;
+        int absoluteSize;
+        float relativeSize;
+
+        boolean isEmpty() {
+            return color == null && backgroundColor == null && bold == null && italic == null
+                    && underline == null && strikethrough == null && textAlign == null
+                    && absoluteSize <= 0 && relativeSize <= 0;
+        }
+
+        /**
+         * @return a new style where the properties set on `other` win
+         */
+        @NonNull
+        Style merge(@NonNull Style other) {
+            final Style style = new Style();
+            style.color = other.color != null ? other.color : color;
+            style.backgroundColor = other.backgroundColor != null
+                    ? other.backgroundColor : backgroundColor;
+            style.bold = other.bold != null ? other.bold : bold;
+            style.italic = other.italic != null ? other.italic : italic;
+            style.underline = other.underline != null ? other.underline : underline;
+            style.strikethrough = other.strikethrough != null
+                    ? other.strikethrough : strikethrough;
+            style.textAlign = other.textAlign != null ? other.textAlign : textAlign;
+            style.absoluteSize = other.absoluteSize > 0 ? other.absoluteSize : absoluteSize;
+            style.relativeSize = other.relativeSize > 0 ? other.relativeSize : relativeSize;
+            return style;
+        }
+    }
+}
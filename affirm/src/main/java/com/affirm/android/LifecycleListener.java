@@ -1,10 +0,0 @@
-package com.affirm.android;
-
-public interface LifecycleListener {
-
-    void onStart();
-
-    void onStop();
-
-    void onDestroy();
-}
@@ -2,14 +2,15 @@ package com.affirm.android;
 
 import android.app.Activity;
 import android.content.Intent;
+import android.content.res.Resources;
 import android.os.Bundle;
 
 import com.affirm.android.exception.ConnectionException;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.HashMap;
+import java.util.Map;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -79,6 +80,19 @@ public class ModalActivity extends AffirmActivity implements ModalWebViewClient.
             @Nullable String pageType,
             @Nullable String promoId) {
         final Intent intent = new Intent(originalActivity, ModalActivity.class);
+        intent.putExtra(TYPE_EXTRA, type);
+        intent.putExtra(MAP_EXTRA, buildParams(amount, modalId, pageType, promoId));
+        return intent;
+    }
+
+    /**
+     * @return The values of the placeholders of the modal template
+     */
+    @NonNull
+    static HashMap<String, String> buildParams(BigDecimal amount,
+                                               @Nullable String modalId,
+                                               @Nullable String pageType,
+                                               @Nullable String promoId) {
         final String stringAmount =
                 String.valueOf(AffirmUtils.decimalDollarsToIntegerCents(amount));
         final String fullPath = HTTPS_PROTOCOL + AffirmPlugins.get().baseJsUrl() + JS_PATH;
@@ -91,10 +105,19 @@ public class ModalActivity extends AffirmActivity implements ModalWebViewClient.
         map.put(MODAL_ID, modalId == null ? "" : modalId);
         map.put(PAGE_TYPE, pageType == null ? "" : pageType);
         map.put(PROMO_ID, promoId == null ? "" : promoId);
+        return map;
+    }
 
-        intent.putExtra(TYPE_EXTRA, type);
-        intent.putExtra(MAP_EXTRA, map);
-        return intent;
+    @NonNull
+    static String renderHtml(@NonNull Resources resources, @NonNull ModalType type,
+                             @NonNull Map<String, String> params) throws IOException {
+        AffirmTrace.beginSection(AffirmTrace.INITIAL_HTML);
+        try {
+            final String html = AffirmUtils.readTemplate(resources, type.templateRes);
+            return AffirmUtils.replacePlaceholders(html, params);
+        } finally {
+            AffirmTrace.endSection();
+        }
     }
 
     @Override
@@ -120,8 +143,19 @@ public class ModalActivity extends AffirmActivity implements ModalWebViewClient.
         }
     }
 
+    @NonNull
+    @Override
+    String metricsLabel() {
+        return "modal_screen";
+    }
+
     @Override
     void onAttached() {
+        final AffirmWebView prefetched = ModalPrefetcher.take(type, map);
+        if (prefetched != null) {
+            showPrefetched(prefetched);
+            return;
+        }
         final String html = initialHtml();
         webView.loadDataWithBaseURL(
                 HTTPS_PROTOCOL + AffirmPlugins.get().basePromoUrl(),
@@ -137,15 +171,11 @@ public class ModalActivity extends AffirmActivity implements ModalWebViewClient.
     }
 
     private String initialHtml() {
-        String html;
         try {
-            final InputStream ins = getResources().openRawResource(type.templateRes);
-            html = AffirmUtils.readInputStream(ins);
+            return renderHtml(getResources(), type, map);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-
-        return AffirmUtils.replacePlaceholders(html, map);
     }
 
     @Override
@@ -0,0 +1,89 @@
+package com.affirm.android;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.affirm.android.exception.ConnectionException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.affirm.android.AffirmConstants.HTTPS_PROTOCOL;
+import static com.affirm.android.AffirmConstants.TEXT_HTML;
+import static com.affirm.android.AffirmConstants.UTF_8;
+
+/**
+ * Loads the modal of a promo in a pooled WebView once the promo is shown, so tapping it opens a
+ * modal whose template & affirm.js are already loaded. It's enabled with
+ * {@link Affirm.Configuration.Builder#setPrefetchModals(boolean)}.
+ * <p>
+ * Only used on the main thread.
+ */
+final class ModalPrefetcher {
+
+    private ModalPrefetcher() {
+    }
+
+    static void prefetch(@NonNull Context context, BigDecimal amount,
+                         @NonNull ModalActivity.ModalType type, @Nullable String modalId,
+                         @Nullable String pageType, @Nullable String promoId) {
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        if (plugins == null || !plugins.prefetchModals()) {
+            return;
+        }
+        final Map<String, String> params =
+                ModalActivity.buildParams(amount, modalId, pageType, promoId);
+        final String key = key(type, params);
+        if (AffirmWebViewPool.contains(key) || AffirmWebViewPool.limit(context) == 0) {
+            return;
+        }
+
+        final String html;
+        try {
+            html = ModalActivity.renderHtml(context.getResources(), type, params);
+        } catch (IOException e) {
+            AffirmLog.w("Failed to prefetch the modal: " + e.toString());
+            return;
+        }
+        final AffirmWebView reused = AffirmWebViewPool.reuse(context);
+        final AffirmWebView webView =
+                reused != null ? reused : AffirmWebViewPool.create(context);
+        webView.setWebViewClient(new ModalWebViewClient(new ModalWebViewClient.Callbacks() {
+            @Override
+            public void onWebViewCancellation() {
+                // Not shown yet
+            }
+
+            @Override
+            public void onWebViewError(@NonNull ConnectionException error) {
+                AffirmWebViewPool.remove(key, webView);
+            }
+        }));
+        webView.loadDataWithBaseURL(HTTPS_PROTOCOL + plugins.basePromoUrl(), html, TEXT_HTML,
+                UTF_8, null);
+        AffirmWebViewPool.put(context, key, webView);
+    }
+
+    /**
+     * @return The WebView that loaded this modal, or null if it wasn't prefetched
+     */
+    @Nullable
+    static AffirmWebView take(@NonNull ModalActivity.ModalType type,
+                              @NonNull Map<String, String> params) {
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        if (plugins == null || !plugins.prefetchModals()) {
+            return null;
+        }
+        return AffirmWebViewPool.take(key(type, params));
+    }
+
+    @NonNull
+    private static String key(@NonNull ModalActivity.ModalType type,
+                              @NonNull Map<String, String> params) {
+        return "modal:" + type.name() + new TreeMap<>(params);
+    }
+}
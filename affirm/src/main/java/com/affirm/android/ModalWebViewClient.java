@@ -4,8 +4,6 @@ import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
 
-import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CANCELLATION_URL;
-
 final class ModalWebViewClient extends AffirmWebViewClient {
 
     private final Callbacks callbacks;
@@ -17,7 +15,7 @@ final class ModalWebViewClient extends AffirmWebViewClient {
 
     @Override
     boolean hasCallbackUrl(WebView view, String url) {
-        if (url.contains(AFFIRM_CHECKOUT_CANCELLATION_URL)) {
+        if (route(url) == AffirmUrlRouter.Route.CHECKOUT_CANCELLATION) {
             callbacks.onWebViewCancellation();
             return true;
         }
@@ -58,9 +58,7 @@ public class PrequalActivity extends AffirmActivity implements PrequalWebViewCli
             @Nullable String promoId,
             @Nullable String pageType) {
         final Intent intent = new Intent(originalActivity, PrequalActivity.class);
-        final String stringAmount =
-                String.valueOf(AffirmUtils.decimalDollarsToIntegerCents(amount));
-        intent.putExtra(AMOUNT, stringAmount);
+        intent.putExtra(AMOUNT, centsOf(amount));
         intent.putExtra(PROMO_ID, promoId);
         intent.putExtra(PAGE_TYPE, pageType);
         return intent;
@@ -91,8 +89,35 @@ public class PrequalActivity extends AffirmActivity implements PrequalWebViewCli
         }
     }
 
+    @NonNull
+    @Override
+    String metricsLabel() {
+        return "prequal_screen";
+    }
+
     @Override
     void onAttached() {
+        final String url = buildUrl(amount, promoId, pageType);
+        final AffirmWebView prefetched = PrequalPrefetcher.take(url);
+        if (prefetched != null) {
+            showPrefetched(prefetched);
+            return;
+        }
+        webView.loadUrl(url);
+    }
+
+    @NonNull
+    private static String centsOf(BigDecimal amount) {
+        return String.valueOf(AffirmUtils.decimalDollarsToIntegerCents(amount));
+    }
+
+    /**
+     * @param amount the amount in cents
+     * @return The url of the prequal flow
+     */
+    @NonNull
+    static String buildUrl(@Nullable String amount, @Nullable String promoId,
+                           @Nullable String pageType) {
         String publicKey = AffirmPlugins.get().publicKey();
         String prequalUri = HTTPS_PROTOCOL + AffirmPlugins.get().basePromoUrl() + PREQUAL_PATH;
         Uri.Builder builder = Uri.parse(prequalUri).buildUpon();
@@ -107,7 +132,7 @@ public class PrequalActivity extends AffirmActivity implements PrequalWebViewCli
         if (pageType != null) {
             builder.appendQueryParameter(PREQUAL_PAGE_TYPE, pageType);
         }
-        webView.loadUrl(builder.build().toString());
+        return builder.build().toString();
     }
 
     @Override
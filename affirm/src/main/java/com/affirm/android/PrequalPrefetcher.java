@@ -0,0 +1,72 @@
+package com.affirm.android;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.affirm.android.exception.ConnectionException;
+
+import java.math.BigDecimal;
+
+/**
+ * Loads the prequal flow of a promo in a pooled WebView once the promo is shown, so its
+ * connection, page, scripts & first requests are done before it's tapped. It's enabled with
+ * {@link Affirm.Configuration.Builder#setPrefetchPrequal(boolean)}.
+ * <p>
+ * Only used on the main thread.
+ */
+final class PrequalPrefetcher {
+
+    private PrequalPrefetcher() {
+    }
+
+    static void prefetch(@NonNull Context context, BigDecimal amount, @Nullable String promoId,
+                         @Nullable String pageType) {
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        if (plugins == null || !plugins.prefetchPrequal()) {
+            return;
+        }
+        final String url = PrequalActivity.buildUrl(
+                String.valueOf(AffirmUtils.decimalDollarsToIntegerCents(amount)), promoId,
+                pageType);
+        final String key = key(url);
+        if (AffirmWebViewPool.contains(key) || AffirmWebViewPool.limit(context) == 0) {
+            return;
+        }
+
+        final AffirmWebView reused = AffirmWebViewPool.reuse(context);
+        final AffirmWebView webView =
+                reused != null ? reused : AffirmWebViewPool.create(context);
+        webView.setWebViewClient(new PrequalWebViewClient(new PrequalWebViewClient.Callbacks() {
+            @Override
+            public void onWebViewConfirmation() {
+                // Not shown yet
+            }
+
+            @Override
+            public void onWebViewError(@NonNull ConnectionException error) {
+                AffirmWebViewPool.remove(key, webView);
+            }
+        }));
+        webView.loadUrl(url);
+        AffirmWebViewPool.put(context, key, webView);
+    }
+
+    /**
+     * @return The WebView that loaded this prequal url, or null if it wasn't prefetched
+     */
+    @Nullable
+    static AffirmWebView take(@NonNull String url) {
+        final AffirmPlugins plugins = AffirmPlugins.get();
+        if (plugins == null || !plugins.prefetchPrequal()) {
+            return null;
+        }
+        return AffirmWebViewPool.take(key(url));
+    }
+
+    @NonNull
+    private static String key(@NonNull String url) {
+        return "prequal:" + url;
+    }
+}
@@ -4,8 +4,6 @@ import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
 
-import static com.affirm.android.AffirmConstants.REFERRING_URL;
-
 final class PrequalWebViewClient extends AffirmWebViewClient {
 
     private final Callbacks callbacks;
@@ -17,7 +15,7 @@ final class PrequalWebViewClient extends AffirmWebViewClient {
 
     @Override
     boolean hasCallbackUrl(WebView view, String url) {
-        if (url.equals(REFERRING_URL)) {
+        if (route(url) == AffirmUrlRouter.Route.PREQUAL_CONFIRMATION) {
             callbacks.onWebViewConfirmation();
             return true;
         }
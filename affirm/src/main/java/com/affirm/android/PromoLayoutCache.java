@@ -0,0 +1,218 @@
+package com.affirm.android;
+
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the rendered promo labels, so binding a label already shown by another list cell costs
+ * two map lookups instead of building its spans and measuring it again:
+ * <ul>
+ * <li>the spans of a promo, keyed by its text, text size, logo & style sheet</li>
+ * <li>the {@link StaticLayout} of those spans, keyed by the width it's laid out in, the
+ * typeface & the text color</li>
+ * </ul>
+ * Layouts are drawn by the views of several cells, so it's only used on the main thread.
+ */
+final class PromoLayoutCache {
+
+    private static final int MAX_SPANS = 64;
+    private static final int MAX_LAYOUTS = 64;
+    // The line starts, tops, descents & directions a StaticLayout keeps per line
+    private static final int LAYOUT_LINE_BYTES = 64;
+
+    // Marks a html promo that can't be rendered natively
+    static final CharSequence NOT_RENDERABLE = "";
+
+    static final class Key {
+        @NonNull
+        final String text;
+        @Nullable
+        final Object style;
+        @NonNull
+        final String logoKey;
+        final float textSize;
+        final int width;
+        @Nullable
+        final Typeface typeface;
+        final int textColor;
+
+        private final int hashCode;
+
+        Key(@NonNull String text,
+            @Nullable Object style,
+            @NonNull String logoKey,
+            float textSize,
+            int width,
+            @Nullable Typeface typeface,
+            int textColor) {
+            this.text = text;
+            this.style = style;
+            this.logoKey = logoKey;
+            this.textSize = textSize;
+            this.width = width;
+            this.typeface = typeface;
+            this.textColor = textColor;
+            int hash = text.hashCode();
+            hash = 31 * hash + (style != null ? style.hashCode() : 0);
+            hash = 31 * hash + logoKey.hashCode();
+            hash = 31 * hash + Float.floatToIntBits(textSize);
+            hash = 31 * hash + width;
+            hash = 31 * hash + (typeface != null ? typeface.hashCode() : 0);
+            hash = 31 * hash + textColor;
+            this.hashCode = hash;
+        }
+
+        /**
+         * @return The key of the layout of these spans in {@code width}
+         */
+        @NonNull
+        Key withLayout(int width, @Nullable Typeface typeface, int textColor) {
+            return new Key(text, style, logoKey, textSize, width, typeface, textColor);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return hashCode == key.hashCode
+                    && Float.compare(key.textSize, textSize) == 0
+                    && width == key.width
+                    && textColor == key.textColor
+                    && text.equals(key.text)
+                    && style == key.style
+                    && logoKey.equals(key.logoKey)
+                    && (typeface != null ? typeface.equals(key.typeface) : key.typeface == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final Map<Key, CharSequence> SPANS = new LruMap<>(MAX_SPANS);
+    private static final Map<Key, Layout> LAYOUTS = new LruMap<>(MAX_LAYOUTS);
+
+    private PromoLayoutCache() {
+    }
+
+    /**
+     * @return The key of the spans of a promo, see {@link Key#withLayout(int, Typeface, int)}
+     */
+    @NonNull
+    static Key spansKey(@NonNull String text,
+                        @Nullable Object style,
+                        @NonNull AffirmLogoType logoType,
+                        @NonNull AffirmColor color,
+                        float textSize) {
+        return new Key(text, style, logoType.name() + '/' + color.name(), textSize, 0, null, 0);
+    }
+
+    @Nullable
+    static CharSequence getSpans(@NonNull Key spansKey) {
+        return SPANS.get(spansKey);
+    }
+
+    static void putSpans(@NonNull Key spansKey, @NonNull CharSequence spans) {
+        SPANS.put(spansKey, spans);
+    }
+
+    /**
+     * @param maxWidth the width available to the label, it's laid out in less when it's shorter
+     * @return The cached layout of the spans, or a new one
+     */
+    @NonNull
+    static Layout getLayout(@NonNull Key spansKey,
+                            @NonNull CharSequence spans,
+                            int maxWidth,
+                            @Nullable Typeface typeface,
+                            int textColor) {
+        final Key layoutKey = spansKey.withLayout(maxWidth, typeface, textColor);
+        Layout layout = LAYOUTS.get(layoutKey);
+        if (layout == null) {
+            layout = buildLayout(spans, spansKey.textSize, maxWidth, typeface, textColor);
+            LAYOUTS.put(layoutKey, layout);
+        }
+        return layout;
+    }
+
+    @SuppressWarnings("deprecation")
+    @NonNull
+    private static Layout buildLayout(@NonNull CharSequence spans,
+                                      float textSize,
+                                      int maxWidth,
+                                      @Nullable Typeface typeface,
+                                      int textColor) {
+        // Every layout has its own paint, the views drawing it share it
+        final TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+        paint.setTextSize(textSize);
+        paint.setTypeface(typeface);
+        paint.setColor(textColor);
+        final int desiredWidth = (int) Math.ceil(Layout.getDesiredWidth(spans, paint));
+        final int width = Math.max(0, Math.min(desiredWidth, maxWidth));
+        return new StaticLayout(spans, paint, width, Layout.Alignment.ALIGN_CENTER, 1f, 0f,
+                false);
+    }
+
+    @VisibleForTesting
+    static int layoutCount() {
+        return LAYOUTS.size();
+    }
+
+    /**
+     * @return The estimated bytes released
+     */
+    static long clear() {
+        long bytes = clearLayouts();
+        for (CharSequence spans : SPANS.values()) {
+            bytes += estimateBytes(spans);
+        }
+        SPANS.clear();
+        return bytes;
+    }
+
+    /**
+     * @return The estimated bytes released
+     */
+    static long clearLayouts() {
+        long bytes = 0;
+        for (Layout layout : LAYOUTS.values()) {
+            // The text is shared with the spans, a layout holds its lines
+            bytes += LAYOUT_LINE_BYTES * layout.getLineCount();
+        }
+        LAYOUTS.clear();
+        return bytes;
+    }
+
+    private static long estimateBytes(@NonNull CharSequence spans) {
+        return 2L * spans.length();
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.affirm.android;
 
-import android.net.Uri;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
@@ -18,13 +17,10 @@ import org.jetbrains.annotations.NotNull;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Locale;
 
 import okhttp3.Call;
 import okhttp3.OkHttpClient;
 
-import static com.affirm.android.AffirmConstants.PROMO_PATH;
-
 class PromoRequest implements AffirmRequest {
 
     @Nullable
@@ -45,9 +41,16 @@ class PromoRequest implements AffirmRequest {
     private final SpannablePromoCallback callback;
 
     private final boolean isHtmlStyle;
+    // Overrides the promo timeout of the configuration when set
+    private final long timeoutMillis;
 
     private Call promoCall;
 
+    // Bumped by every create & cancel, a send deferred until Affirm is ready is dropped if stale
+    private int generation;
+
+    private String promoUrl;
+
     PromoRequest(
             @Nullable final String promoId,
             @Nullable final PromoPageType pageType,
@@ -75,6 +78,23 @@ class PromoRequest implements AffirmRequest {
             boolean isHtmlStyle,
             @Nullable List<Item> items,
             @NonNull SpannablePromoCallback callback
+    ) {
+        this(okHttpClient, promoId, pageType, dollarAmount, showCta,
+                affirmColor, affirmLogoType, isHtmlStyle, items, 0, callback);
+    }
+
+    PromoRequest(
+            @Nullable OkHttpClient okHttpClient,
+            @Nullable final String promoId,
+            @Nullable final PromoPageType pageType,
+            final BigDecimal dollarAmount,
+            final boolean showCta,
+            @NonNull final AffirmColor affirmColor,
+            @NonNull final AffirmLogoType affirmLogoType,
+            boolean isHtmlStyle,
+            @Nullable List<Item> items,
+            long timeoutMillis,
+            @NonNull SpannablePromoCallback callback
     ) {
         this.okHttpClient = okHttpClient;
         this.promoId = promoId;
@@ -85,6 +105,7 @@ class PromoRequest implements AffirmRequest {
         this.affirmLogoType = affirmLogoType;
         this.isHtmlStyle = isHtmlStyle;
         this.items = items;
+        this.timeoutMillis = timeoutMillis;
         this.callback = callback;
     }
 
@@ -96,26 +117,49 @@ class PromoRequest implements AffirmRequest {
             return;
         }
 
-        if (promoCall != null) {
-            promoCall.cancel();
+        final int sendGeneration;
+        synchronized (this) {
+            if (promoCall != null) {
+                promoCall.cancel();
+                promoCall = null;
+            }
+            sendGeneration = ++generation;
         }
+        AffirmPlugins.get().whenReady(() -> send(sendGeneration));
+    }
 
-        promoCall = AffirmClient.send(okHttpClient, new AffirmPromoRequest(),
-                new AffirmClient.AffirmListener<PromoResponse>() {
+    private synchronized void send(int sendGeneration) {
+        if (sendGeneration != generation) {
+            return;
+        }
+        final AffirmMetrics metrics = AffirmMetrics.get();
+        final String correlationId = metrics.newCorrelationId(AffirmMetrics.LABEL_PROMO);
+        final long start = System.nanoTime();
+        final int traceCookie =
+                AffirmTrace.beginAsyncSection(AffirmTrace.PROMO_REQUEST, correlationId);
+        final long timeout =
+                timeoutMillis > 0 ? timeoutMillis : AffirmPlugins.get().promoTimeoutMillis();
+        promoCall = AffirmClient.send(okHttpClient, new AffirmPromoRequest(), correlationId,
+                null, timeout, new AffirmClient.AffirmListener<PromoResponse>() {
                     @Override
                     public void onSuccess(PromoResponse response) {
+                        metrics.recordSince(AffirmMetric.REQUEST_DURATION, correlationId, start);
                         handleSuccessResponse(response);
+                        AffirmTrace.endAsyncSection(AffirmTrace.PROMO_REQUEST, traceCookie);
                     }
 
                     @Override
                     public void onFailure(AffirmException exception) {
+                        metrics.recordSince(AffirmMetric.REQUEST_DURATION, correlationId, start);
                         callback.onFailure(exception);
+                        AffirmTrace.endAsyncSection(AffirmTrace.PROMO_REQUEST, traceCookie);
                     }
                 });
     }
 
     @Override
-    public void cancel() {
+    public synchronized void cancel() {
+        generation++;
         if (promoCall != null) {
             promoCall.cancel();
             promoCall = null;
@@ -148,37 +192,19 @@ class PromoRequest implements AffirmRequest {
         @NotNull
         @Override
         public String url() {
-            int centAmount = AffirmUtils.decimalDollarsToIntegerCents(dollarAmount);
-            StringBuilder path = new StringBuilder(
-                    String.format(
-                            Locale.getDefault(),
-                            PROMO_PATH,
-                            AffirmPlugins.get().publicKey(),
-                            centAmount,
-                            showCta
-                    )
-            );
-
-            if (promoId != null) {
-                path.append("&promo_external_id=").append(promoId);
-            }
-
-            if (pageType != null) {
-                path.append("&page_type=").append(pageType.getType());
+            // The request parameters never change, so the url is only built once per request
+            if (promoUrl == null) {
+                promoUrl = AffirmPlugins.get().promoUrlFactory().build(
+                        AffirmUtils.decimalDollarsToIntegerCents(dollarAmount),
+                        showCta,
+                        promoId,
+                        pageType,
+                        affirmColor,
+                        affirmLogoType,
+                        items
+                );
             }
-
-            path.append("&logo_color=")
-                    .append(affirmColor.getColor())
-                    .append("&logo_type=")
-                    .append(affirmLogoType.getType());
-
-            if (items != null) {
-                path.append("&items=").append(Uri.encode(AffirmPlugins.get().gson().toJson(items)));
-            }
-
-            return AffirmHttpClient.getProtocol()
-                    + AffirmPlugins.get().basePromoUrl()
-                    + path.toString();
+            return promoUrl;
         }
 
         @NotNull
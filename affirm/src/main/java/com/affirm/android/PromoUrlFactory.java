@@ -0,0 +1,102 @@
+package com.affirm.android;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.affirm.android.model.Item;
+import com.affirm.android.model.PromoPageType;
+import com.google.gson.Gson;
+
+import java.util.List;
+
+import okhttp3.HttpUrl;
+
+import static com.affirm.android.AffirmConstants.PROMO_AMOUNT;
+import static com.affirm.android.AffirmConstants.PROMO_FIELD;
+import static com.affirm.android.AffirmConstants.PROMO_FIELD_VALUE;
+import static com.affirm.android.AffirmConstants.PROMO_IS_SDK;
+import static com.affirm.android.AffirmConstants.PROMO_ITEMS;
+import static com.affirm.android.AffirmConstants.PROMO_LOGO_COLOR;
+import static com.affirm.android.AffirmConstants.PROMO_LOGO_TYPE;
+import static com.affirm.android.AffirmConstants.PROMO_PAGE_TYPE;
+import static com.affirm.android.AffirmConstants.PROMO_PATH;
+import static com.affirm.android.AffirmConstants.PROMO_PROMO_EXTERNAL_ID;
+import static com.affirm.android.AffirmConstants.PROMO_SHOW_CTA;
+
+/**
+ * Builds promo urls. The static part of the url (protocol, host, public key & fixed query
+ * parameters) is built once per configuration, and the encoded items are reused as long as
+ * the same items are requested again.
+ */
+final class PromoUrlFactory {
+
+    @NonNull
+    private final HttpUrl baseUrl;
+    @NonNull
+    private final Gson gson;
+
+    @Nullable
+    private List<Item> cachedItems;
+    private int cachedItemsHash;
+    @Nullable
+    private String cachedEncodedItems;
+
+    PromoUrlFactory(@NonNull String protocol,
+                    @NonNull String basePromoUrl,
+                    @NonNull String publicKey,
+                    @NonNull Gson gson) {
+        this.baseUrl = HttpUrl.get(protocol + basePromoUrl + PROMO_PATH + publicKey)
+                .newBuilder()
+                .addQueryParameter(PROMO_IS_SDK, "true")
+                .addQueryParameter(PROMO_FIELD, PROMO_FIELD_VALUE)
+                .build();
+        this.gson = gson;
+    }
+
+    @NonNull
+    String build(int centAmount,
+                 boolean showCta,
+                 @Nullable String promoId,
+                 @Nullable PromoPageType pageType,
+                 @NonNull AffirmColor affirmColor,
+                 @NonNull AffirmLogoType affirmLogoType,
+                 @Nullable List<Item> items) {
+        final HttpUrl.Builder builder = baseUrl.newBuilder()
+                .addQueryParameter(PROMO_AMOUNT, Integer.toString(centAmount))
+                .addQueryParameter(PROMO_SHOW_CTA, showCta ? "true" : "false");
+
+        if (promoId != null) {
+            builder.addQueryParameter(PROMO_PROMO_EXTERNAL_ID, promoId);
+        }
+
+        if (pageType != null) {
+            builder.addQueryParameter(PROMO_PAGE_TYPE, pageType.getType());
+        }
+
+        builder.addQueryParameter(PROMO_LOGO_COLOR, affirmColor.getColor())
+                .addQueryParameter(PROMO_LOGO_TYPE, affirmLogoType.getType());
+
+        if (items != null) {
+            builder.addEncodedQueryParameter(PROMO_ITEMS, encodeItems(items));
+        }
+
+        return builder.build().toString();
+    }
+
+    @VisibleForTesting
+    @NonNull
+    synchronized String encodeItems(@NonNull List<Item> items) {
+        final int hash = items.hashCode();
+        final boolean sameItems = hash == cachedItemsHash
+                && (items == cachedItems || items.equals(cachedItems));
+        if (cachedEncodedItems == null || !sameItems) {
+            cachedEncodedItems = Uri.encode(gson.toJson(items));
+            cachedItems = items;
+            cachedItemsHash = hash;
+        }
+        return cachedEncodedItems;
+    }
+}
@@ -12,7 +12,6 @@ import androidx.annotation.NonNull;
 import com.affirm.android.exception.ConnectionException;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 
 import static com.affirm.android.AffirmConstants.AFFIRM_FONT;
@@ -111,8 +110,7 @@ public class PromotionWebView extends AffirmWebView implements AffirmWebChromeCl
     private String initialHtml(String promoHtml, String remoteCssUrl, String typeface) {
         String html;
         try {
-            final InputStream ins = getResources().openRawResource(R.raw.affirm_promo);
-            html = AffirmUtils.readInputStream(ins);
+            html = AffirmUtils.readTemplate(getResources(), R.raw.affirm_promo);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -45,6 +45,8 @@ class TrackerRequest implements AffirmRequest {
         }
 
         trackingCall = AffirmClient.send(okHttpClient, new AffirmTrackerRequest(),
+                AffirmMetrics.get().newCorrelationId(AffirmMetrics.LABEL_TRACKER), null,
+                AffirmPlugins.get().trackerTimeoutMillis(),
                 new AffirmClient.AffirmListener<Void>() {
 
                     @Override
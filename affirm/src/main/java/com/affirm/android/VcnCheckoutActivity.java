@@ -12,7 +12,6 @@ import com.affirm.android.model.Checkout;
 import com.affirm.android.model.CheckoutResponse;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.HashMap;
 
 import androidx.annotation.NonNull;
@@ -24,7 +23,7 @@ import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CONFIRMATION_UR
 import static com.affirm.android.AffirmConstants.CANCELLED_CB_URL;
 import static com.affirm.android.AffirmConstants.CHECKOUT_CAAS_EXTRA;
 import static com.affirm.android.AffirmConstants.CHECKOUT_CARD_AUTH_WINDOW;
-import static com.affirm.android.AffirmConstants.CHECKOUT_EXTRA;
+import static com.affirm.android.AffirmConstants.CHECKOUT_SESSION_ID;
 import static com.affirm.android.AffirmConstants.CONFIRM_CB_URL;
 import static com.affirm.android.AffirmConstants.CREDIT_DETAILS;
 import static com.affirm.android.AffirmConstants.VCN_REASON;
@@ -68,7 +67,7 @@ public class VcnCheckoutActivity extends CheckoutBaseActivity
 
         receiveReasonCodes = configReceiveReasonCodes;
         final Intent intent = new Intent(originalActivity, VcnCheckoutActivity.class);
-        intent.putExtra(CHECKOUT_EXTRA, checkout);
+        intent.putExtra(CHECKOUT_SESSION_ID, CheckoutSessionStore.put(checkout));
         intent.putExtra(CHECKOUT_CAAS_EXTRA, caas);
         intent.putExtra(CHECKOUT_CARD_AUTH_WINDOW, cardAuthWindow);
         return intent;
@@ -79,6 +78,9 @@ public class VcnCheckoutActivity extends CheckoutBaseActivity
         AffirmUtils.debuggableWebView(this);
         webView.setWebViewClient(
                 new VcnCheckoutWebViewClient(AffirmPlugins.get().gson(), receiveReasonCodes, this));
+        webView.addJavascriptInterface(new VcnCheckoutBridge(AffirmPlugins.get().gson(),
+                receiveReasonCodes, AffirmPlugins.get().backgroundExecutor(), this),
+                VcnCheckoutBridge.NAME);
         webView.setWebChromeClient(new AffirmWebChromeClient(this));
     }
 
@@ -87,6 +89,12 @@ public class VcnCheckoutActivity extends CheckoutBaseActivity
         return true;
     }
 
+    @NonNull
+    @Override
+    String metricsLabel() {
+        return "vcn_checkout_screen";
+    }
+
     @Override
     InnerCheckoutCallback getInnerCheckoutCallback() {
         return new InnerCheckoutCallback() {
@@ -108,21 +116,25 @@ public class VcnCheckoutActivity extends CheckoutBaseActivity
     }
 
     private String initialHtml(@NonNull CheckoutResponse response) {
-        String html;
+        AffirmTrace.beginSection(AffirmTrace.INITIAL_HTML);
         try {
-            final InputStream ins = getResources().openRawResource(R.raw.affirm_vcn_checkout);
-            html = AffirmUtils.readInputStream(ins);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+            String html;
+            try {
+                html = AffirmUtils.readTemplate(getResources(), R.raw.affirm_vcn_checkout);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
 
-        final HashMap<String, String> map = new HashMap<>();
+            final HashMap<String, String> map = new HashMap<>();
 
-        map.put(URL, response.redirectUrl());
-        map.put(URL2, response.redirectUrl());
-        map.put(CONFIRM_CB_URL, AFFIRM_CHECKOUT_CONFIRMATION_URL);
-        map.put(CANCELLED_CB_URL, AFFIRM_CHECKOUT_CANCELLATION_URL);
-        return AffirmUtils.replacePlaceholders(html, map);
+            map.put(URL, response.redirectUrl());
+            map.put(URL2, response.redirectUrl());
+            map.put(CONFIRM_CB_URL, AFFIRM_CHECKOUT_CONFIRMATION_URL);
+            map.put(CANCELLED_CB_URL, AFFIRM_CHECKOUT_CANCELLATION_URL);
+            return AffirmUtils.replacePlaceholders(html, map);
+        } finally {
+            AffirmTrace.endSection();
+        }
     }
 
     @Override
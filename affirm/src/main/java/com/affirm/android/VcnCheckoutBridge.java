@@ -0,0 +1,81 @@
+package com.affirm.android;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.webkit.JavascriptInterface;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.affirm.android.exception.ConnectionException;
+import com.affirm.android.model.CardDetails;
+import com.affirm.android.model.VcnReason;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Receives the result of a VCN checkout from the page of {@code affirm_vcn_checkout.html} as a
+ * json message, instead of a callback url carrying it url-encoded. The json is decoded on the
+ * executor and the result is posted to the main thread, only the first result is delivered.
+ * <p>
+ * The page can already close the checkout by loading the callback urls, so the bridge doesn't
+ * give it anything more.
+ */
+final class VcnCheckoutBridge {
+
+    // The name of the bridge in the page, see affirm_vcn_checkout.html
+    static final String NAME = "AffirmVcnCheckout";
+
+    private final Gson gson;
+    private final String receiveReasonCodes;
+    private final Executor executor;
+    private final VcnCheckoutWebViewClient.Callbacks callbacks;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    VcnCheckoutBridge(@NonNull Gson gson,
+                      @NonNull String receiveReasonCodes,
+                      @NonNull Executor executor,
+                      @NonNull VcnCheckoutWebViewClient.Callbacks callbacks) {
+        this.gson = gson;
+        this.receiveReasonCodes = receiveReasonCodes;
+        this.executor = executor;
+        this.callbacks = callbacks;
+    }
+
+    /**
+     * Called by the page on a WebView thread once the checkout is closed.
+     *
+     * @param success whether the checkout was confirmed
+     * @param json    the card details when confirmed, or the reason of the cancellation
+     */
+    @JavascriptInterface
+    public void onCheckoutClose(boolean success, @Nullable String json) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                if (success) {
+                    final CardDetails cardDetails = gson.fromJson(json, CardDetails.class);
+                    if (cardDetails == null) {
+                        throw new JsonParseException("No card details");
+                    }
+                    mainHandler.post(() -> callbacks.onWebViewConfirmation(cardDetails));
+                } else {
+                    final VcnReason vcnReason = json != null && !json.isEmpty()
+                            ? gson.fromJson(json, VcnReason.class) : null;
+                    mainHandler.post(() -> VcnCheckoutWebViewClient.deliverCancellation(
+                            receiveReasonCodes, vcnReason, callbacks));
+                }
+            } catch (JsonParseException e) {
+                AffirmLog.e("Failed to decode the checkout result: " + e.toString());
+                mainHandler.post(() -> callbacks.onWebViewError(
+                        new ConnectionException("Invalid checkout result", e)));
+            }
+        });
+    }
+}
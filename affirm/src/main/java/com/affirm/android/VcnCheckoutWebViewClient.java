@@ -17,9 +17,6 @@ import com.google.gson.JsonSyntaxException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 
-import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CANCELLATION_URL;
-import static com.affirm.android.AffirmConstants.AFFIRM_CHECKOUT_CONFIRMATION_URL;
-import static com.affirm.android.AffirmConstants.HTTPS_PROTOCOL;
 import static com.affirm.android.AffirmConstants.INVALID_CHECKOUT_MESSAGE;
 
 final class VcnCheckoutWebViewClient extends AffirmWebViewClient {
@@ -41,8 +38,7 @@ final class VcnCheckoutWebViewClient extends AffirmWebViewClient {
     @Nullable
     @Override
     public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
-        if (request.getUrl().toString().equals(HTTPS_PROTOCOL
-                + AffirmPlugins.get().baseInvalidCheckoutRedirectUrl())) {
+        if (route(request.getUrl()) == AffirmUrlRouter.Route.INVALID_CHECKOUT) {
             callbacks.onWebViewError(
                     new ConnectionException(INVALID_CHECKOUT_MESSAGE)
             );
@@ -53,33 +49,28 @@ final class VcnCheckoutWebViewClient extends AffirmWebViewClient {
 
     @Override
     boolean hasCallbackUrl(WebView view, String url) {
-        if (url.contains(AFFIRM_CHECKOUT_CONFIRMATION_URL)) {
+        final AffirmUrlRouter.Route route = route(url);
+        if (route == AffirmUrlRouter.Route.CHECKOUT_CONFIRMATION) {
             final String encodedString = Uri.parse(url).getQueryParameter(VCN_CHECKOUT_REGEX);
             try {
                 final String json = URLDecoder.decode(encodedString, ENCODING_FORMAT);
                 final CardDetails cardDetails = gson.fromJson(json, CardDetails.class);
                 callbacks.onWebViewConfirmation(cardDetails);
             } catch (UnsupportedEncodingException | JsonSyntaxException e) {
-                throw new RuntimeException(e);
+                callbacks.onWebViewError(new ConnectionException("Invalid checkout result", e));
             }
             return true;
-        } else if (url.contains(AFFIRM_CHECKOUT_CANCELLATION_URL)) {
+        } else if (route == AffirmUrlRouter.Route.CHECKOUT_CANCELLATION) {
             final String encodedString = Uri.parse(url).getQueryParameter(VCN_CHECKOUT_REGEX);
             try {
-                VcnReason vcnReason;
+                VcnReason vcnReason = null;
                 if (encodedString != null && !encodedString.isEmpty()) {
                     final String json = URLDecoder.decode(encodedString, ENCODING_FORMAT);
                     vcnReason = gson.fromJson(json, VcnReason.class);
-                } else {
-                    vcnReason = VcnReason.builder().setReason(DEFAULT_CANCEL_REASON).build();
-                }
-                if (receiveReasonCodes.equals("false")) {
-                    callbacks.onWebViewCancellation();
-                } else {
-                    callbacks.onWebViewCancellationReason(vcnReason);
                 }
+                deliverCancellation(receiveReasonCodes, vcnReason, callbacks);
             } catch (UnsupportedEncodingException | JsonSyntaxException e) {
-                throw new RuntimeException(e);
+                callbacks.onWebViewError(new ConnectionException("Invalid checkout result", e));
             }
             return true;
         }
@@ -87,6 +78,20 @@ final class VcnCheckoutWebViewClient extends AffirmWebViewClient {
         return false;
     }
 
+    /**
+     * Tell the cancellation of the checkout, with its reason if reason codes are received.
+     */
+    static void deliverCancellation(@NonNull String receiveReasonCodes,
+                                    @Nullable VcnReason vcnReason,
+                                    @NonNull Callbacks callbacks) {
+        if (receiveReasonCodes.equals("false")) {
+            callbacks.onWebViewCancellation();
+        } else {
+            callbacks.onWebViewCancellationReason(vcnReason != null ? vcnReason
+                    : VcnReason.builder().setReason(DEFAULT_CANCEL_REASON).build());
+        }
+    }
+
     interface Callbacks extends WebViewClientCallbacks {
         void onWebViewConfirmation(@NonNull CardDetails cardDetails);
 
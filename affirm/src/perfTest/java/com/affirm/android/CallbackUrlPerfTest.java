@@ -0,0 +1,89 @@
+package com.affirm.android;
+
+import android.net.Uri;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class CallbackUrlPerfTest {
+
+    // The requests of a checkout page, in the order a WebView sees them, then its callback
+    private static final String[] CHECKOUT_PAGE_REQUESTS = {
+            "https://sandbox.affirm.com/checkout/AB12CD34EF56GH78/new",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/main.3f9a1c.css",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/vendor.8e21ab.css",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/runtime.51d0e2.js",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/vendor.a7734f.js",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/main.c90b7d.js",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/i18n/en-US.json",
+            "https://cdn1-sandbox.affirm.com/fonts/calibre-regular.woff2",
+            "https://cdn1-sandbox.affirm.com/fonts/calibre-semibold.woff2",
+            "https://cdn1-sandbox.affirm.com/images/branding/logo-blue.svg",
+            "https://cdn1-sandbox.affirm.com/images/icons/lock.svg",
+            "https://cdn1-sandbox.affirm.com/images/icons/chevron-right.svg",
+            "https://sandbox.affirm.com/api/v2/checkout/AB12CD34EF56GH78",
+            "https://sandbox.affirm.com/api/v2/checkout/AB12CD34EF56GH78/terms",
+            "https://sandbox.affirm.com/api/v2/user/session",
+            "https://sandbox.affirm.com/api/v2/experiments?page=checkout",
+            "https://sandbox.affirm.com/api/v2/merchant/Y8CQXFF044903JC0/config",
+            "https://www.google-analytics.com/analytics.js",
+            "https://www.google-analytics.com/collect?v=1&t=pageview&dp=%2Fcheckout",
+            "https://www.googletagmanager.com/gtm.js?id=GTM-ABC123",
+            "https://js.sentry-cdn.com/abcdef0123456789.min.js",
+            "https://o12345.ingest.sentry.io/api/67890/envelope/",
+            "https://api.segment.io/v1/t",
+            "https://api.segment.io/v1/p",
+            "https://cdn.segment.com/analytics.js/v1/abc/analytics.min.js",
+            "https://tracker.affirm.com/collect?event=checkout_start",
+            "https://tracker.affirm.com/collect?event=page_view",
+            "https://sandbox.affirm.com/api/v2/phone/verify",
+            "https://sandbox.affirm.com/api/v2/checkout/AB12CD34EF56GH78/pin",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/chunk-pin.1b2c3d.js",
+            "https://cdn1-sandbox.affirm.com/checkout/assets/chunk-terms.4e5f6a.js",
+            "https://cdn1-sandbox.affirm.com/images/illustrations/terms.svg",
+            "https://sandbox.affirm.com/api/v2/checkout/AB12CD34EF56GH78/loan",
+            "https://tracker.affirm.com/collect?event=loan_terms_viewed",
+            "https://sandbox.affirm.com/api/v2/checkout/AB12CD34EF56GH78/confirm",
+            "https://tracker.affirm.com/collect?event=checkout_confirmed",
+            "https://www.google-analytics.com/collect?v=1&t=event&ec=checkout",
+            "https://sandbox.affirm.com/u/",
+            "affirm://checkout/confirmed?checkout_token=AB12CD34EF56GH78",
+    };
+
+    private AffirmUrlRouter router;
+    private List<Uri> requestUris;
+
+    @Before
+    public void setup() {
+        if (AffirmPlugins.get() == null) {
+            Affirm.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                    Affirm.Environment.SANDBOX)
+                    .build()
+            );
+        }
+        router = AffirmPlugins.get().urlRouter();
+        // The WebView hands the resource requests already parsed
+        requestUris = new ArrayList<>(CHECKOUT_PAGE_REQUESTS.length);
+        for (String url : CHECKOUT_PAGE_REQUESTS) {
+            requestUris.add(Uri.parse(url));
+        }
+    }
+
+    @Test
+    public void routeCheckoutPage() {
+        PerfHarness.Result result = PerfHarness.measure("routeCheckoutPage", () -> {
+            for (int i = 0; i < CHECKOUT_PAGE_REQUESTS.length; i++) {
+                router.route(requestUris.get(i));
+                router.route(CHECKOUT_PAGE_REQUESTS[i]);
+            }
+        });
+
+        PerfHarness.assertWithinBudget(result);
+    }
+}
@@ -0,0 +1,174 @@
+package com.affirm.android;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.IntConsumer;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Runs an operation many times on the current thread and records the wall time and the bytes
+ * allocated per operation. The results are compared against the budgets in
+ * {@code affirm-perf-budgets.properties}, which can be overridden with system properties of the
+ * form {@code affirm.perf.budget.<name>.nsPerOp} / {@code affirm.perf.budget.<name>.bytesPerOp},
+ * and scaled for slower machines with {@code affirm.perf.budgetScale}. Each result is appended
+ * to the csv file of {@code affirm.perf.resultsFile}, when it's set.
+ */
+final class PerfHarness {
+
+    static final int WARMUP_ITERATIONS = 500;
+    static final int ITERATIONS = 5_000;
+
+    private static final String BUDGETS_RESOURCE = "/affirm-perf-budgets.properties";
+    private static final String PROPERTY_PREFIX = "affirm.perf.";
+    private static final String BUDGET_PREFIX = PROPERTY_PREFIX + "budget.";
+    private static final String NS_PER_OP = ".nsPerOp";
+    private static final String BYTES_PER_OP = ".bytesPerOp";
+
+    private static Properties budgets;
+
+    private PerfHarness() {
+    }
+
+    static final class Result {
+        final String name;
+        final int iterations;
+        final long nsPerOp;
+        // -1 when the jvm can't measure thread allocations
+        final long bytesPerOp;
+
+        Result(@NonNull String name, int iterations, long nsPerOp, long bytesPerOp) {
+            this.name = name;
+            this.iterations = iterations;
+            this.nsPerOp = nsPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s: %d ops, %d ns/op, %d bytes/op",
+                    name, iterations, nsPerOp, bytesPerOp);
+        }
+    }
+
+    @NonNull
+    static Result measure(@NonNull String name, @NonNull Runnable operation) {
+        return measure(name, WARMUP_ITERATIONS, ITERATIONS, i -> operation.run());
+    }
+
+    /**
+     * Runs {@code operation} {@code warmup} times, then measures {@code iterations} runs. The
+     * operation gets the index of the run, so per-run inputs can be prepared up front and stay
+     * out of the measurement.
+     */
+    @NonNull
+    static Result measure(@NonNull String name,
+                          int warmup,
+                          int iterations,
+                          @NonNull IntConsumer operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.accept(i);
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long startBytes = allocatedBytes(threadId);
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.accept(warmup + i);
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long endBytes = allocatedBytes(threadId);
+
+        final long bytesPerOp = startBytes < 0 || endBytes < 0
+                ? -1 : (endBytes - startBytes) / iterations;
+        final Result result = new Result(name, iterations, elapsed / iterations, bytesPerOp);
+        record(result);
+        return result;
+    }
+
+    static void assertWithinBudget(@NonNull Result result) {
+        final long nsBudget = budget(result.name + NS_PER_OP);
+        final long bytesBudget = budget(result.name + BYTES_PER_OP);
+
+        final StringBuilder failures = new StringBuilder();
+        if (nsBudget > 0 && result.nsPerOp > nsBudget) {
+            failures.append(String.format(Locale.US, "\n  %d ns/op exceeds the budget of %d",
+                    result.nsPerOp, nsBudget));
+        }
+        if (bytesBudget > 0 && result.bytesPerOp > bytesBudget) {
+            failures.append(String.format(Locale.US, "\n  %d bytes/op exceeds the budget of %d",
+                    result.bytesPerOp, bytesBudget));
+        }
+        if (failures.length() > 0) {
+            fail(result.name + " is over budget:" + failures);
+        }
+    }
+
+    private static long allocatedBytes(long threadId) {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()
+                    && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(threadId);
+            }
+        }
+        return -1;
+    }
+
+    private static long budget(@NonNull String key) {
+        String value = System.getProperty(BUDGET_PREFIX + key);
+        if (value == null) {
+            value = budgets().getProperty(key);
+        }
+        if (value == null) {
+            return -1;
+        }
+        final double scale = Double.parseDouble(
+                System.getProperty(PROPERTY_PREFIX + "budgetScale", "1"));
+        return (long) (Long.parseLong(value.trim()) * scale);
+    }
+
+    @NonNull
+    private static synchronized Properties budgets() {
+        if (budgets == null) {
+            budgets = new Properties();
+            try (InputStream inputStream =
+                         PerfHarness.class.getResourceAsStream(BUDGETS_RESOURCE)) {
+                if (inputStream != null) {
+                    budgets.load(inputStream);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read " + BUDGETS_RESOURCE, e);
+            }
+        }
+        return budgets;
+    }
+
+    private static void record(@NonNull Result result) {
+        final String path = System.getProperty(PROPERTY_PREFIX + "resultsFile");
+        if (path == null) {
+            return;
+        }
+        final File file = new File(path);
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IllegalStateException("Unable to create " + parent);
+        }
+        try (Writer writer = new FileWriter(file, true)) {
+            writer.write(String.format(Locale.US, "%s,%d,%d,%d\n",
+                    result.name, result.iterations, result.nsPerOp, result.bytesPerOp));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to record the perf result in " + path, e);
+        }
+    }
+}
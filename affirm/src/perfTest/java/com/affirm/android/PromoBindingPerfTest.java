@@ -0,0 +1,104 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.google.common.truth.Truth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.math.BigDecimal;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+@RunWith(RobolectricTestRunner.class)
+public class PromoBindingPerfTest {
+
+    private static final int ATTACH_WARMUP = 100;
+    private static final int ATTACH_ITERATIONS = 1_000;
+
+    private Activity activity;
+    private ViewGroup container;
+
+    @Before
+    public void setup() {
+        if (AffirmPlugins.get() == null) {
+            Affirm.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                    Affirm.Environment.SANDBOX)
+                    .build()
+            );
+        }
+        // Answer every promo request locally, so only the binding on the main thread is measured
+        OkHttpClient.Builder builder = new OkHttpClient.Builder();
+        builder.interceptors().add(chain -> new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create("{}", MediaType.get("application/json")))
+                .build());
+        AffirmPlugins.get().setRestClient(AffirmHttpClient.createClient(builder));
+        // Keep the promo callbacks queued, they would otherwise run on the OkHttp threads
+        ShadowLooper.pauseMainLooper();
+
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+        container = new FrameLayout(activity);
+        activity.setContentView(container);
+    }
+
+    @After
+    public void tearDown() {
+        ShadowLooper.unPauseMainLooper();
+        AffirmPlugins.get().setRestClient(null);
+    }
+
+    @Test
+    public void configureWithAmount() {
+        AffirmPromotionButton button = new AffirmPromotionButton(activity);
+        button.configWithLocalStyling(AffirmColor.AFFIRM_COLOR_TYPE_BLUE,
+                AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO);
+        BigDecimal amount = BigDecimal.valueOf(1100.0);
+
+        PerfHarness.Result result = PerfHarness.measure("configureWithAmount",
+                () -> Affirm.configureWithAmount(button, null, null, amount, false, null));
+
+        PerfHarness.assertWithinBudget(result);
+    }
+
+    @Test
+    public void lifeListenerAttach() {
+        // Build & configure the buttons up front, only the attach is measured
+        final int total = ATTACH_WARMUP + ATTACH_ITERATIONS;
+        final AffirmPromotionButton[] buttons = new AffirmPromotionButton[total];
+        BigDecimal amount = BigDecimal.valueOf(1100.0);
+        for (int i = 0; i < total; i++) {
+            buttons[i] = new AffirmPromotionButton(activity);
+            buttons[i].configWithLocalStyling(AffirmColor.AFFIRM_COLOR_TYPE_BLUE,
+                    AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO);
+            Affirm.configureWithAmount(buttons[i], null, null, amount, false, null);
+        }
+
+        PerfHarness.Result result = PerfHarness.measure("lifeListenerAttach",
+                ATTACH_WARMUP, ATTACH_ITERATIONS, i -> {
+                    container.addView(buttons[i]);
+                    container.removeView(buttons[i]);
+                });
+
+        // The buttons observe a lifecycle shared through the decor view, no fragment is added
+        Truth.assertThat(activity.getWindow().getDecorView()
+                .getTag(R.id.affirm_lifecycle_owner)).isNotNull();
+        Truth.assertThat(activity.getFragmentManager().getFragments()).isEmpty();
+        PerfHarness.assertWithinBudget(result);
+    }
+}
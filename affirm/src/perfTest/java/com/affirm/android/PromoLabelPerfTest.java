@@ -0,0 +1,104 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.text.SpannableString;
+import android.view.View;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.affirm.android.AffirmColor.AFFIRM_COLOR_TYPE_BLUE;
+import static com.affirm.android.AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO;
+
+@RunWith(RobolectricTestRunner.class)
+public class PromoLabelPerfTest {
+
+    private static final String PROMO = "Starting at $44/mo with {affirm_logo}. Learn more";
+    private static final String HTML_PROMO = "Starting at <span class=\"affirm-ala-price\">$44"
+            + "</span>/mo with <span class=\"__affirm-logo affirm-logo--blue\">Affirm</span>."
+            + " <a class=\"affirm-modal-trigger\">Learn&nbsp;more</a>";
+
+    private Activity activity;
+
+    @Before
+    public void setup() {
+        if (AffirmPlugins.get() == null) {
+            Affirm.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                    Affirm.Environment.SANDBOX)
+                    .build()
+            );
+        }
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @Test
+    public void createSpannableForText() {
+        PerfHarness.Result result = PerfHarness.measure("createSpannableForText",
+                () -> AffirmUtils.createSpannableForText(PROMO, 40f, AFFIRM_DISPLAY_TYPE_LOGO,
+                        AFFIRM_COLOR_TYPE_BLUE, activity));
+
+        PerfHarness.assertWithinBudget(result);
+    }
+
+    @Test
+    public void updateSpan() {
+        AffirmPromotionButton button = new AffirmPromotionButton(activity);
+        button.configWithLocalStyling(AFFIRM_COLOR_TYPE_BLUE, AFFIRM_DISPLAY_TYPE_LOGO);
+
+        PerfHarness.Result result = PerfHarness.measure("updateSpan",
+                () -> button.updateSpan(PROMO));
+
+        PerfHarness.assertWithinBudget(result);
+    }
+
+    @Test
+    public void setLabelLocal() {
+        AffirmPromotionButton button = new AffirmPromotionButton(activity);
+        button.configWithLocalStyling(AFFIRM_COLOR_TYPE_BLUE, AFFIRM_DISPLAY_TYPE_LOGO);
+
+        PerfHarness.Result result = PerfHarness.measure("setLabelLocal",
+                () -> button.setLabel(PROMO));
+
+        // The label is drawn by the button itself
+        Truth.assertThat(button.getChildCount()).isEqualTo(0);
+        Truth.assertThat(button.getLabel()).isInstanceOf(SpannableString.class);
+        PerfHarness.assertWithinBudget(result);
+    }
+
+    @Test
+    public void measureLabelCached() {
+        AffirmPromotionButton button = new AffirmPromotionButton(activity);
+        button.configWithLocalStyling(AFFIRM_COLOR_TYPE_BLUE, AFFIRM_DISPLAY_TYPE_LOGO);
+        button.setLabel(PROMO);
+        int widthSpec = View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.AT_MOST);
+        int heightSpec = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+
+        // Every list cell binding the promo lays it out again, with the layout from the cache
+        PerfHarness.Result result = PerfHarness.measure("measureLabelCached", () -> {
+            button.forceLayout();
+            button.measure(widthSpec, heightSpec);
+        });
+
+        Truth.assertThat(button.getMeasuredHeight()).isGreaterThan(0);
+        PerfHarness.assertWithinBudget(result);
+    }
+
+    @Test
+    public void setLabelHtml() {
+        AffirmPromotionButton button = new AffirmPromotionButton(activity);
+        button.configWithHtmlStyling();
+
+        PerfHarness.Result result = PerfHarness.measure("setLabelHtml",
+                () -> button.setLabel(HTML_PROMO));
+
+        // The promo must have been rendered natively, not with the WebView fallback
+        Truth.assertThat(button.getChildCount()).isEqualTo(0);
+        Truth.assertThat(button.getLabel()).isNotNull();
+        PerfHarness.assertWithinBudget(result);
+    }
+}
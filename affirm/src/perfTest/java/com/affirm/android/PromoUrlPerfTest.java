@@ -0,0 +1,55 @@
+package com.affirm.android;
+
+import com.affirm.android.model.Item;
+import com.google.common.truth.Truth;
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.affirm.android.AffirmColor.AFFIRM_COLOR_TYPE_BLUE;
+import static com.affirm.android.AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO;
+
+@RunWith(RobolectricTestRunner.class)
+public class PromoUrlPerfTest {
+
+    private PromoUrlFactory factory;
+    private List<Item> items;
+
+    @Before
+    public void setup() {
+        factory = new PromoUrlFactory("https://", "sandbox.affirm.com", "Y8CQXFF044903JC0",
+                new Gson());
+        items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(Item.builder()
+                    .setDisplayName("Great Deal Wheel " + i)
+                    .setImageUrl("http://merchant.com/wheel_" + i + ".jpg")
+                    .setQty(1)
+                    .setSku("wheel_" + i)
+                    .setUnitPrice(BigDecimal.valueOf(1000.0))
+                    .setUrl("http://merchant.com/great_deal_wheel")
+                    .build()
+            );
+        }
+    }
+
+    @Test
+    public void buildPromoUrl() {
+        final String[] url = new String[1];
+        PerfHarness.Result result = PerfHarness.measure("buildPromoUrl",
+                PerfHarness.WARMUP_ITERATIONS, PerfHarness.ITERATIONS,
+                i -> url[0] = factory.build(i, false, null, null, AFFIRM_COLOR_TYPE_BLUE,
+                        AFFIRM_DISPLAY_TYPE_LOGO, items));
+
+        // The items are encoded once & reused by every build
+        Truth.assertThat(url[0]).contains("&items=%5B%7B%22display_name%22");
+        PerfHarness.assertWithinBudget(result);
+    }
+}
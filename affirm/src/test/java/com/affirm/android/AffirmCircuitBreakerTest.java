@@ -0,0 +1,235 @@
+package com.affirm.android;
+
+import com.affirm.android.AffirmCircuitBreakerListener.State;
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmCircuitBreakerTest {
+
+    private final AffirmCircuitBreakerPolicy policy = new AffirmCircuitBreakerPolicy.Builder()
+            .setWindowSize(4)
+            .setMinimumCalls(4)
+            .setFailureRateThreshold(0.5f)
+            .setSlowCallMillis(1_000)
+            .setSlowCallRateThreshold(1f)
+            .setOpenMillis(10_000)
+            .setHalfOpenCalls(1)
+            .build();
+    private final List<State> states = new ArrayList<>();
+    private long now;
+    private final AffirmCircuitBreaker breaker = new AffirmCircuitBreaker(
+            AffirmMetrics.LABEL_PROMO, policy, (endpoint, state) -> states.add(state), () -> now);
+
+    @Test
+    public void testOpensOnFailureRate() {
+        record(true, 10);
+        record(true, 10);
+        record(false, 10);
+        Truth.assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        record(false, 10);
+        Truth.assertThat(breaker.state()).isEqualTo(State.OPEN);
+        Truth.assertThat(breaker.tryAcquire()).isFalse();
+        Truth.assertThat(states).containsExactly(State.OPEN);
+    }
+
+    @Test
+    public void testOpensOnSlowCalls() {
+        for (int i = 0; i < 4; i++) {
+            record(true, 2_000);
+        }
+        Truth.assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    public void testOldOutcomesLeaveTheWindow() {
+        record(false, 10);
+        for (int i = 0; i < 4; i++) {
+            record(true, 10);
+        }
+        // The first failure left the window, so there is only one failure out of 4 calls
+        record(false, 10);
+        Truth.assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void testHalfOpenTrialClosesOrReopens() {
+        for (int i = 0; i < 4; i++) {
+            record(false, 10);
+        }
+        now += 10_000;
+        Truth.assertThat(breaker.tryAcquire()).isTrue();
+        Truth.assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        // Only one trial call at a time
+        Truth.assertThat(breaker.tryAcquire()).isFalse();
+        breaker.record(false, 10);
+        Truth.assertThat(breaker.state()).isEqualTo(State.OPEN);
+
+        now += 10_000;
+        Truth.assertThat(breaker.tryAcquire()).isTrue();
+        breaker.record(true, 10);
+        Truth.assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        Truth.assertThat(states).containsExactly(State.OPEN, State.HALF_OPEN, State.OPEN,
+                State.HALF_OPEN, State.CLOSED).inOrder();
+    }
+
+    @Test
+    public void testReleasedTrialCallCanBeRetried() {
+        for (int i = 0; i < 4; i++) {
+            record(false, 10);
+        }
+        now += 10_000;
+        Truth.assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+        Truth.assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        Truth.assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void testDisabledNeverOpens() {
+        AffirmCircuitBreaker disabled = new AffirmCircuitBreaker(AffirmMetrics.LABEL_PROMO,
+                AffirmCircuitBreakerPolicy.DISABLED, null, () -> now);
+        for (int i = 0; i < 40; i++) {
+            Truth.assertThat(disabled.tryAcquire()).isTrue();
+            disabled.record(false, 10);
+        }
+        Truth.assertThat(disabled.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    public void testOpenPromoBreakerServesStalePromo() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{\"promo\":1}"));
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        server.start();
+        AffirmCircuitBreaker tracker = new AffirmCircuitBreaker(AffirmMetrics.LABEL_TRACKER,
+                policy, null, () -> now);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new AffirmCircuitBreakerInterceptor(breaker, tracker,
+                        AffirmMetrics.DISABLED, true))
+                .build();
+        Request promo = new Request.Builder()
+                .url(server.url(AffirmConstants.PROMO_PATH + "key?amount=100"))
+                .build();
+
+        try (Response response = client.newCall(promo).execute()) {
+            Truth.assertThat(response.body().string()).isEqualTo("{\"promo\":1}");
+        }
+        for (int i = 0; i < 3; i++) {
+            client.newCall(promo).execute().close();
+        }
+        Truth.assertThat(breaker.state()).isEqualTo(State.OPEN);
+
+        try (Response response = client.newCall(promo).execute()) {
+            Truth.assertThat(response.code()).isEqualTo(200);
+            Truth.assertThat(response.header("Warning")).isNotNull();
+            Truth.assertThat(response.body().string()).isEqualTo("{\"promo\":1}");
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(4);
+
+        Request otherPromo = new Request.Builder()
+                .url(server.url(AffirmConstants.PROMO_PATH + "key?amount=200"))
+                .build();
+        try {
+            client.newCall(otherPromo).execute();
+            throw new AssertionError("The call should fail fast");
+        } catch (AffirmCircuitBreakerInterceptor.CircuitOpenException e) {
+            Truth.assertThat(server.getRequestCount()).isEqualTo(4);
+        }
+        // The tracker has its own breaker
+        Truth.assertThat(tracker.state()).isEqualTo(State.CLOSED);
+        server.shutdown();
+    }
+
+    @Test
+    public void testCanceledCallsAreNotFailures() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        AffirmCircuitBreaker tracker = new AffirmCircuitBreaker(AffirmMetrics.LABEL_TRACKER,
+                policy, null, () -> now);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    chain.call().cancel();
+                    return chain.proceed(chain.request());
+                })
+                .addInterceptor(new AffirmCircuitBreakerInterceptor(breaker, tracker,
+                        AffirmMetrics.DISABLED, true))
+                .build();
+        Request promo = new Request.Builder()
+                .url(server.url(AffirmConstants.PROMO_PATH + "key?amount=100"))
+                .build();
+
+        for (int i = 0; i < 4; i++) {
+            try {
+                client.newCall(promo).execute();
+                throw new AssertionError("The call should be canceled");
+            } catch (IOException e) {
+                Truth.assertThat(e).isNotInstanceOf(
+                        AffirmCircuitBreakerInterceptor.CircuitOpenException.class);
+            }
+        }
+        Truth.assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        server.shutdown();
+    }
+
+    @Test
+    public void testTruncatedChunkedPromoIsNotKept() throws Exception {
+        MockWebServer server = new MockWebServer();
+        StringBuilder big = new StringBuilder("{\"promo\":\"");
+        for (int i = 0; i < 70 * 1024; i++) {
+            big.append('a');
+        }
+        big.append("\"}");
+        server.enqueue(new MockResponse().setChunkedBody(big.toString(), 1024));
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        server.start();
+        AffirmCircuitBreaker tracker = new AffirmCircuitBreaker(AffirmMetrics.LABEL_TRACKER,
+                policy, null, () -> now);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new AffirmCircuitBreakerInterceptor(breaker, tracker,
+                        AffirmMetrics.DISABLED, true))
+                .build();
+        Request promo = new Request.Builder()
+                .url(server.url(AffirmConstants.PROMO_PATH + "key?amount=100"))
+                .build();
+
+        try (Response response = client.newCall(promo).execute()) {
+            Truth.assertThat(response.body().string()).isEqualTo(big.toString());
+        }
+        for (int i = 0; i < 3; i++) {
+            client.newCall(promo).execute().close();
+        }
+        Truth.assertThat(breaker.state()).isEqualTo(State.OPEN);
+
+        try {
+            client.newCall(promo).execute();
+            throw new AssertionError("The call should fail fast");
+        } catch (AffirmCircuitBreakerInterceptor.CircuitOpenException e) {
+            Truth.assertThat(server.getRequestCount()).isEqualTo(4);
+        }
+        server.shutdown();
+    }
+
+    private void record(boolean success, long durationMillis) {
+        Truth.assertThat(breaker.tryAcquire()).isTrue();
+        breaker.record(success, durationMillis);
+    }
+}
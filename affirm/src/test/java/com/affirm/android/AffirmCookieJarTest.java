@@ -0,0 +1,77 @@
+package com.affirm.android;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import okhttp3.Cookie;
+import okhttp3.HttpUrl;
+
+public class AffirmCookieJarTest {
+
+    private final List<String> lookups = new ArrayList<>();
+    private final AffirmCookieJar cookieJar = new AffirmCookieJar(
+            new HashSet<>(Arrays.asList("sandbox.affirm.com", "tracker.affirm.com")),
+            url -> {
+                lookups.add(url);
+                return url.contains("tracker") ? "tracker_id=1" : "session=abc; ar=1";
+            });
+
+    @Test
+    public void testCookiesAreReadOncePerHost() {
+        HttpUrl checkout = HttpUrl.get("https://sandbox.affirm.com/api/v2/checkout/");
+        List<Cookie> first = cookieJar.loadForRequest(checkout);
+        List<Cookie> second = cookieJar.loadForRequest(
+                HttpUrl.get("https://sandbox.affirm.com/api/promos/v2/key"));
+
+        Truth.assertThat(first).hasSize(2);
+        Truth.assertThat(first.get(0).name()).isEqualTo("session");
+        Truth.assertThat(first.get(0).value()).isEqualTo("abc");
+        Truth.assertThat(second).isSameAs(first);
+        Truth.assertThat(lookups).containsExactly("https://sandbox.affirm.com/");
+    }
+
+    @Test
+    public void testCookiesAreScopedPerHost() {
+        List<Cookie> tracker = cookieJar.loadForRequest(
+                HttpUrl.get("https://tracker.affirm.com/collect"));
+        Truth.assertThat(tracker).hasSize(1);
+        Truth.assertThat(tracker.get(0).name()).isEqualTo("tracker_id");
+
+        Truth.assertThat(cookieJar.loadForRequest(HttpUrl.get("https://example.com/")))
+                .isEmpty();
+        Truth.assertThat(lookups).containsExactly("https://tracker.affirm.com/");
+    }
+
+    @Test
+    public void testInvalidateReadsCookiesAgain() {
+        HttpUrl checkout = HttpUrl.get("https://sandbox.affirm.com/api/v2/checkout/");
+        cookieJar.loadForRequest(checkout);
+        cookieJar.invalidate();
+        cookieJar.loadForRequest(checkout);
+
+        Truth.assertThat(lookups).hasSize(2);
+    }
+
+    @Test
+    public void testCookiesInvalidatedWhileLoadingAreNotKept() {
+        final AffirmCookieJar[] jar = new AffirmCookieJar[1];
+        jar[0] = new AffirmCookieJar(new HashSet<>(Arrays.asList("sandbox.affirm.com")),
+                url -> {
+                    lookups.add(url);
+                    jar[0].invalidate();
+                    return "session=stale";
+                });
+        HttpUrl checkout = HttpUrl.get("https://sandbox.affirm.com/api/v2/checkout/");
+
+        Truth.assertThat(jar[0].loadForRequest(checkout)).hasSize(1);
+        jar[0].loadForRequest(checkout);
+
+        Truth.assertThat(lookups).hasSize(2);
+    }
+}
@@ -0,0 +1,76 @@
+package com.affirm.android;
+
+import com.google.common.collect.Range;
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class AffirmHistogramTest {
+
+    @Test
+    public void testBucketBounds() {
+        for (long value : new long[]{0, 1, 7, 8, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}) {
+            long lowerBound = AffirmHistogram.bucketLowerBound(AffirmHistogram.bucketIndex(value));
+            Truth.assertThat(lowerBound).isAtMost(value);
+            // Buckets are at most 12.5% wide
+            Truth.assertThat((double) (value - lowerBound)).isAtMost(value * 0.125);
+        }
+    }
+
+    @Test
+    public void testSnapshot() {
+        AffirmHistogram histogram = new AffirmHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        AffirmHistogram.Snapshot snapshot = histogram.snapshot();
+        Truth.assertThat(snapshot.getCount()).isEqualTo(100L);
+        Truth.assertThat(snapshot.getSum()).isEqualTo(5050L);
+        Truth.assertThat(snapshot.getMin()).isEqualTo(1L);
+        Truth.assertThat(snapshot.getMax()).isEqualTo(100L);
+        Truth.assertThat(snapshot.getMean()).isEqualTo(50.5);
+        Truth.assertThat(snapshot.getPercentile(50)).isIn(Range.closed(44L, 50L));
+        Truth.assertThat(snapshot.getPercentile(100)).isAtMost(100L);
+        Truth.assertThat(snapshot.getPercentile(99)).isAtLeast(88L);
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        AffirmHistogram.Snapshot snapshot = new AffirmHistogram().snapshot();
+        Truth.assertThat(snapshot.getCount()).isEqualTo(0L);
+        Truth.assertThat(snapshot.getMin()).isEqualTo(0L);
+        Truth.assertThat(snapshot.getMax()).isEqualTo(0L);
+        Truth.assertThat(snapshot.getPercentile(99)).isEqualTo(0L);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final AffirmHistogram histogram = new AffirmHistogram();
+        final int threads = 8;
+        final int values = 10_000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < values; i++) {
+                    histogram.record(i);
+                }
+                done.countDown();
+            });
+        }
+        Truth.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        AffirmHistogram.Snapshot snapshot = histogram.snapshot();
+        Truth.assertThat(snapshot.getCount()).isEqualTo((long) threads * values);
+        Truth.assertThat(snapshot.getSum()).isEqualTo((long) threads * values * (values - 1) / 2);
+        Truth.assertThat(snapshot.getMin()).isEqualTo(0L);
+        Truth.assertThat(snapshot.getMax()).isEqualTo((long) values - 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.affirm.android;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class AffirmHttpCacheStatsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testUnchangedPromoIsRevalidated() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse()
+                .setHeader("ETag", "\"v1\"")
+                .setHeader("Cache-Control", "no-cache")
+                .setBody("{\"promo\":1}"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.start();
+
+        Cache cache = new Cache(folder.newFolder("affirm-http"), 1024 * 1024);
+        AffirmHttpCacheStats.Counter counter = new AffirmHttpCacheStats.Counter();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .cache(cache)
+                .addNetworkInterceptor(counter)
+                .build();
+        Request request = new Request.Builder()
+                .url(server.url(AffirmConstants.PROMO_PATH + "key?amount=100"))
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            try (Response response = client.newCall(request).execute()) {
+                Truth.assertThat(response.body().string()).isEqualTo("{\"promo\":1}");
+            }
+        }
+
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest();
+        Truth.assertThat(revalidation.getHeader("If-None-Match")).isEqualTo("\"v1\"");
+
+        AffirmHttpCacheStats stats = counter.snapshot(cache);
+        Truth.assertThat(stats.getRequestCount()).isEqualTo(2L);
+        Truth.assertThat(stats.getNetworkCount()).isEqualTo(2L);
+        Truth.assertThat(stats.getHitCount()).isEqualTo(1L);
+        Truth.assertThat(stats.getRevalidationCount()).isEqualTo(1L);
+        Truth.assertThat(stats.getNotModifiedCount()).isEqualTo(1L);
+        server.shutdown();
+    }
+
+    @Test
+    public void testNoCacheHasEmptyStats() {
+        AffirmHttpCacheStats stats = new AffirmHttpCacheStats.Counter().snapshot(null);
+        Truth.assertThat(stats.getRequestCount()).isEqualTo(0L);
+        Truth.assertThat(stats.getHitCount()).isEqualTo(0L);
+    }
+}
@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import okhttp3.Call;
 import okhttp3.OkHttpClient;
 import okhttp3.Response;
@@ -26,6 +28,18 @@ public class AffirmHttpClientTest {
         execute(404, "NOT FOUND", "Error", new AffirmHttpClient(null));
     }
 
+    @Test
+    public void testTimeoutIsSetAsCallTimeout() {
+        AffirmHttpRequest request = new AffirmHttpRequest.Builder()
+                .setUrl("https://sandbox.affirm.com/api/promos/v2/")
+                .setMethod(AffirmHttpRequest.Method.GET)
+                .setTimeoutMillis(800)
+                .build();
+
+        Call call = new AffirmHttpClient(null).getCallForRequest(null, request);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(800), call.timeout().timeoutNanos());
+    }
+
     private void execute(int responseCode, String responseStatus,
                          String responseContent, AffirmHttpClient client) throws Exception {
         OkHttpClient okHttpClient = new OkHttpClient.Builder().build();
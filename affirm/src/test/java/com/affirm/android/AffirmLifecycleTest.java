@@ -0,0 +1,96 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.lifecycle.ViewTreeLifecycleOwner;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmLifecycleTest {
+
+    private ActivityController<Activity> controller;
+    private Activity activity;
+
+    @Before
+    public void setup() {
+        controller = Robolectric.buildActivity(Activity.class).setup();
+        activity = controller.get();
+    }
+
+    @Test
+    public void testButtonsOfAnActivityShareItsLifecycle() {
+        FrameLayout container = new FrameLayout(activity);
+        activity.setContentView(container);
+        View first = new View(activity);
+        View second = new View(activity);
+        container.addView(first);
+        container.addView(second);
+
+        LifecycleOwner owner = AffirmLifecycle.lifecycleOwnerOf(first);
+
+        Truth.assertThat(owner).isNotNull();
+        Truth.assertThat(AffirmLifecycle.lifecycleOwnerOf(second)).isSameAs(owner);
+        Truth.assertThat(owner.getLifecycle().getCurrentState()
+                .isAtLeast(Lifecycle.State.STARTED)).isTrue();
+        Truth.assertThat(activity.getFragmentManager().getFragments()).isEmpty();
+    }
+
+    @Test
+    public void testObserversAreDestroyedWithTheActivity() {
+        View view = new View(activity);
+        activity.setContentView(view);
+        LifecycleOwner owner = AffirmLifecycle.lifecycleOwnerOf(view);
+        List<String> events = new ArrayList<>();
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStop(LifecycleOwner owner) {
+                events.add("stop");
+            }
+
+            @Override
+            public void onDestroy(LifecycleOwner owner) {
+                events.add("destroy");
+            }
+        });
+
+        controller.pause().stop().destroy();
+
+        Truth.assertThat(events).containsExactly("stop", "destroy").inOrder();
+        Truth.assertThat(activity.getWindow().getDecorView()
+                .getTag(R.id.affirm_lifecycle_owner)).isNull();
+    }
+
+    @Test
+    public void testViewTreeOwnerIsPreferred() {
+        View view = new View(activity);
+        activity.setContentView(view);
+        LifecycleOwner fragmentViewOwner = new LifecycleOwner() {
+            private final LifecycleRegistry registry = new LifecycleRegistry(this);
+
+            @Override
+            public Lifecycle getLifecycle() {
+                return registry;
+            }
+        };
+        ViewTreeLifecycleOwner.set(view, fragmentViewOwner);
+
+        Truth.assertThat(AffirmLifecycle.lifecycleOwnerOf(view)).isSameAs(fragmentViewOwner);
+    }
+}
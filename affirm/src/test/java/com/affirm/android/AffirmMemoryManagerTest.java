@@ -0,0 +1,93 @@
+package com.affirm.android;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+
+import com.google.common.truth.Truth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmMemoryManagerTest {
+
+    private Context context;
+    private AffirmMemoryManager memoryManager;
+    private PromoLayoutCache.Key spansKey;
+
+    @Before
+    public void setup() {
+        context = RuntimeEnvironment.application;
+        AffirmWebViewPool.resetLimit();
+        AffirmMemoryManager.register(context);
+        memoryManager = AffirmMemoryManager.get();
+
+        spansKey = PromoLayoutCache.spansKey("Starting at $63/mo with Affirm", null,
+                AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO, AffirmColor.AFFIRM_COLOR_TYPE_BLUE, 14f);
+        PromoLayoutCache.putSpans(spansKey, "Starting at $63/mo with Affirm");
+        PromoLayoutCache.getLayout(spansKey, "Starting at $63/mo with Affirm", 500, null, 0);
+        AffirmWebViewPool.put(context, "modal", AffirmWebViewPool.create(context));
+    }
+
+    @After
+    public void tearDown() {
+        PromoLayoutCache.clear();
+        AffirmWebViewPool.trimToSize(0);
+    }
+
+    @Test
+    public void testNothingIsReleasedWhileMemoryIsFine() {
+        Truth.assertThat(memoryManager.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE - 1))
+                .isEqualTo(0);
+
+        Truth.assertThat(PromoLayoutCache.layoutCount()).isEqualTo(1);
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testModerateTrimDropsTheLayoutsOnly() {
+        memoryManager.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        Truth.assertThat(PromoLayoutCache.layoutCount()).isEqualTo(0);
+        Truth.assertThat(PromoLayoutCache.getSpans(spansKey)).isNotNull();
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLowTrimDestroysThePooledWebViews() {
+        long bytes = memoryManager.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(0);
+        Truth.assertThat(bytes).isAtLeast(AffirmMemoryManager.WEBVIEW_BYTES);
+        Truth.assertThat(PromoLayoutCache.getSpans(spansKey)).isNotNull();
+    }
+
+    @Test
+    public void testBackgroundTrimClearsEverything() {
+        memoryManager.trim(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+
+        Truth.assertThat(PromoLayoutCache.layoutCount()).isEqualTo(0);
+        Truth.assertThat(PromoLayoutCache.getSpans(spansKey)).isNull();
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testTrimMeasuresThePoolLimitAgain() {
+        int limit = AffirmWebViewPool.limit(context);
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        Shadows.shadowOf(activityManager).setIsLowRamDevice(true);
+
+        Truth.assertThat(AffirmWebViewPool.limit(context)).isEqualTo(limit);
+
+        memoryManager.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        Truth.assertThat(AffirmWebViewPool.limit(context)).isEqualTo(0);
+    }
+}
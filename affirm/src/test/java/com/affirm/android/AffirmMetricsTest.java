@@ -0,0 +1,114 @@
+package com.affirm.android;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmMetricsTest {
+
+    private final List<AffirmMetric> recorded = new ArrayList<>();
+    private final AffirmMetrics metrics = new AffirmMetrics(metric -> {
+        synchronized (recorded) {
+            recorded.add(metric);
+        }
+    });
+
+    @Test
+    public void testCorrelationIds() {
+        String first = metrics.newCorrelationId(AffirmMetrics.LABEL_PROMO);
+        String second = metrics.newCorrelationId(AffirmMetrics.LABEL_PROMO);
+
+        Truth.assertThat(first).isNotEqualTo(second);
+        Truth.assertThat(AffirmMetrics.labelOf(first)).isEqualTo(AffirmMetrics.LABEL_PROMO);
+        Truth.assertThat(AffirmMetrics.labelOf(null)).isEqualTo("http");
+    }
+
+    @Test
+    public void testDisabledMetrics() {
+        Truth.assertThat(AffirmMetrics.DISABLED.newCorrelationId(AffirmMetrics.LABEL_PROMO))
+                .isNull();
+        AffirmMetrics.DISABLED.count(AffirmMetric.HTTP_CACHE_HIT, null, 1);
+        Truth.assertThat(AffirmMetrics.DISABLED.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void testRecordAndSnapshot() {
+        String correlationId = metrics.newCorrelationId(AffirmMetrics.LABEL_CHECKOUT);
+        metrics.recordDuration(AffirmMetric.REQUEST_DURATION, correlationId, 0, 5_000_000);
+        metrics.recordDuration(AffirmMetric.REQUEST_DURATION, correlationId, 0, 7_000_000);
+
+        Truth.assertThat(recorded).hasSize(2);
+        AffirmMetric metric = recorded.get(0);
+        Truth.assertThat(metric.getName()).isEqualTo(AffirmMetric.REQUEST_DURATION);
+        Truth.assertThat(metric.getLabel()).isEqualTo(AffirmMetrics.LABEL_CHECKOUT);
+        Truth.assertThat(metric.getCorrelationId()).isEqualTo(correlationId);
+        Truth.assertThat(metric.getValue()).isEqualTo(5_000L);
+        Truth.assertThat(metric.getUnit()).isEqualTo(AffirmMetric.Unit.MICROSECONDS);
+
+        Map<String, AffirmHistogram.Snapshot> snapshot = metrics.snapshot();
+        AffirmHistogram.Snapshot histogram = snapshot.get("request.duration/checkout");
+        Truth.assertThat(histogram.getCount()).isEqualTo(2L);
+        Truth.assertThat(histogram.getMax()).isEqualTo(7_000L);
+    }
+
+    @Test
+    public void testListenerFailureIsContained() {
+        AffirmMetrics failing = new AffirmMetrics(metric -> {
+            throw new IllegalStateException("listener failed");
+        });
+        failing.count(AffirmMetric.HTTP_CACHE_MISS, null, 1);
+
+        Truth.assertThat(failing.snapshot().get("http.cache_miss/http").getCount())
+                .isEqualTo(1L);
+    }
+
+    @Test
+    public void testEventListenerReportsCallTimings() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.start();
+
+        Dispatcher dispatcher = new Dispatcher();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .eventListenerFactory(new AffirmMetricsEventListener.Factory(metrics, dispatcher))
+                .build();
+        String correlationId = metrics.newCorrelationId(AffirmMetrics.LABEL_PROMO);
+        Request request = new Request.Builder()
+                .url(server.url("/api/promos/v2/"))
+                .tag(correlationId)
+                .build();
+
+        try (Response response = client.newCall(request).execute()) {
+            Truth.assertThat(response.body().string()).isEqualTo("{}");
+        }
+        server.shutdown();
+
+        List<String> names = new ArrayList<>();
+        synchronized (recorded) {
+            for (AffirmMetric metric : recorded) {
+                Truth.assertThat(metric.getCorrelationId()).isEqualTo(correlationId);
+                names.add(metric.getName());
+            }
+        }
+        Truth.assertThat(names).containsAllOf(AffirmMetric.HTTP_QUEUE_DEPTH,
+                AffirmMetric.HTTP_CONNECT, AffirmMetric.HTTP_TTFB, AffirmMetric.HTTP_BODY,
+                AffirmMetric.HTTP_CALL);
+        Truth.assertThat(names).doesNotContain(AffirmMetric.HTTP_FAILURE);
+        Truth.assertThat(metrics.snapshot()).containsKey("http.call/promo");
+    }
+}
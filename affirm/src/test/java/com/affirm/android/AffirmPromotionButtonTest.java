@@ -0,0 +1,72 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.view.ViewGroup;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmPromotionButtonTest {
+
+    private final AtomicInteger prefetches = new AtomicInteger();
+
+    private Activity activity;
+    private AffirmPromotionButton button;
+
+    @Before
+    public void setup() {
+        activity = Robolectric.setupActivity(Activity.class);
+        button = new AffirmPromotionButton(activity);
+    }
+
+    @Test
+    public void testPrefetchRunsOnceShownForAWhile() {
+        button.prefetchWhenShown(prefetches::incrementAndGet);
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        Truth.assertThat(prefetches.get()).isEqualTo(0);
+
+        activity.setContentView(button);
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+        Truth.assertThat(prefetches.get()).isEqualTo(0);
+
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+        Truth.assertThat(prefetches.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPrefetchIsDroppedWhenScrolledAway() {
+        activity.setContentView(button);
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+
+        button.prefetchWhenShown(prefetches::incrementAndGet);
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+        ((ViewGroup) button.getParent()).removeView(button);
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+
+        Truth.assertThat(prefetches.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void testNewerPrefetchReplacesThePendingOne() {
+        activity.setContentView(button);
+        ShadowLooper.idleMainLooper(100, TimeUnit.MILLISECONDS);
+
+        AtomicInteger replaced = new AtomicInteger();
+        button.prefetchWhenShown(replaced::incrementAndGet);
+        button.prefetchWhenShown(prefetches::incrementAndGet);
+        ShadowLooper.idleMainLooper(1, TimeUnit.SECONDS);
+
+        Truth.assertThat(replaced.get()).isEqualTo(0);
+        Truth.assertThat(prefetches.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.affirm.android;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmReadyFutureTest {
+
+    @Test
+    public void testListenersRunOnComplete() throws Exception {
+        AffirmReadyFuture future = new AffirmReadyFuture();
+        List<String> calls = new ArrayList<>();
+        future.addListener(() -> calls.add("first"), Runnable::run);
+        future.addListener(() -> calls.add("second"), Runnable::run);
+
+        Truth.assertThat(future.isDone()).isFalse();
+        Truth.assertThat(calls).isEmpty();
+
+        future.complete();
+        Truth.assertThat(future.isDone()).isTrue();
+        Truth.assertThat(calls).containsExactly("first", "second").inOrder();
+        Truth.assertThat(future.get(0, TimeUnit.MILLISECONDS)).isNull();
+
+        // Completing again doesn't run the listeners twice
+        future.complete();
+        Truth.assertThat(calls).hasSize(2);
+    }
+
+    @Test
+    public void testListenerRunsRightAwayWhenDone() {
+        AffirmReadyFuture future = AffirmReadyFuture.completed();
+        List<String> calls = new ArrayList<>();
+        future.addListener(() -> calls.add("done"), Runnable::run);
+
+        Truth.assertThat(calls).containsExactly("done");
+        Truth.assertThat(future.cancel(true)).isFalse();
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void testGetTimesOutWhenNotReady() throws Exception {
+        new AffirmReadyFuture().get(1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testTemplatesAreCached() throws Exception {
+        String first = AffirmUtils.readTemplate(RuntimeEnvironment.application.getResources(),
+                R.raw.affirm_promo);
+        String second = AffirmUtils.readTemplate(RuntimeEnvironment.application.getResources(),
+                R.raw.affirm_promo);
+
+        Truth.assertThat(first).isNotEmpty();
+        Truth.assertThat(second).isSameAs(first);
+    }
+}
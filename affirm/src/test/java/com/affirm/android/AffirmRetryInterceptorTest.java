@@ -0,0 +1,175 @@
+package com.affirm.android;
+
+import com.google.common.truth.Truth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmRetryInterceptorTest {
+
+    private final List<AffirmMetric> recorded = new ArrayList<>();
+    private final AffirmMetrics metrics = new AffirmMetrics(recorded::add);
+    private final AffirmRetryPolicy policy = new AffirmRetryPolicy.Builder()
+            .setMaxAttempts(3)
+            .setInitialBackoffMillis(1)
+            .setMaxBackoffMillis(4)
+            .build();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new AffirmRetryInterceptor(policy, metrics))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testGetIsRetriedUntilSuccess() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        try (Response response = execute(get())) {
+            Truth.assertThat(response.code()).isEqualTo(200);
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(3);
+        Truth.assertThat(metrics.snapshot().get("http.retry/http").getCount()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testGivesUpAfterMaxAttempts() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        try (Response response = execute(get())) {
+            Truth.assertThat(response.code()).isEqualTo(503);
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testClientErrorIsNotRetried() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(400));
+
+        try (Response response = execute(get())) {
+            Truth.assertThat(response.code()).isEqualTo(400);
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPostWithoutIdempotencyKeyIsNotRetried() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        try (Response response = execute(post().build())) {
+            Truth.assertThat(response.code()).isEqualTo(503);
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPostWithIdempotencyKeyIsRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        Request request = post().header(AffirmConstants.IDEMPOTENCY_KEY, "key").build();
+        try (Response response = execute(request)) {
+            Truth.assertThat(response.code()).isEqualTo(200);
+        }
+        Truth.assertThat(server.takeRequest().getHeader(AffirmConstants.IDEMPOTENCY_KEY))
+                .isEqualTo("key");
+        Truth.assertThat(server.takeRequest().getHeader(AffirmConstants.IDEMPOTENCY_KEY))
+                .isEqualTo("key");
+    }
+
+    @Test
+    public void testRetryAfterBeyondDeadlineIsNotRetried() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "60"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        try (Response response = execute(get())) {
+            Truth.assertThat(response.code()).isEqualTo(429);
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRetryAfterIsRespected() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        try (Response response = execute(get())) {
+            Truth.assertThat(response.code()).isEqualTo(200);
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testNoRetryPastTheCallTimeout() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "1"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        Call call = client.newCall(get());
+        call.timeout().timeout(500, TimeUnit.MILLISECONDS);
+        try (Response response = call.execute()) {
+            Truth.assertThat(response.code()).isEqualTo(503);
+        }
+        Truth.assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testBackoffGrowsWithinBounds() {
+        AffirmRetryPolicy backoff = new AffirmRetryPolicy.Builder()
+                .setInitialBackoffMillis(100)
+                .setMaxBackoffMillis(1_000)
+                .build();
+
+        Truth.assertThat(backoff.backoffMillis(1, 0)).isEqualTo(50L);
+        Truth.assertThat(backoff.backoffMillis(1, 0.999)).isEqualTo(99L);
+        Truth.assertThat(backoff.backoffMillis(3, 0)).isEqualTo(200L);
+        Truth.assertThat(backoff.backoffMillis(10, 0)).isEqualTo(500L);
+    }
+
+    private Response execute(Request request) throws IOException {
+        return client.newCall(request).execute();
+    }
+
+    private Request get() {
+        return new Request.Builder().url(server.url("/api/promos/v2/")).build();
+    }
+
+    private Request.Builder post() {
+        return new Request.Builder()
+                .url(server.url("/api/v2/checkout/"))
+                .post(RequestBody.create("{}", MediaType.get(AffirmConstants.CONTENT_TYPE)));
+    }
+}
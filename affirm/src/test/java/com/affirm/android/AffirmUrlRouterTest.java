@@ -0,0 +1,75 @@
+package com.affirm.android;
+
+import android.net.Uri;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+public class AffirmUrlRouterTest {
+
+    private final AffirmUrlRouter router =
+            AffirmUrlRouter.forEnvironment("sandbox.affirm.com/u/");
+
+    @Test
+    public void testCheckoutCallbacks() {
+        assertThat(router.route("affirm://checkout/confirmed?checkout_token=abc"))
+                .isEqualTo(AffirmUrlRouter.Route.CHECKOUT_CONFIRMATION);
+        assertThat(router.route("affirm://checkout/confirmed/%7B%22number%22%7D"))
+                .isEqualTo(AffirmUrlRouter.Route.CHECKOUT_CONFIRMATION);
+        assertThat(router.route("affirm://checkout/cancelled"))
+                .isEqualTo(AffirmUrlRouter.Route.CHECKOUT_CANCELLATION);
+        assertThat(router.route("AFFIRM://Checkout/cancelled#top"))
+                .isEqualTo(AffirmUrlRouter.Route.CHECKOUT_CANCELLATION);
+    }
+
+    @Test
+    public void testPrequalCallback() {
+        assertThat(router.route("https://androidsdk/"))
+                .isEqualTo(AffirmUrlRouter.Route.PREQUAL_CONFIRMATION);
+        assertThat(router.route("https://androidsdk/?referrer=prequal"))
+                .isEqualTo(AffirmUrlRouter.Route.PREQUAL_CONFIRMATION);
+        assertThat(router.route("https://androidsdk/other"))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+    }
+
+    @Test
+    public void testInvalidCheckout() {
+        assertThat(router.route(Uri.parse("https://sandbox.affirm.com/u/")))
+                .isEqualTo(AffirmUrlRouter.Route.INVALID_CHECKOUT);
+        assertThat(router.route(Uri.parse("https://sandbox.affirm.com/u/abc")))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+        assertThat(AffirmUrlRouter.CALLBACKS.route("https://sandbox.affirm.com/u/"))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+    }
+
+    @Test
+    public void testOtherUrls() {
+        assertThat(router.route((String) null)).isEqualTo(AffirmUrlRouter.Route.NONE);
+        assertThat(router.route((Uri) null)).isEqualTo(AffirmUrlRouter.Route.NONE);
+        assertThat(router.route("about:blank")).isEqualTo(AffirmUrlRouter.Route.NONE);
+        assertThat(router.route("https://sandbox.affirm.com/checkout/affirm://checkout/confirmed"))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+        assertThat(router.route("http://androidsdk/"))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+        assertThat(router.route("affirm://checkout/confirm"))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+    }
+
+    @Test
+    public void testRedirectScheme() {
+        AffirmUrlRouter redirects = AffirmUrlRouter.forRedirectScheme("com.example.affirm");
+
+        assertThat(redirects.route("com.example.affirm://checkout/confirmed?checkout_token=1"))
+                .isEqualTo(AffirmUrlRouter.Route.CHECKOUT_CONFIRMATION);
+        assertThat(redirects.route("com.example.affirm://checkout/cancelled"))
+                .isEqualTo(AffirmUrlRouter.Route.CHECKOUT_CANCELLATION);
+        assertThat(redirects.route("affirm://checkout/confirmed?checkout_token=1"))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+        assertThat(redirects.route("com.other.affirm://checkout/confirmed?checkout_token=1"))
+                .isEqualTo(AffirmUrlRouter.Route.NONE);
+    }
+}
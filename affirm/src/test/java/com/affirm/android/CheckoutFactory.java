@@ -15,6 +15,10 @@ import java.util.Map;
 public class CheckoutFactory {
 
     public static Checkout create() {
+        return builder().build();
+    }
+
+    public static Checkout.Builder builder() {
         final Item item = Item.builder()
                 .setDisplayName("Great Deal Wheel")
                 .setImageUrl("http://www.image.com/111")
@@ -52,7 +56,6 @@ public class CheckoutFactory {
                 .setTaxAmount(BigDecimal.valueOf(100.0))
                 .setTotal(BigDecimal.valueOf(1100.0))
                 .setMetadata(metadata)
-                .setCurrency(Currency.USD)
-                .build();
+                .setCurrency(Currency.USD);
     }
 }
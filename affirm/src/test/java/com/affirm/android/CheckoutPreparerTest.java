@@ -0,0 +1,148 @@
+package com.affirm.android;
+
+import android.content.Context;
+
+import com.affirm.android.model.Checkout;
+import com.google.common.truth.Truth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+
+import java.math.BigDecimal;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class CheckoutPreparerTest {
+
+    private final InnerCheckoutCallback callback = mock(InnerCheckoutCallback.class);
+
+    private OkHttpClient client;
+    private Call call;
+    private long now;
+
+    @Before
+    public void setup() {
+        if (AffirmPlugins.get() == null) {
+            Affirm.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                    Affirm.Environment.SANDBOX)
+                    .build()
+            );
+        }
+        client = mock(OkHttpClient.class);
+        call = mock(Call.class);
+        when(client.newCall(any(Request.class))).thenReturn(call);
+        CheckoutPreparer.okHttpClient = client;
+        CheckoutPreparer.clock = () -> now;
+    }
+
+    @After
+    public void tearDown() {
+        CheckoutPreparer.cancel();
+        CheckoutPreparer.okHttpClient = null;
+        AffirmCustomTabs.browserPackage = null;
+    }
+
+    @Test
+    public void testSameCheckoutIsTakenOver() {
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false);
+        verify(client, timeout(1000)).newCall(any(Request.class));
+
+        AffirmRequest request =
+                CheckoutPreparer.take(CheckoutFactory.create(), null, -1, false, null, callback);
+
+        Truth.assertThat(request).isNotNull();
+        Truth.assertThat(CheckoutPreparer.take(CheckoutFactory.create(), null, -1, false, null,
+                callback)).isNull();
+    }
+
+    @Test
+    public void testPreparingTheSameCheckoutTwiceSendsItOnce() throws Exception {
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false);
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false);
+        Thread.sleep(200);
+
+        verify(client, times(1)).newCall(any(Request.class));
+    }
+
+    @Test
+    public void testChangedCartIsNotTakenOver() {
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false);
+        verify(client, timeout(1000)).newCall(any(Request.class));
+
+        Checkout changed = CheckoutFactory.builder().setTotal(BigDecimal.valueOf(1200.0)).build();
+
+        Truth.assertThat(CheckoutPreparer.take(changed, null, -1, false, null, callback)).isNull();
+        verify(call).cancel();
+    }
+
+    @Test
+    public void testOtherVcnOrCaasIsNotTakenOver() {
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false);
+        Truth.assertThat(CheckoutPreparer.take(CheckoutFactory.create(), null, -1, true, null,
+                callback)).isNull();
+
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false);
+        Truth.assertThat(CheckoutPreparer.take(CheckoutFactory.create(), "caas", -1, false, null,
+                callback)).isNull();
+    }
+
+    @Test
+    public void testExpiredCheckoutIsNotTakenOver() {
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false);
+        now += AffirmPlugins.get().preparedCheckoutTtlMillis() + 1;
+
+        Truth.assertThat(CheckoutPreparer.take(CheckoutFactory.create(), null, -1, false, null,
+                callback)).isNull();
+    }
+
+    @Test
+    public void testCheckoutForAnotherPresentationIsNotTakenOver() {
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false, "com.example.affirm");
+        Truth.assertThat(CheckoutPreparer.take(CheckoutFactory.create(), null, -1, false, null,
+                callback)).isNull();
+
+        CheckoutPreparer.prepare(CheckoutFactory.create(), null, -1, false, "com.example.affirm");
+        Truth.assertThat(CheckoutPreparer.take(CheckoutFactory.create(), null, -1, false,
+                "com.example.affirm", callback)).isNotNull();
+    }
+
+    @Test
+    public void testCustomTabsCheckoutPreparedWithAContextIsTakenOver() {
+        AffirmPlugins.reset();
+        Affirm.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                Affirm.Environment.SANDBOX)
+                .setPresentationMode(Affirm.PresentationMode.CUSTOM_TABS)
+                .build()
+        );
+        Context context = RuntimeEnvironment.application;
+        AffirmCustomTabs.browserPackage = "com.android.chrome";
+        Shadows.shadowOf(RuntimeEnvironment.application)
+                .declareActionUnbindable("android.support.customtabs.action.CustomTabsService");
+        try {
+            Affirm.prepareCheckout(context, CheckoutFactory.create());
+            verify(client, timeout(1000)).newCall(any(Request.class));
+
+            CheckoutPreparer.Taken taken = CheckoutPreparer.take(CheckoutFactory.create(), null,
+                    -1, false, AffirmCustomTabs.redirectScheme(context), callback);
+            Truth.assertThat(taken).isNotNull();
+            Truth.assertThat(taken.redirectState()).isNotNull();
+        } finally {
+            AffirmPlugins.reset();
+        }
+    }
+}
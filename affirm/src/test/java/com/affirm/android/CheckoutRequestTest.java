@@ -2,6 +2,7 @@ package com.affirm.android;
 
 import com.affirm.android.model.Checkout;
 import com.google.common.truth.Truth;
+import com.google.gson.JsonObject;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -62,7 +63,8 @@ public class CheckoutRequestTest {
         CheckoutRequest checkoutRequest = new CheckoutRequest(client, checkout, null, null, false, -1);
         checkoutRequest.create();
 
-        Mockito.verify(client).newCall(requestCaptor.capture());
+        // The payload is prepared on the background thread
+        Mockito.verify(client, Mockito.timeout(1000)).newCall(requestCaptor.capture());
         Request request = requestCaptor.getValue();
         Truth.assertThat(RequestUtils.bodyToString(request)).isEqualTo(generateExpectedCheckoutBody());
     }
@@ -79,7 +81,8 @@ public class CheckoutRequestTest {
         CheckoutRequest checkoutRequest = new CheckoutRequest(client, checkout, null, "4626b631-c5bc-4c4e-800b-dd5fa27ef8b8", false, -1);
         checkoutRequest.create();
 
-        Mockito.verify(client).newCall(requestCaptor.capture());
+        // The payload is prepared on the background thread
+        Mockito.verify(client, Mockito.timeout(1000)).newCall(requestCaptor.capture());
         Request request = requestCaptor.getValue();
         Truth.assertThat(RequestUtils.bodyToString(request)).isEqualTo(generateExpectedCheckoutWithCaasBody());
     }
@@ -96,9 +99,25 @@ public class CheckoutRequestTest {
         CheckoutRequest checkoutRequest = new CheckoutRequest(client, checkout, null, null, false, 10);
         checkoutRequest.create();
 
-        Mockito.verify(client).newCall(requestCaptor.capture());
+        // The payload is prepared on the background thread
+        Mockito.verify(client, Mockito.timeout(1000)).newCall(requestCaptor.capture());
         Request request = requestCaptor.getValue();
         Truth.assertThat(RequestUtils.bodyToString(request)).isEqualTo(generateExpectedCheckoutWithCardAuthWindowBody());
     }
-}
 
+    @Test
+    public void testCustomTabsCheckoutRedirectsToTheAppScheme() {
+        CheckoutRequest checkoutRequest = new CheckoutRequest(null, CheckoutFactory.create(), null,
+                null, false, -1, "com.example.affirm");
+
+        JsonObject merchant = checkoutRequest.buildBody().getAsJsonObject("checkout")
+                .getAsJsonObject("merchant");
+        Truth.assertThat(checkoutRequest.redirectState()).isNotNull();
+        Truth.assertThat(merchant.get("user_confirmation_url").getAsString())
+                .isEqualTo("com.example.affirm://checkout/confirmed?state="
+                        + checkoutRequest.redirectState());
+        Truth.assertThat(merchant.get("user_cancel_url").getAsString())
+                .isEqualTo("com.example.affirm://checkout/cancelled?state="
+                        + checkoutRequest.redirectState());
+    }
+}
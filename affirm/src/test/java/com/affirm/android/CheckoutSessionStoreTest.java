@@ -0,0 +1,87 @@
+package com.affirm.android;
+
+import android.os.Parcel;
+
+import com.affirm.android.model.Checkout;
+import com.google.common.truth.Truth;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class CheckoutSessionStoreTest {
+
+    @Before
+    public void setup() {
+        if (AffirmPlugins.get() == null) {
+            Affirm.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                    Affirm.Environment.SANDBOX)
+                    .build()
+            );
+        }
+    }
+
+    @Test
+    public void testSessionKeepsTheCheckout() {
+        Checkout checkout = CheckoutFactory.create();
+        String id = CheckoutSessionStore.put(checkout);
+
+        Truth.assertThat(CheckoutSessionStore.get(id)).isSameAs(checkout);
+
+        CheckoutSessionStore.remove(id);
+        Truth.assertThat(CheckoutSessionStore.get(id)).isNull();
+    }
+
+    @Test
+    public void testCheckoutIsRestoredFromItsSnapshot() throws Exception {
+        Checkout checkout = CheckoutFactory.create();
+        String id = CheckoutSessionStore.put(checkout);
+        // The snapshot is made on the idle thread
+        FutureTask<Void> snapshotMade = new FutureTask<>(() -> null);
+        AffirmPlugins.get().idleExecutor().execute(snapshotMade);
+        snapshotMade.get(1, TimeUnit.SECONDS);
+        byte[] snapshot = CheckoutSessionStore.snapshot(id);
+
+        // The snapshot is only made once & is smaller than the parcel
+        Truth.assertThat(CheckoutSessionStore.snapshot(id)).isSameAs(snapshot);
+        Truth.assertThat(snapshot.length).isLessThan(parcelSize(checkout));
+
+        // A process death empties the store
+        CheckoutSessionStore.remove(id);
+        Checkout restored = CheckoutSessionStore.restore(id, snapshot);
+
+        Truth.assertThat(restored).isEqualTo(checkout);
+        Truth.assertThat(CheckoutSessionStore.get(id)).isSameAs(restored);
+    }
+
+    @Test
+    public void testSessionsOfScreensNeverStartedAreDropped() {
+        String first = CheckoutSessionStore.put(CheckoutFactory.create());
+        for (int i = 0; i < 8; i++) {
+            CheckoutSessionStore.put(CheckoutFactory.create());
+        }
+
+        Truth.assertThat(CheckoutSessionStore.get(first)).isNull();
+    }
+
+    @Test
+    public void testBrokenSnapshotIsIgnored() {
+        Truth.assertThat(CheckoutSessionStore.restore("id", new byte[]{1, 2, 3})).isNull();
+        Truth.assertThat(CheckoutSessionStore.get("id")).isNull();
+    }
+
+    private static int parcelSize(Checkout checkout) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeParcelable(checkout, 0);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
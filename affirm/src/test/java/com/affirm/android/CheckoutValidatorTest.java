@@ -0,0 +1,79 @@
+package com.affirm.android;
+
+import com.affirm.android.exception.InvalidRequestException;
+import com.affirm.android.model.Checkout;
+import com.affirm.android.model.Discount;
+import com.affirm.android.model.Item;
+import com.google.common.truth.Truth;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class CheckoutValidatorTest {
+
+    @Test
+    public void testValidCheckout() throws Exception {
+        // A total that doesn't add up is only logged
+        CheckoutValidator.validate(CheckoutFactory.create());
+    }
+
+    @Test
+    public void testInvalidAmounts() {
+        Map<String, Item> items = new HashMap<>(CheckoutFactory.create().items());
+        items.put("tire", Item.builder()
+                .setDisplayName("Tire")
+                .setImageUrl("http://www.image.com/222")
+                .setQty(0)
+                .setSku("tire")
+                .setUnitPrice(BigDecimal.valueOf(100.0))
+                .setUrl("http://merchant.com/tire")
+                .build());
+        Checkout invalid = CheckoutFactory.builder()
+                .setItems(items)
+                .setTaxAmount(BigDecimal.valueOf(-1.0))
+                .build();
+
+        InvalidRequestException exception = assertInvalid(invalid);
+
+        Truth.assertThat(exception.getFields())
+                .containsExactly("tax_amount", "items.tire.qty");
+        Truth.assertThat(exception.getField()).isEqualTo("tax_amount");
+        Truth.assertThat(exception.getType()).isEqualTo(CheckoutValidator.INVALID_FIELD);
+    }
+
+    @Test
+    public void testCheckoutWithoutItems() throws Exception {
+        CheckoutValidator.validate(CheckoutFactory.builder()
+                .setItems(Collections.emptyMap())
+                .build());
+    }
+
+    @Test
+    public void testNegativeDiscount() {
+        Discount discount = Discount.builder()
+                .setDisplayName("Coupon")
+                .setAmount(BigDecimal.valueOf(-5.0))
+                .build();
+        Checkout invalid = CheckoutFactory.builder()
+                .setDiscounts(Collections.singletonMap("COUPON", discount))
+                .build();
+
+        Truth.assertThat(assertInvalid(invalid).getFields())
+                .containsExactly("discounts.COUPON.amount");
+    }
+
+    private static InvalidRequestException assertInvalid(Checkout checkout) {
+        try {
+            CheckoutValidator.validate(checkout);
+        } catch (InvalidRequestException e) {
+            return e;
+        }
+        Assert.fail("The checkout should be invalid");
+        return null;
+    }
+}
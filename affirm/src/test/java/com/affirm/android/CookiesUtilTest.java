@@ -0,0 +1,89 @@
+package com.affirm.android;
+
+import android.webkit.CookieManager;
+import android.webkit.ValueCallback;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class CookiesUtilTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCookiesAreExpiredInOneBatch() {
+        CookieManager cookieManager = mock(CookieManager.class);
+        when(cookieManager.getCookie("https://sandbox.affirm.com")).thenReturn("session=a; ar=1");
+        when(cookieManager.getCookie("https://cdn1-sandbox.affirm.com")).thenReturn(null);
+        CookiesUtil.ClearCookiesCallback callback = mock(CookiesUtil.ClearCookiesCallback.class);
+
+        CookiesUtil.clearCookies(cookieManager,
+                Arrays.asList("sandbox.affirm.com", "cdn1-sandbox.affirm.com"), callback);
+
+        // 2 cookies, each as a host only, host & parent domain cookie
+        ArgumentCaptor<String> cookies = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<ValueCallback<Boolean>> callbacks =
+                ArgumentCaptor.forClass(ValueCallback.class);
+        verify(cookieManager, times(6)).setCookie(
+                anyString(), cookies.capture(), callbacks.capture());
+        List<String> expired = cookies.getAllValues();
+        Truth.assertThat(expired).containsAllOf(
+                "session=; Max-Age=0; Path=/",
+                "ar=; Max-Age=0; Path=/; Domain=sandbox.affirm.com",
+                "ar=; Max-Age=0; Path=/; Domain=.affirm.com");
+
+        // Nothing is flushed nor reported before every cookie is expired
+        for (int i = 0; i < 5; i++) {
+            callbacks.getAllValues().get(i).onReceiveValue(true);
+        }
+        verify(cookieManager, never()).flush();
+        verify(callback, never()).onCookiesCleared();
+
+        callbacks.getAllValues().get(5).onReceiveValue(true);
+        verify(cookieManager, times(1)).flush();
+        verify(callback, times(1)).onCookiesCleared();
+    }
+
+    @Test
+    public void testCookiesAreExpiredBeforeReturning() {
+        CookieManager cookieManager = mock(CookieManager.class);
+        when(cookieManager.getCookie("https://sandbox.affirm.com")).thenReturn("session=a");
+
+        CookiesUtil.clearCookies(cookieManager, Collections.singletonList("sandbox.affirm.com"));
+
+        verify(cookieManager).setCookie("https://sandbox.affirm.com",
+                "session=; Max-Age=0; Path=/");
+        verify(cookieManager).setCookie("https://sandbox.affirm.com",
+                "session=; Max-Age=0; Path=/; Domain=.affirm.com");
+        verify(cookieManager, never()).setCookie(anyString(), anyString(), any());
+        verify(cookieManager).flush();
+    }
+
+    @Test
+    public void testNoCookieCompletesRightAway() {
+        CookieManager cookieManager = mock(CookieManager.class);
+        CookiesUtil.ClearCookiesCallback callback = mock(CookiesUtil.ClearCookiesCallback.class);
+
+        CookiesUtil.clearCookies(cookieManager, Collections.singletonList("sandbox.affirm.com"),
+                callback);
+
+        verify(cookieManager, never()).setCookie(anyString(), anyString(), any());
+        verify(callback).onCookiesCleared();
+    }
+}
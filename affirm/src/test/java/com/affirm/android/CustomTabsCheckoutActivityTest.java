@@ -0,0 +1,120 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.content.Intent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static com.affirm.android.AffirmConstants.CHECKOUT_ERROR;
+import static com.affirm.android.AffirmConstants.CHECKOUT_TOKEN;
+import static com.google.common.truth.Truth.assertThat;
+
+@RunWith(RobolectricTestRunner.class)
+public class CustomTabsCheckoutActivityTest {
+
+    private static final String REDIRECT_SCHEME = "com.example.affirm";
+    private static final String REDIRECT_STATE = "4f1c";
+
+    @Before
+    public void setup() {
+        AffirmPlugins.reset();
+        AffirmPlugins.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                Affirm.Environment.SANDBOX)
+                .setPresentationMode(Affirm.PresentationMode.CUSTOM_TABS)
+                .build());
+    }
+
+    @After
+    public void tearDown() {
+        AffirmPlugins.reset();
+    }
+
+    @Test
+    public void testConfirmationRedirect() {
+        Intent data = new Intent();
+
+        int resultCode = CustomTabsCheckoutActivity.result(
+                "com.example.affirm://checkout/confirmed?state=4f1c&checkout_token=123",
+                REDIRECT_SCHEME, REDIRECT_STATE, data);
+
+        assertThat(resultCode).isEqualTo(Activity.RESULT_OK);
+        assertThat(data.getStringExtra(CHECKOUT_TOKEN)).isEqualTo("123");
+    }
+
+    @Test
+    public void testCancellationRedirect() {
+        Intent data = new Intent();
+
+        int resultCode = CustomTabsCheckoutActivity.result(
+                "com.example.affirm://checkout/cancelled?state=4f1c", REDIRECT_SCHEME,
+                REDIRECT_STATE, data);
+
+        assertThat(resultCode).isEqualTo(Activity.RESULT_CANCELED);
+        assertThat(data.hasExtra(CHECKOUT_TOKEN)).isFalse();
+    }
+
+    @Test
+    public void testUnexpectedRedirect() {
+        Intent data = new Intent();
+
+        int resultCode = CustomTabsCheckoutActivity.result(
+                "com.example.affirm://checkout/other?state=4f1c", REDIRECT_SCHEME,
+                REDIRECT_STATE, data);
+
+        assertThat(resultCode).isEqualTo(Affirm.RESULT_ERROR);
+        assertThat(data.getStringExtra(CHECKOUT_ERROR)).isNotNull();
+    }
+
+    @Test
+    public void testRedirectToAnotherSchemeIsRejected() {
+        Intent data = new Intent();
+
+        int resultCode = CustomTabsCheckoutActivity.result(
+                "affirm://checkout/confirmed?state=4f1c&checkout_token=123", REDIRECT_SCHEME,
+                REDIRECT_STATE, data);
+
+        assertThat(resultCode).isEqualTo(Affirm.RESULT_ERROR);
+        assertThat(data.hasExtra(CHECKOUT_TOKEN)).isFalse();
+    }
+
+    @Test
+    public void testRedirectWithoutTheStateIsRejected() {
+        Intent data = new Intent();
+
+        int resultCode = CustomTabsCheckoutActivity.result(
+                "com.example.affirm://checkout/confirmed?checkout_token=123", REDIRECT_SCHEME,
+                REDIRECT_STATE, data);
+        assertThat(resultCode).isEqualTo(Affirm.RESULT_ERROR);
+
+        resultCode = CustomTabsCheckoutActivity.result(
+                "com.example.affirm://checkout/confirmed?state=9a2e&checkout_token=123",
+                REDIRECT_SCHEME, REDIRECT_STATE, data);
+        assertThat(resultCode).isEqualTo(Affirm.RESULT_ERROR);
+        assertThat(data.hasExtra(CHECKOUT_TOKEN)).isFalse();
+    }
+
+    @Test
+    public void testRedirectSchemeIsTheApplicationId() {
+        assertThat(AffirmCustomTabs.redirectScheme(RuntimeEnvironment.application))
+                .isEqualTo(RuntimeEnvironment.application.getPackageName() + ".affirm");
+    }
+
+    @Test
+    public void testApplicationIdThatIsNotASchemeFallsBackToWebView() {
+        assertThat(AffirmCustomTabs.redirectScheme("com.example.shop"))
+                .isEqualTo("com.example.shop.affirm");
+        assertThat(AffirmCustomTabs.redirectScheme("com.Example.shop")).isNull();
+        assertThat(AffirmCustomTabs.redirectScheme("com.example.my_shop")).isNull();
+    }
+
+    @Test
+    public void testWebViewIsUsedWithoutCustomTabsBrowser() {
+        assertThat(AffirmCustomTabs.isEnabled()).isTrue();
+        assertThat(AffirmCustomTabs.isAvailable(RuntimeEnvironment.application)).isFalse();
+    }
+}
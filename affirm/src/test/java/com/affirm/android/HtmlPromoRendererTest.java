@@ -0,0 +1,163 @@
+package com.affirm.android;
+
+import android.content.res.Resources;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.text.SpannableStringBuilder;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.ImageSpan;
+import android.text.style.StyleSpan;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Collections;
+
+@RunWith(RobolectricTestRunner.class)
+public class HtmlPromoRendererTest {
+
+    private static final String CSS = ".affirm-ala-price {\n"
+            + "    color: #0FA0EA;\n"
+            + "    font-weight: bold;\n"
+            + "    font-style:italic;\n"
+            + "    !important;\n"
+            + "}\n"
+            + "@media (min-width: 100px) { span { color: red; } }\n"
+            + "body { text-align: center; }";
+
+    private static final String TYPEFACE_DECLARATION =
+            "@font-face { font-family: 'Lacquer-Regular'; src: url('a.ttf'); }";
+
+    private static final String HTML_ALA = "Starting at <span class=\"affirm-ala-price\">$44"
+            + "</span>/mo with <span class=\"__affirm-logo affirm-logo--blue\">Affirm</span>."
+            + " <a class=\"affirm-modal-trigger\">Learn&nbsp;more</a>";
+
+    private final Resources resources = RuntimeEnvironment.application.getResources();
+
+    @Test
+    public void testParseStyleSheet() {
+        HtmlPromoStyleSheet styleSheet = HtmlPromoStyleSheet.parse(CSS);
+
+        HtmlPromoStyleSheet.Style style = styleSheet.resolve("span",
+                Collections.singletonList("affirm-ala-price"));
+        Truth.assertThat(style.color).isEqualTo(Color.parseColor("#0FA0EA"));
+        Truth.assertThat(style.bold).isTrue();
+        Truth.assertThat(style.italic).isTrue();
+        Truth.assertThat(styleSheet.resolve("body").textAlign).isEqualTo("center");
+        Truth.assertThat(styleSheet.resolve("span").isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testParseColor() {
+        Truth.assertThat(HtmlPromoStyleSheet.parseColor("#fff")).isEqualTo(Color.WHITE);
+        Truth.assertThat(HtmlPromoStyleSheet.parseColor("rgb(255, 0, 0)")).isEqualTo(Color.RED);
+        Truth.assertThat(HtmlPromoStyleSheet.parseColor("not-a-color")).isNull();
+    }
+
+    @Test
+    public void testRenderHtmlAla() {
+        SpannableStringBuilder span = HtmlPromoRenderer.render(HTML_ALA,
+                HtmlPromoStyleSheet.parse(CSS), 40f,
+                AffirmUtils.getLogoDrawable(AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO,
+                        AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources),
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources);
+
+        Truth.assertThat(span).isNotNull();
+        Truth.assertThat(span.toString())
+                .isEqualTo("Starting at $44/mo with Affirm. Learn\u00A0more");
+
+        int priceStart = span.toString().indexOf("$44");
+        ForegroundColorSpan[] colorSpans =
+                span.getSpans(priceStart, priceStart + 3, ForegroundColorSpan.class);
+        Truth.assertThat(colorSpans).hasLength(1);
+        StyleSpan[] styleSpans = span.getSpans(priceStart, priceStart + 3, StyleSpan.class);
+        Truth.assertThat(styleSpans[0].getStyle()).isEqualTo(Typeface.BOLD_ITALIC);
+
+        int logoStart = span.toString().indexOf("Affirm");
+        Truth.assertThat(span.getSpans(logoStart, logoStart + 6, ImageSpan.class)).hasLength(1);
+    }
+
+    @Test
+    public void testRenderKeepsTextLogoWithoutDrawable() {
+        SpannableStringBuilder span = HtmlPromoRenderer.render(HTML_ALA,
+                HtmlPromoStyleSheet.EMPTY, 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources);
+
+        Truth.assertThat(span).isNotNull();
+        Truth.assertThat(span.getSpans(0, span.length(), ImageSpan.class)).hasLength(0);
+    }
+
+    @Test
+    public void testRenderUnsupportedMarkup() {
+        Truth.assertThat(HtmlPromoRenderer.render("<img src=\"a.png\"/> 0% APR",
+                HtmlPromoStyleSheet.EMPTY, 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources)).isNull();
+        Truth.assertThat(HtmlPromoRenderer.render("<span>unclosed",
+                HtmlPromoStyleSheet.EMPTY, 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources)).isNull();
+    }
+
+    @Test
+    public void testFontsFallBackToWebView() {
+        Truth.assertThat(HtmlPromoStyleSheet.parse(CSS).usesFonts()).isFalse();
+        Truth.assertThat(HtmlPromoStyleSheet.parse(CSS + "\n" + TYPEFACE_DECLARATION)
+                .usesFonts()).isTrue();
+        Truth.assertThat(HtmlPromoStyleSheet.parse("span { font-family: Lacquer; }")
+                .usesFonts()).isTrue();
+        Truth.assertThat(HtmlPromoStyleSheet.parse("span { font-size: 12px; }")
+                .usesFonts()).isFalse();
+
+        Truth.assertThat(HtmlPromoRenderer.render(HTML_ALA,
+                HtmlPromoStyleSheet.parse(TYPEFACE_DECLARATION), 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources)).isNull();
+    }
+
+    @Test
+    public void testUnknownEntityFallsBackToWebView() {
+        Truth.assertThat(HtmlPromoRenderer.decodeEntities("Terms &amp; rates &#36;5"))
+                .isEqualTo("Terms & rates $5");
+        Truth.assertThat(HtmlPromoRenderer.decodeEntities("Learn more &raquo;")).isNull();
+
+        Truth.assertThat(HtmlPromoRenderer.render("0% APR &hellip;",
+                HtmlPromoStyleSheet.EMPTY, 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources)).isNull();
+    }
+
+    @Test
+    public void testUnstyledTagsKeepTheirDefaultStyle() {
+        SpannableStringBuilder span = HtmlPromoRenderer.render("<b>4%</b> APR with <em>Affirm</em>",
+                HtmlPromoStyleSheet.EMPTY, 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources);
+
+        Truth.assertThat(span.toString()).isEqualTo("4% APR with Affirm");
+        StyleSpan[] boldSpans = span.getSpans(0, 2, StyleSpan.class);
+        Truth.assertThat(boldSpans).hasLength(1);
+        Truth.assertThat(boldSpans[0].getStyle()).isEqualTo(Typeface.BOLD);
+        int italicStart = span.toString().indexOf("Affirm");
+        StyleSpan[] italicSpans = span.getSpans(italicStart, italicStart + 6, StyleSpan.class);
+        Truth.assertThat(italicSpans).hasLength(1);
+        Truth.assertThat(italicSpans[0].getStyle()).isEqualTo(Typeface.ITALIC);
+
+        SpannableStringBuilder overridden = HtmlPromoRenderer.render("<b>4%</b> APR",
+                HtmlPromoStyleSheet.parse("b { font-weight: normal; }"), 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources);
+        Truth.assertThat(overridden.getSpans(0, overridden.length(), StyleSpan.class))
+                .hasLength(0);
+    }
+
+    @Test
+    public void testBlockTagsBreakLines() {
+        Truth.assertThat(HtmlPromoRenderer.render("<p>0% APR</p>\n<p>Learn more</p>\n",
+                HtmlPromoStyleSheet.EMPTY, 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources).toString())
+                .isEqualTo("0% APR\nLearn more");
+        Truth.assertThat(HtmlPromoRenderer.render("Pay<div>later</div>with Affirm",
+                HtmlPromoStyleSheet.EMPTY, 40f, null,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, resources).toString())
+                .isEqualTo("Pay\nlater\nwith Affirm");
+    }
+}
@@ -0,0 +1,112 @@
+package com.affirm.android;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import com.google.common.truth.Truth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.Shadows;
+
+import java.math.BigDecimal;
+
+import static com.affirm.android.ModalActivity.ModalType.PRODUCT;
+
+@RunWith(RobolectricTestRunner.class)
+public class ModalPrefetcherTest {
+
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(1100.0);
+
+    private Context context;
+
+    @Before
+    public void setup() {
+        context = RuntimeEnvironment.application;
+        AffirmWebViewPool.resetLimit();
+        initialize(true);
+    }
+
+    @After
+    public void tearDown() {
+        AffirmWebViewPool.trimToSize(0);
+        AffirmPlugins.reset();
+    }
+
+    private void initialize(boolean prefetchModals) {
+        AffirmPlugins.reset();
+        AffirmPlugins.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                Affirm.Environment.SANDBOX)
+                .setPrefetchModals(prefetchModals)
+                .build());
+    }
+
+    @Test
+    public void testPrefetchedModalIsTakenOnce() {
+        ModalPrefetcher.prefetch(context, AMOUNT, PRODUCT, null, "product", "promo");
+
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(1);
+        Truth.assertThat(ModalPrefetcher.take(PRODUCT,
+                ModalActivity.buildParams(AMOUNT, null, "product", "promo"))).isNotNull();
+        Truth.assertThat(ModalPrefetcher.take(PRODUCT,
+                ModalActivity.buildParams(AMOUNT, null, "product", "promo"))).isNull();
+    }
+
+    @Test
+    public void testOtherModalIsNotTaken() {
+        ModalPrefetcher.prefetch(context, AMOUNT, PRODUCT, null, "product", "promo");
+
+        Truth.assertThat(ModalPrefetcher.take(PRODUCT, ModalActivity.buildParams(
+                BigDecimal.valueOf(50.0), null, "product", "promo"))).isNull();
+    }
+
+    @Test
+    public void testPoolIsLimitedByMemory() {
+        ModalPrefetcher.prefetch(context, AMOUNT, PRODUCT, null, "product", "promo");
+        ModalPrefetcher.prefetch(context, BigDecimal.valueOf(50.0), PRODUCT, null, "cart",
+                "promo");
+
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(AffirmWebViewPool.limit(context));
+    }
+
+    @Test
+    public void testFullPoolReusesTheLeastRecentWebView() {
+        AffirmWebView leastRecent = AffirmWebViewPool.create(context);
+        AffirmWebViewPool.put(context, "least_recent", leastRecent);
+        for (int i = 1; i < AffirmWebViewPool.limit(context); i++) {
+            AffirmWebViewPool.put(context, "recent" + i, AffirmWebViewPool.create(context));
+        }
+
+        ModalPrefetcher.prefetch(context, AMOUNT, PRODUCT, null, "product", "promo");
+
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(AffirmWebViewPool.limit(context));
+        Truth.assertThat(AffirmWebViewPool.contains("least_recent")).isFalse();
+        Truth.assertThat(ModalPrefetcher.take(PRODUCT,
+                ModalActivity.buildParams(AMOUNT, null, "product", "promo")))
+                .isSameAs(leastRecent);
+    }
+
+    @Test
+    public void testNothingIsPrefetchedOnLowRamDevices() {
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        Shadows.shadowOf(activityManager).setIsLowRamDevice(true);
+
+        ModalPrefetcher.prefetch(context, AMOUNT, PRODUCT, null, "product", "promo");
+
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testNothingIsPrefetchedUnlessEnabled() {
+        initialize(false);
+
+        ModalPrefetcher.prefetch(context, AMOUNT, PRODUCT, null, "product", "promo");
+
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,56 @@
+package com.affirm.android;
+
+import android.content.Context;
+
+import com.google.common.truth.Truth;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.math.BigDecimal;
+
+@RunWith(RobolectricTestRunner.class)
+public class PrequalPrefetcherTest {
+
+    private Context context;
+
+    @Before
+    public void setup() {
+        context = RuntimeEnvironment.application;
+        AffirmWebViewPool.resetLimit();
+        AffirmPlugins.reset();
+        AffirmPlugins.initialize(new Affirm.Configuration.Builder("Y8CQXFF044903JC0",
+                Affirm.Environment.SANDBOX)
+                .setPrefetchPrequal(true)
+                .build());
+    }
+
+    @After
+    public void tearDown() {
+        AffirmWebViewPool.trimToSize(0);
+        AffirmPlugins.reset();
+    }
+
+    @Test
+    public void testPrefetchedPrequalIsTakenByItsUrl() {
+        PrequalPrefetcher.prefetch(context, BigDecimal.valueOf(1100.0), "promo", "product");
+
+        Truth.assertThat(PrequalPrefetcher.take(
+                PrequalActivity.buildUrl("110000", "promo", "cart"))).isNull();
+        Truth.assertThat(PrequalPrefetcher.take(
+                PrequalActivity.buildUrl("110000", "promo", "product"))).isNotNull();
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testModalsAreNotPrefetchedWithPrequalOnly() {
+        ModalPrefetcher.prefetch(context, BigDecimal.valueOf(1100.0),
+                ModalActivity.ModalType.PRODUCT, null, "product", "promo");
+
+        Truth.assertThat(AffirmWebViewPool.size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,89 @@
+package com.affirm.android;
+
+import android.app.Activity;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.view.View;
+
+import com.google.common.truth.Truth;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.affirm.android.AffirmColor.AFFIRM_COLOR_TYPE_BLUE;
+import static com.affirm.android.AffirmColor.AFFIRM_COLOR_TYPE_WHITE;
+import static com.affirm.android.AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO;
+
+@RunWith(RobolectricTestRunner.class)
+public class PromoLayoutCacheTest {
+
+    private static final String PROMO = "Starting at $44/mo with {affirm_logo}. Learn more";
+
+    private Activity activity;
+
+    @Before
+    public void setup() {
+        PromoLayoutCache.clear();
+        activity = Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    @Test
+    public void testSameLabelSharesSpansAndLayout() {
+        AffirmPromotionButton first = measure(newButton(AFFIRM_COLOR_TYPE_BLUE), 500);
+        AffirmPromotionButton second = measure(newButton(AFFIRM_COLOR_TYPE_BLUE), 500);
+
+        Truth.assertThat(second.getLabel()).isSameAs(first.getLabel());
+        Truth.assertThat(PromoLayoutCache.layoutCount()).isEqualTo(1);
+        Truth.assertThat(second.getMeasuredHeight()).isEqualTo(first.getMeasuredHeight());
+    }
+
+    @Test
+    public void testStyleAndWidthArePartOfTheKey() {
+        AffirmPromotionButton blue = measure(newButton(AFFIRM_COLOR_TYPE_BLUE), 500);
+        AffirmPromotionButton white = measure(newButton(AFFIRM_COLOR_TYPE_WHITE), 500);
+        measure(newButton(AFFIRM_COLOR_TYPE_BLUE), 300);
+
+        Truth.assertThat(white.getLabel()).isNotSameAs(blue.getLabel());
+        Truth.assertThat(PromoLayoutCache.layoutCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testLayoutIsNotWiderThanTheLabel() {
+        PromoLayoutCache.Key key = PromoLayoutCache.spansKey("Learn more", null,
+                AFFIRM_DISPLAY_TYPE_LOGO, AFFIRM_COLOR_TYPE_BLUE, 40f);
+        Layout layout = PromoLayoutCache.getLayout(key, "Learn more", 10000,
+                Typeface.DEFAULT, 0xff000000);
+
+        Truth.assertThat(layout.getWidth()).isLessThan(10000);
+        Truth.assertThat(layout.getLineCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLabelIsDrawnWithoutChildren() {
+        AffirmPromotionButton button = measure(newButton(AFFIRM_COLOR_TYPE_BLUE), 500);
+        button.setLabel("Pay over time with {affirm_logo}");
+        measure(button, 500);
+
+        Truth.assertThat(button.getChildCount()).isEqualTo(0);
+        Truth.assertThat(button.getMeasuredHeight()).isGreaterThan(0);
+        Truth.assertThat(button.getContentDescription().toString())
+                .startsWith("Pay over time with");
+    }
+
+    private AffirmPromotionButton newButton(AffirmColor color) {
+        AffirmPromotionButton button = new AffirmPromotionButton(activity);
+        button.configWithLocalStyling(color, AFFIRM_DISPLAY_TYPE_LOGO, Typeface.DEFAULT,
+                android.R.color.black, R.dimen.affirm_promotion_size);
+        button.setLabel(PROMO);
+        return button;
+    }
+
+    private static AffirmPromotionButton measure(AffirmPromotionButton button, int width) {
+        button.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.AT_MOST),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        return button;
+    }
+}
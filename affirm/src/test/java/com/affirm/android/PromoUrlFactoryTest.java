@@ -0,0 +1,61 @@
+package com.affirm.android;
+
+import com.affirm.android.model.Item;
+import com.affirm.android.model.PromoPageType;
+import com.google.common.truth.Truth;
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(RobolectricTestRunner.class)
+public class PromoUrlFactoryTest {
+
+    private PromoUrlFactory factory;
+    private List<Item> items;
+
+    @Before
+    public void setup() {
+        factory = new PromoUrlFactory("https://", "sandbox.affirm.com", "Y8CQXFF044903JC0",
+                new Gson());
+        items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(Item.builder()
+                    .setDisplayName("Great Deal Wheel " + i)
+                    .setImageUrl("http://merchant.com/wheel_" + i + ".jpg")
+                    .setQty(1)
+                    .setSku("wheel_" + i)
+                    .setUnitPrice(BigDecimal.valueOf(1000.0))
+                    .setUrl("http://merchant.com/great_deal_wheel")
+                    .build()
+            );
+        }
+    }
+
+    @Test
+    public void testBuildUrl() {
+        String url = factory.build(110000, true, "promo id", PromoPageType.CART,
+                AffirmColor.AFFIRM_COLOR_TYPE_BLUE, AffirmLogoType.AFFIRM_DISPLAY_TYPE_LOGO,
+                null);
+
+        Truth.assertThat(url).isEqualTo("https://sandbox.affirm.com/api/promos/v2/"
+                + "Y8CQXFF044903JC0?is_sdk=true&field=ala&amount=110000&show_cta=true"
+                + "&promo_external_id=promo%20id&page_type=cart&logo_color=blue&logo_type=logo");
+    }
+
+    @Test
+    public void testEncodedItemsAreReused() {
+        String encoded = factory.encodeItems(items);
+        Truth.assertThat(factory.encodeItems(items)).isSameAs(encoded);
+        Truth.assertThat(factory.encodeItems(new ArrayList<>(items))).isSameAs(encoded);
+
+        items.remove(0);
+        Truth.assertThat(factory.encodeItems(items)).isNotSameAs(encoded);
+    }
+}
@@ -0,0 +1,87 @@
+package com.affirm.android;
+
+import com.affirm.android.exception.ConnectionException;
+import com.affirm.android.model.CardDetails;
+import com.affirm.android.model.VcnReason;
+import com.google.gson.Gson;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+@RunWith(RobolectricTestRunner.class)
+public class VcnCheckoutBridgeTest {
+
+    private final VcnCheckoutWebViewClient.Callbacks callbacks =
+            mock(VcnCheckoutWebViewClient.Callbacks.class);
+
+    private Gson gson;
+
+    @Before
+    public void setup() {
+        Affirm.Configuration configuration =
+                new Affirm.Configuration.Builder("111", Affirm.Environment.SANDBOX).build();
+        gson = new AffirmPlugins(configuration).gson();
+    }
+
+    @Test
+    public void testConfirmationIsDeliveredOnce() {
+        VcnCheckoutBridge bridge = new VcnCheckoutBridge(gson, "true", Runnable::run, callbacks);
+        String json = "{\"checkout_token\":\"YP99FF9TAMU2Q4CJ\",\"cvv\":\"123\","
+                + "\"number\":\"4012888888881881\","
+                + "\"cardholder_name\":\"AffirmInc Hector Montserrate\","
+                + "\"expiration\":\"0719\",\"id\":\"YP99FF9TAMU2Q4CJ\"}";
+
+        bridge.onCheckoutClose(true, json);
+        bridge.onCheckoutClose(true, json);
+        ShadowLooper.idleMainLooper();
+
+        CardDetails expected = CardDetails.builder()
+                .setCardholderName("AffirmInc Hector Montserrate")
+                .setCheckoutToken("YP99FF9TAMU2Q4CJ")
+                .setCvv("123")
+                .setNumber("4012888888881881")
+                .setExpiration("0719")
+                .build();
+        Mockito.verify(callbacks, Mockito.times(1)).onWebViewConfirmation(expected);
+    }
+
+    @Test
+    public void testCancellationWithoutReason() {
+        VcnCheckoutBridge bridge = new VcnCheckoutBridge(gson, "true", Runnable::run, callbacks);
+
+        bridge.onCheckoutClose(false, null);
+        ShadowLooper.idleMainLooper();
+
+        Mockito.verify(callbacks).onWebViewCancellationReason(
+                VcnReason.builder().setReason("canceled").build());
+    }
+
+    @Test
+    public void testCancellationWithoutReasonCodes() {
+        VcnCheckoutBridge bridge = new VcnCheckoutBridge(gson, "false", Runnable::run, callbacks);
+
+        bridge.onCheckoutClose(false, "{\"reason\":\"canceled\"}");
+        ShadowLooper.idleMainLooper();
+
+        Mockito.verify(callbacks).onWebViewCancellation();
+    }
+
+    @Test
+    public void testInvalidJsonIsAnError() {
+        VcnCheckoutBridge bridge = new VcnCheckoutBridge(gson, "true", Runnable::run, callbacks);
+
+        bridge.onCheckoutClose(true, "{\"number\":");
+        ShadowLooper.idleMainLooper();
+
+        Mockito.verify(callbacks).onWebViewError(any(ConnectionException.class));
+        Mockito.verify(callbacks, never()).onWebViewConfirmation(any(CardDetails.class));
+    }
+}
@@ -87,14 +87,15 @@ public class MainActivityEspressoTest {
                 .withElement(findElement(Locator.CLASS_NAME, "affirm-modal-trigger"))
                 .check(webMatches(getText(), startsWith("As low as")));
 
-        onView(firstChildOf(withId(R.id.promo)))
+        // The promo buttons draw their label, it's exposed as their content description
+        onView(withId(R.id.promo))
                 .check(matches(isEnabled()))
                 .check(matches(isDisplayed()))
-                .check(matches(withText(startsWith("As low as"))));
+                .check(matches(withContentDescription(startsWith("As low as"))));
 
-        onWebView(firstChildOf(firstChildOf(withId(R.id.promo_container))))
-                .withElement(findElement(Locator.CLASS_NAME, "affirm-modal-trigger"))
-                .check(webMatches(getText(), startsWith("As low as")));
+        onView(firstChildOf(withId(R.id.promo_container)))
+                .check(matches(isDisplayed()))
+                .check(matches(withContentDescription(startsWith("As low as"))));
     }
 
     @Test